@@ -0,0 +1,176 @@
+package luppolo.Costruzione;
+
+import java.util.Arrays;
+import luppolo.Nodo.FogliaRazionale;
+import luppolo.Nodo.FogliaSimbolo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe raccoglie le funzioni di analisi lessicale comuni ai parser, scritte con
+ * controlli sui caratteri invece che con espressioni regolari. Le foglie razionali dei valori più
+ * piccoli sono condivise tra tutte le analisi.
+ */
+final class Lessico {
+
+  /** Il più piccolo valore con foglia condivisa */
+  private static final int MINIMO_CONDIVISO = -128;
+
+  /** Il più grande valore con foglia condivisa */
+  private static final int MASSIMO_CONDIVISO = 1024;
+
+  /** Le foglie condivise dei valori da MINIMO_CONDIVISO a MASSIMO_CONDIVISO */
+  private static final FogliaRazionale[] COSTANTI =
+      new FogliaRazionale[MASSIMO_CONDIVISO - MINIMO_CONDIVISO + 1];
+
+  static {
+    for (int i = 0; i < COSTANTI.length; i++) {
+      COSTANTI[i] = new FogliaRazionale(new NumeroRazionale(i + MINIMO_CONDIVISO, 1));
+    }
+  }
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private Lessico() {}
+
+  /**
+   * Metodo che divide una porzione di testo in parole separate da spazi, con lo stesso risultato
+   * di split(" +"): uno spazio iniziale produce una parola vuota, quelli finali vengono ignorati e
+   * un testo vuoto è formato da una sola parola vuota
+   *
+   * @param testo il testo
+   * @param inizio l'indice del primo carattere della porzione
+   * @param fine l'indice successivo all'ultimo carattere della porzione
+   * @return i limiti delle parole: la parola i va da limiti[2 * i] a limiti[2 * i + 1] escluso
+   */
+  static int[] dividi(CharSequence testo, int inizio, int fine) {
+    if (inizio == fine) return new int[] {inizio, fine};
+    int[] limiti = new int[8];
+    int parole = 0;
+    int i = inizio;
+    while (i < fine) {
+      int j = i;
+      while (j < fine && testo.charAt(j) != ' ') j++;
+      if (j == fine && i == j) break;
+      if (2 * parole + 2 > limiti.length) limiti = Arrays.copyOf(limiti, 2 * limiti.length);
+      limiti[2 * parole] = i;
+      limiti[2 * parole + 1] = j;
+      parole++;
+      while (j < fine && testo.charAt(j) == ' ') j++;
+      i = j;
+    }
+    if (parole == 1 && limiti[0] == limiti[1]) return new int[0];
+    return Arrays.copyOf(limiti, 2 * parole);
+  }
+
+  /**
+   * Metodo che stabilisce se una parola è una lettera, eventualmente preceduta da un segno meno
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return true se la parola corrisponde a -?[a-z], false altrimenti
+   */
+  static boolean isSimbolo(CharSequence testo, int inizio, int fine) {
+    if (fine - inizio == 2 && testo.charAt(inizio) == '-') inizio++;
+    if (fine - inizio != 1) return false;
+    char c = testo.charAt(inizio);
+    return c >= 'a' && c <= 'z';
+  }
+
+  /**
+   * Metodo che restituisce la foglia simbolo di una parola -?[a-z]
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return la foglia simbolo condivisa
+   * @throws IllegalArgumentException se la parola è preceduta dal segno meno
+   */
+  static Nodo simbolo(CharSequence testo, int inizio, int fine) {
+    if (fine - inizio == 1) return FogliaSimbolo.valueOf(testo.charAt(inizio));
+    return new FogliaSimbolo(testo.subSequence(inizio, fine).toString());
+  }
+
+  /**
+   * Metodo che restituisce la foglia razionale di una parola intera, interpretata come
+   * Long.parseLong
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return la foglia razionale
+   * @throws NumberFormatException se la parola non è un long
+   */
+  static Nodo costante(CharSequence testo, int inizio, int fine) {
+    return costante(lungo(testo, inizio, fine, 18));
+  }
+
+  /**
+   * Metodo che restituisce la foglia razionale di un valore intero, condivisa se piccolo
+   *
+   * @param valore il valore
+   * @return la foglia razionale
+   */
+  static Nodo costante(long valore) {
+    if (valore >= MINIMO_CONDIVISO && valore <= MASSIMO_CONDIVISO)
+      return COSTANTI[(int) valore - MINIMO_CONDIVISO];
+    return new FogliaRazionale(new NumeroRazionale(valore, 1));
+  }
+
+  /**
+   * Metodo che interpreta una parola come Integer.parseInt
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return il valore
+   * @throws NumberFormatException se la parola non è un int
+   */
+  static int intero(CharSequence testo, int inizio, int fine) {
+    long valore = lungo(testo, inizio, fine, 9);
+    if (valore != (int) valore)
+      return Integer.parseInt(testo.subSequence(inizio, fine).toString());
+    return (int) valore;
+  }
+
+  /**
+   * Metodo che interpreta una parola come Long.parseLong, calcolando direttamente le parole con
+   * segno e al più cifreMassime cifre e delegando le altre a Long.parseLong
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @param cifreMassime il numero di cifre oltre il quale delegare
+   * @return il valore
+   * @throws NumberFormatException se la parola non è un long
+   */
+  static long lungo(CharSequence testo, int inizio, int fine, int cifreMassime) {
+    int i = inizio;
+    boolean negativo = false;
+    if (i < fine && (testo.charAt(i) == '-' || testo.charAt(i) == '+')) {
+      negativo = testo.charAt(i) == '-';
+      i++;
+    }
+    if (i == fine || fine - i > cifreMassime)
+      return Long.parseLong(testo.subSequence(inizio, fine).toString());
+    long valore = 0;
+    for (; i < fine; i++) {
+      char c = testo.charAt(i);
+      if (c < '0' || c > '9') return Long.parseLong(testo.subSequence(inizio, fine).toString());
+      valore = 10 * valore + (c - '0');
+    }
+    return negativo ? -valore : valore;
+  }
+
+  /**
+   * Metodo che restituisce il testo di una parola
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return la parola
+   */
+  static String parola(CharSequence testo, int inizio, int fine) {
+    return testo.subSequence(inizio, fine).toString();
+  }
+}
@@ -0,0 +1,335 @@
+package luppolo.Costruzione;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import luppolo.Espressione;
+
+/**
+ * OVERVIEW: La classe immutabile legge un file di espressioni in notazione polacca, una per riga,
+ * e le analizza in parallelo. Il file viene mappato in memoria a blocchi che terminano sempre a
+ * fine riga, e i blocchi vengono analizzati indipendentemente sul pool fork-join, mantenendo
+ * l'ordine delle righe nel file. Le righe vuote o di soli spazi e tabulazioni vengono ignorate e
+ * il ritorno a capo "\r\n" è accettato come "\n". All'interno di una riga gli elementi sono
+ * separati solo da spazi, come in ParserNotazionePolacca: una tabulazione fa parte dell'elemento
+ * in cui compare. Il testo è letto un byte per carattere, come ISO-8859-1.
+ */
+public class LettoreEspressioni {
+
+  /**
+   * AF: Il lettore divide i file in blocchi di circa dimensioneBlocco byte e ne analizza le righe
+   * con parser. IR: parser != null, dimensioneBlocco > 0
+   */
+
+  /** La dimensione predefinita dei blocchi, in byte */
+  public static final int DIMENSIONE_BLOCCO_PREDEFINITA = 1 << 23;
+
+  /** La dimensione del buffer usato per cercare la fine di un blocco */
+  private static final int DIMENSIONE_RICERCA = 4096;
+
+  /** Il parser delle singole righe, condiviso da tutti i thread */
+  private final ParserNotazionePolacca parser = new ParserNotazionePolacca();
+
+  /** La dimensione minima dei blocchi, in byte */
+  private final int dimensioneBlocco;
+
+  /** Costruisce un lettore con blocchi della dimensione predefinita */
+  public LettoreEspressioni() {
+    this(DIMENSIONE_BLOCCO_PREDEFINITA);
+  }
+
+  /**
+   * Costruisce un lettore con blocchi della dimensione data; un blocco si estende oltre la
+   * dimensione data fino alla fine della riga in corso
+   *
+   * @param dimensioneBlocco la dimensione minima dei blocchi, in byte
+   * @throws IllegalArgumentException se la dimensione non è positiva
+   */
+  public LettoreEspressioni(int dimensioneBlocco) {
+    if (dimensioneBlocco <= 0)
+      throw new IllegalArgumentException("La dimensione dei blocchi deve essere positiva");
+    this.dimensioneBlocco = dimensioneBlocco;
+  }
+
+  /**
+   * Metodo che restituisce lo stream parallelo e ordinato delle espressioni del file. Il file
+   * viene mappato subito, mentre le righe vengono analizzate solo quando lo stream viene
+   * consumato, sul pool fork-join comune o su quello da cui viene eseguita l'operazione terminale
+   *
+   * @param file il percorso del file
+   * @return lo stream delle espressioni, nell'ordine delle righe
+   * @throws NullPointerException se il percorso è null
+   * @throws IOException se il file non può essere letto o mappato
+   * @throws IllegalArgumentException se una riga supera la dimensione massima di un blocco
+   */
+  public Stream<Espressione> leggi(Path file) throws IOException {
+    Objects.requireNonNull(file, "Il file non può essere null");
+    return StreamSupport.stream(new Divisore(mappa(file)), true);
+  }
+
+  /**
+   * Metodo che analizza tutte le espressioni del file sul pool fork-join dato: ogni blocco viene
+   * sottomesso esplicitamente al pool, e le espressioni dei blocchi vengono raccolte nell'ordine
+   * del file
+   *
+   * @param file il percorso del file
+   * @param pool il pool su cui analizzare i blocchi
+   * @return la lista delle espressioni, nell'ordine delle righe
+   * @throws NullPointerException se il percorso o il pool è null
+   * @throws IOException se il file non può essere letto o mappato
+   * @throws IllegalArgumentException se una riga supera la dimensione massima di un blocco o non
+   *     contiene un'espressione valida
+   */
+  public List<Espressione> leggiTutte(Path file, ForkJoinPool pool) throws IOException {
+    Objects.requireNonNull(file, "Il file non può essere null");
+    Objects.requireNonNull(pool, "Il pool non può essere null");
+    List<ForkJoinTask<List<Espressione>>> analisi = new ArrayList<>();
+    for (Blocco blocco : mappa(file)) {
+      analisi.add(
+          pool.submit(
+              () -> {
+                List<Espressione> espressioni = new ArrayList<>();
+                analizza(blocco, espressioni::add);
+                return espressioni;
+              }));
+    }
+    List<Espressione> espressioni = new ArrayList<>();
+    for (ForkJoinTask<List<Espressione>> blocco : analisi) espressioni.addAll(blocco.join());
+    return espressioni;
+  }
+
+  /**
+   * Metodo che divide il file in blocchi che terminano a fine riga e li mappa in memoria
+   *
+   * @param file il percorso del file
+   * @return i blocchi del file, in ordine
+   * @throws IOException se il file non può essere letto o mappato
+   * @throws IllegalArgumentException se una riga supera la dimensione massima di un blocco
+   */
+  private Blocco[] mappa(Path file) throws IOException {
+    List<Blocco> blocchi = new ArrayList<>();
+    try (FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+      long dimensione = canale.size();
+      ByteBuffer ricerca = ByteBuffer.allocate(DIMENSIONE_RICERCA);
+      long inizio = 0;
+      while (inizio < dimensione) {
+        long fine = fineRiga(canale, ricerca, Math.min(inizio + dimensioneBlocco, dimensione));
+        if (fine - inizio > Integer.MAX_VALUE)
+          throw new IllegalArgumentException(
+              "La riga alla posizione " + inizio + " supera la dimensione massima di un blocco");
+        MappedByteBuffer dati = canale.map(FileChannel.MapMode.READ_ONLY, inizio, fine - inizio);
+        blocchi.add(new Blocco(inizio, dati));
+        inizio = fine;
+      }
+    }
+    return blocchi.toArray(new Blocco[0]);
+  }
+
+  /**
+   * Metodo che restituisce la posizione successiva al primo "\n" a partire dal byte che precede
+   * la posizione data, o la dimensione del file se non ce ne sono
+   *
+   * @param canale il canale del file
+   * @param ricerca il buffer da usare per la lettura
+   * @param posizione la posizione da cui iniziare la ricerca
+   * @return la fine della riga che contiene il byte precedente alla posizione data
+   * @throws IOException se il file non può essere letto
+   */
+  private static long fineRiga(FileChannel canale, ByteBuffer ricerca, long posizione)
+      throws IOException {
+    long dimensione = canale.size();
+    long corrente = posizione - 1;
+    while (corrente < dimensione) {
+      ricerca.clear();
+      int letti = canale.read(ricerca, corrente);
+      if (letti <= 0) break;
+      for (int i = 0; i < letti; i++) {
+        if (ricerca.get(i) == '\n') return corrente + i + 1;
+      }
+      corrente += letti;
+    }
+    return dimensione;
+  }
+
+  /**
+   * Metodo che analizza le righe di un blocco e passa le espressioni all'azione data, in ordine
+   *
+   * @param blocco il blocco
+   * @param azione l'azione da eseguire su ogni espressione
+   * @throws IllegalArgumentException se una riga non contiene un'espressione valida
+   */
+  private void analizza(Blocco blocco, Consumer<? super Espressione> azione) {
+    TestoAscii testo = new TestoAscii(blocco.dati);
+    int lunghezza = testo.length();
+    int inizio = 0;
+    while (inizio < lunghezza) {
+      int fine = inizio;
+      while (fine < lunghezza && testo.charAt(fine) != '\n') fine++;
+      int successivo = fine + 1;
+      if (fine > inizio && testo.charAt(fine - 1) == '\r') fine--;
+      if (!vuota(testo, inizio, fine)) {
+        Espressione espressione;
+        try {
+          espressione = parser.costruisci(testo, inizio, fine);
+        } catch (RuntimeException e) {
+          throw new IllegalArgumentException(
+              "Riga non valida alla posizione "
+                  + (blocco.posizione + inizio)
+                  + " del file: "
+                  + (e.getMessage() != null ? e.getMessage() : e.toString()),
+              e);
+        }
+        azione.accept(espressione);
+      }
+      inizio = successivo;
+    }
+  }
+
+  /**
+   * Metodo che stabilisce se una riga è vuota o contiene solo spazi e tabulazioni
+   *
+   * @param testo il testo del blocco
+   * @param inizio l'inizio della riga
+   * @param fine la fine della riga, esclusa
+   * @return true se la riga non contiene altri caratteri, false altrimenti
+   */
+  private static boolean vuota(TestoAscii testo, int inizio, int fine) {
+    for (int i = inizio; i < fine; i++) {
+      char carattere = testo.charAt(i);
+      if (carattere != ' ' && carattere != '\t') return false;
+    }
+    return true;
+  }
+
+  /** Un blocco del file mappato in memoria */
+  private static final class Blocco {
+
+    /** La posizione del blocco nel file */
+    private final long posizione;
+
+    /** Il contenuto del blocco */
+    private final ByteBuffer dati;
+
+    private Blocco(long posizione, ByteBuffer dati) {
+      this.posizione = posizione;
+      this.dati = dati;
+    }
+  }
+
+  /**
+   * Lo spliterator che divide un intervallo di blocchi a metà e analizza un blocco alla volta,
+   * conservando le espressioni del blocco in corso
+   */
+  private final class Divisore implements Spliterator<Espressione> {
+
+    /** Tutti i blocchi del file */
+    private final Blocco[] blocchi;
+
+    /** Il primo blocco non ancora analizzato */
+    private int da;
+
+    /** L'indice successivo all'ultimo blocco dell'intervallo */
+    private final int a;
+
+    /** Le espressioni del blocco in corso non ancora consumate, o null */
+    private Iterator<Espressione> inCorso;
+
+    private Divisore(Blocco[] blocchi) {
+      this(blocchi, 0, blocchi.length);
+    }
+
+    private Divisore(Blocco[] blocchi, int da, int a) {
+      this.blocchi = blocchi;
+      this.da = da;
+      this.a = a;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Espressione> azione) {
+      Objects.requireNonNull(azione, "L'azione non può essere null");
+      while (inCorso == null || !inCorso.hasNext()) {
+        if (da == a) return false;
+        List<Espressione> espressioni = new ArrayList<>();
+        analizza(blocchi[da++], espressioni::add);
+        inCorso = espressioni.iterator();
+      }
+      azione.accept(inCorso.next());
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Espressione> azione) {
+      Objects.requireNonNull(azione, "L'azione non può essere null");
+      if (inCorso != null) inCorso.forEachRemaining(azione);
+      while (da < a) analizza(blocchi[da++], azione);
+    }
+
+    @Override
+    public Spliterator<Espressione> trySplit() {
+      if (a - da < 2 || (inCorso != null && inCorso.hasNext())) return null;
+      int meta = (da + a) >>> 1;
+      Divisore prefisso = new Divisore(blocchi, da, meta);
+      da = meta;
+      return prefisso;
+    }
+
+    @Override
+    public long estimateSize() {
+      long byteRimasti = 0;
+      for (int i = da; i < a; i++) byteRimasti += blocchi[i].dati.capacity();
+      return byteRimasti;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL | IMMUTABLE;
+    }
+  }
+
+  /** La vista in sola lettura di un buffer di byte come testo, un byte per carattere */
+  private static final class TestoAscii implements CharSequence {
+
+    /** Il buffer letto con accessi assoluti */
+    private final ByteBuffer dati;
+
+    private TestoAscii(ByteBuffer dati) {
+      this.dati = dati;
+    }
+
+    @Override
+    public int length() {
+      return dati.capacity();
+    }
+
+    @Override
+    public char charAt(int indice) {
+      return (char) (dati.get(indice) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int inizio, int fine) {
+      byte[] byteParola = new byte[fine - inizio];
+      for (int i = 0; i < byteParola.length; i++) byteParola[i] = dati.get(inizio + i);
+      return new String(byteParola, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String toString() {
+      return subSequence(0, length()).toString();
+    }
+  }
+}
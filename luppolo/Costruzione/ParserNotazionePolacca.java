@@ -0,0 +1,132 @@
+package luppolo.Costruzione;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Metriche.Misuratore;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe immutabile analizza espressioni in notazione polacca con le stesse regole di
+ * AlberoNotazionePolacca, ma senza espressioni regolari: le parole vengono riconosciute carattere
+ * per carattere e le foglie più comuni sono condivise. Una sola istanza può essere riusata per
+ * qualunque numero di espressioni, anche da più thread contemporaneamente.
+ */
+public class ParserNotazionePolacca {
+
+  /** Il nodo foglia -1 usato per sottrazioni e divisioni */
+  private static final FogliaRazionale MENO_UNO = new FogliaRazionale(new NumeroRazionale(-1, 1));
+
+  /** Costruisce un parser di espressioni in notazione polacca */
+  public ParserNotazionePolacca() {}
+
+  /**
+   * Metodo che restituisce l'espressione rappresentata in notazione polacca da un testo
+   *
+   * @param espressione il testo dell'espressione
+   * @return l'espressione
+   * @throws NullPointerException se il testo è null
+   * @throws IllegalArgumentException se il testo è vuoto o contiene un elemento non valido
+   * @throws NoSuchElementException se non ci sono abbastanza elementi per costruire un nodo
+   */
+  public Espressione analizza(CharSequence espressione) {
+    Objects.requireNonNull(espressione, "L'espressione non può essere null");
+    if (espressione.length() == 0)
+      throw new IllegalArgumentException("L'espressione non può essere vuota");
+    return Misuratore.costruisci(
+        "ParserNotazionePolacca", () -> costruisci(espressione, 0, espressione.length()));
+  }
+
+  /**
+   * Metodo che costruisce l'espressione rappresentata da una porzione di testo, leggendo le
+   * parole da destra verso sinistra
+   *
+   * @param testo il testo
+   * @param inizio l'indice del primo carattere della porzione
+   * @param fine l'indice successivo all'ultimo carattere della porzione
+   * @return l'espressione
+   * @throws IllegalArgumentException se la porzione contiene un elemento non valido
+   * @throws NoSuchElementException se non ci sono abbastanza elementi per costruire un nodo
+   * @throws EmptyStackException se la porzione contiene solo spazi
+   */
+  Espressione costruisci(CharSequence testo, int inizio, int fine) {
+    int[] limiti = Lessico.dividi(testo, inizio, fine);
+    Nodo[] pila = new Nodo[8];
+    int cima = 0;
+    for (int parola = limiti.length / 2 - 1; parola >= 0; parola--) {
+      int a = limiti[2 * parola];
+      int b = limiti[2 * parola + 1];
+      Nodo nodo;
+      if (b - a == 1 && isOperatore(testo.charAt(a))) {
+        if (cima < 2)
+          throw new NoSuchElementException(
+              "Non ci sono abbastanza elementi nella pila per poterne creare un altro");
+        Nodo primo = pila[--cima];
+        Nodo secondo = pila[--cima];
+        nodo = creaNodo(testo.charAt(a), primo, secondo);
+      } else {
+        nodo = creaNodoFoglia(testo, a, b);
+      }
+      if (cima == pila.length) pila = Arrays.copyOf(pila, 2 * cima);
+      pila[cima++] = nodo;
+    }
+    if (cima == 0) throw new EmptyStackException();
+    return new Espressione(pila[cima - 1]);
+  }
+
+  /**
+   * Metodo che stabilisce se un carattere è accettato come operatore, cioè se appartiene alla
+   * classe [+*-/^], che comprende anche ',' e '.'
+   *
+   * @param c il carattere
+   * @return true se il carattere è accettato come operatore, false altrimenti
+   */
+  private static boolean isOperatore(char c) {
+    return c == '+' || c == '^' || (c >= '*' && c <= '/');
+  }
+
+  /**
+   * Metodo che dato un operatore e i due operandi restituisce il nodo composto specifico
+   *
+   * @param operatore l'operatore del nodo
+   * @param primo il primo operando
+   * @param secondo il secondo operando
+   * @return un Nodo in base all'operatore
+   * @throws IllegalArgumentException se l'operatore passato non è definito
+   */
+  private static Nodo creaNodo(char operatore, Nodo primo, Nodo secondo) {
+    switch (operatore) {
+      case '+':
+        return new NodoAddizione(List.of(primo, secondo));
+      case '-':
+        Nodo opposto = new NodoMoltiplicazione(List.of(MENO_UNO, secondo));
+        return new NodoAddizione(List.of(primo, opposto));
+      case '*':
+        return new NodoMoltiplicazione(List.of(primo, secondo));
+      case '/':
+        return new NodoMoltiplicazione(List.of(primo, new NodoPotenza(secondo, MENO_UNO)));
+      case '^':
+        return new NodoPotenza(primo, new FogliaRazionale(secondo.evaluate()));
+      default:
+        throw new IllegalArgumentException(operatore + " non è un operatore valido");
+    }
+  }
+
+  /**
+   * Metodo che restituisce il nodo foglia di una parola
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return un Nodo
+   * @throws IllegalArgumentException se la parola è vuota o non è un simbolo o un long
+   */
+  private static Nodo creaNodoFoglia(CharSequence testo, int inizio, int fine) {
+    if (inizio == fine) throw new IllegalArgumentException("L'elemento non èuò essere vuoto");
+    if (Lessico.isSimbolo(testo, inizio, fine)) return Lessico.simbolo(testo, inizio, fine);
+    return Lessico.costante(testo, inizio, fine);
+  }
+}
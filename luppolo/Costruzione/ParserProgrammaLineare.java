@@ -0,0 +1,136 @@
+package luppolo.Costruzione;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Metriche.Misuratore;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe immutabile analizza programmi lineari con le stesse regole di
+ * AlberoProgrammaLineare, ma senza espressioni regolari: le parole vengono riconosciute carattere
+ * per carattere e le foglie più comuni sono condivise. Una sola istanza può essere riusata per
+ * qualunque numero di programmi, anche da più thread contemporaneamente.
+ */
+public class ParserProgrammaLineare {
+
+  /** Il nodo foglia -1 usato per sottrazioni e divisioni */
+  private static final FogliaRazionale MENO_UNO = new FogliaRazionale(new NumeroRazionale(-1, 1));
+
+  /** Costruisce un parser di programmi lineari */
+  public ParserProgrammaLineare() {}
+
+  /**
+   * Metodo che restituisce l'espressione calcolata dall'ultima riga di un programma lineare. Le
+   * righe che l'ultima riga non raggiunge non vengono costruite e i loro errori non vengono
+   * segnalati
+   *
+   * @param righe le righe del programma
+   * @return l'espressione
+   * @throws NullPointerException se le righe o una di esse sono null
+   * @throws IllegalArgumentException se un operando o un elemento di una riga raggiungibile non è
+   *     valido
+   * @throws IndexOutOfBoundsException se un indice non si riferisce a una riga precedente o il
+   *     programma è vuoto
+   */
+  public Espressione analizza(List<? extends CharSequence> righe) {
+    Objects.requireNonNull(righe, "Il programma lineare non può essere null");
+    return Misuratore.costruisci("ParserProgrammaLineare", () -> costruisci(righe));
+  }
+
+  /**
+   * Metodo che restituisce l'espressione calcolata dall'ultima riga di un programma lineare,
+   * costruendo in parallelo le righe indipendenti e ignorando quelle che l'ultima riga non
+   * raggiunge
+   *
+   * @param righe le righe del programma
+   * @return l'espressione
+   * @throws NullPointerException se le righe o una di esse sono null
+   * @throws IllegalArgumentException se un operando o un elemento di una riga raggiungibile non è
+   *     valido
+   * @throws IndexOutOfBoundsException se un indice non si riferisce a una riga precedente o il
+   *     programma è vuoto
+   */
+  public Espressione analizzaParallelo(List<? extends CharSequence> righe) {
+    Objects.requireNonNull(righe, "Il programma lineare non può essere null");
+    return Misuratore.costruisci(
+        "ParserProgrammaLineareParallelo",
+        () -> ProgrammaLineare.decodifica(righe).costruisciParallelo());
+  }
+
+  /**
+   * Metodo che costruisce l'espressione riga per riga, decodificando e costruendo solo le righe
+   * raggiungibili dall'ultima
+   *
+   * @param righe le righe del programma
+   * @return l'espressione
+   * @throws NullPointerException se una delle righe è null
+   * @throws IllegalArgumentException se un operando o un elemento di una riga raggiungibile non è
+   *     valido
+   * @throws IndexOutOfBoundsException se un indice non si riferisce a una riga precedente o il
+   *     programma è vuoto
+   */
+  Espressione costruisci(List<? extends CharSequence> righe) {
+    return ProgrammaLineare.decodifica(righe).costruisci();
+  }
+
+  /**
+   * Metodo che costruisce un nodo a partire dall'operando e dai nodi delle righe indicate
+   *
+   * @param nodiDiInteresse i nodi delle righe indicate
+   * @param operando l'operando
+   * @return un Nodo
+   * @throws IllegalArgumentException se la lista di nodi è vuota
+   */
+  static Nodo creaPerOperando(List<Nodo> nodiDiInteresse, char operando) {
+    if (nodiDiInteresse.isEmpty())
+      throw new IllegalArgumentException("La lista di nodi non pyò essere vuota");
+    if (nodiDiInteresse.size() == 1) {
+      return nodiDiInteresse.get(0);
+    }
+    switch (operando) {
+      case '+':
+        return new NodoAddizione(nodiDiInteresse);
+      case '-':
+        List<Nodo> addendi = new ArrayList<>(nodiDiInteresse.size());
+        addendi.add(nodiDiInteresse.get(0));
+        for (int i = 1; i < nodiDiInteresse.size(); i++) {
+          addendi.add(new NodoMoltiplicazione(List.of(nodiDiInteresse.get(i), MENO_UNO)));
+        }
+        return new NodoAddizione(addendi);
+      case '*':
+        return new NodoMoltiplicazione(nodiDiInteresse);
+      case '^':
+        Nodo base = nodiDiInteresse.get(0);
+        NumeroRazionale esponenteValore =
+            nodiDiInteresse.get(nodiDiInteresse.size() - 1).evaluate();
+        for (int i = nodiDiInteresse.size() - 2; i >= 1; i--) {
+          esponenteValore =
+              nodiDiInteresse.get(i).evaluate().potenzaReturnNodo(esponenteValore).evaluate();
+        }
+        return new NodoPotenza(base, new FogliaRazionale(esponenteValore));
+      default:
+        List<Nodo> fattori = new ArrayList<>(nodiDiInteresse.size());
+        fattori.add(nodiDiInteresse.get(0));
+        for (int i = 1; i < nodiDiInteresse.size(); i++) {
+          fattori.add(new NodoPotenza(nodiDiInteresse.get(i), MENO_UNO));
+        }
+        return new NodoMoltiplicazione(fattori);
+    }
+  }
+
+  /**
+   * Metodo che restituisce il nodo foglia di una parola
+   *
+   * @param testo il testo
+   * @param inizio l'inizio della parola
+   * @param fine la fine della parola
+   * @return un nodo foglia specifico
+   * @throws IllegalArgumentException se la parola non è un simbolo o un int
+   */
+  static Nodo creaNodoFoglia(CharSequence testo, int inizio, int fine) {
+    if (Lessico.isSimbolo(testo, inizio, fine)) return Lessico.simbolo(testo, inizio, fine);
+    return Lessico.costante(Lessico.intero(testo, inizio, fine));
+  }
+}
@@ -0,0 +1,347 @@
+package luppolo.Costruzione;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import luppolo.Espressione;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un programma lineare già decodificato: per ogni riga
+ * raggiungibile dall'ultima conserva l'operando e gli indici delle righe da cui dipende, oppure la
+ * foglia che definisce. Le righe che l'ultima riga non raggiunge non vengono decodificate né
+ * costruite. Le righe raggiungibili sono raggruppate in livelli topologici: le righe di un livello
+ * dipendono solo da righe di livelli precedenti e possono quindi essere costruite in parallelo.
+ */
+public final class ProgrammaLineare {
+
+  /**
+   * AF: La riga i è raggiungibile se operandi[i] != 0; se operandi[i] == '.' definisce la foglia
+   * foglie[i], altrimenti applica operandi[i] alle righe indici[i]. Le righe raggiungibili di
+   * livello l sono ordine[inizioLivelli[l]], ..., ordine[inizioLivelli[l + 1] - 1]. IR: operandi,
+   * indici, foglie != null della stessa lunghezza n > 0, operandi[n - 1] != 0, per ogni riga
+   * raggiungibile i se operandi[i] == '.' allora foglie[i] != null, altrimenti indici[i] != null e
+   * per ogni j in indici[i] 0 <= j < i e operandi[j] != 0, il livello di ogni riga è maggiore di
+   * quello delle righe da cui dipende, ordine contiene ogni riga raggiungibile una sola volta
+   */
+
+  /** Il numero di righe di un livello sotto cui il livello viene costruito sequenzialmente */
+  private static final int SOGLIA_PARALLELA = 64;
+
+  /** L'operando di ogni riga, 0 per le righe non raggiungibili */
+  private final char[] operandi;
+
+  /** Gli indici delle righe da cui dipende ogni riga con un operatore */
+  private final int[][] indici;
+
+  /** La foglia di ogni riga con operando '.' */
+  private final Nodo[] foglie;
+
+  /** Le righe raggiungibili ordinate per livello */
+  private final int[] ordine;
+
+  /** La posizione in ordine della prima riga di ogni livello, seguita dal numero di righe */
+  private final int[] inizioLivelli;
+
+  private ProgrammaLineare(
+      char[] operandi, int[][] indici, Nodo[] foglie, int[] ordine, int[] inizioLivelli) {
+    this.operandi = operandi;
+    this.indici = indici;
+    this.foglie = foglie;
+    this.ordine = ordine;
+    this.inizioLivelli = inizioLivelli;
+  }
+
+  /**
+   * Metodo che decodifica un programma lineare, scorrendolo all'indietro dall'ultima riga e
+   * decodificando solo le righe che essa raggiunge. Gli errori nelle righe non raggiungibili non
+   * vengono segnalati
+   *
+   * @param righe le righe del programma
+   * @return il programma decodificato
+   * @throws NullPointerException se le righe o una di esse sono null
+   * @throws IllegalArgumentException se una riga raggiungibile è vuota, se una riga con operando
+   *     '.' non indica il valore della foglia o se un operando o un elemento di una riga
+   *     raggiungibile non è valido
+   * @throws IndexOutOfBoundsException se un indice non si riferisce a una riga precedente o il
+   *     programma è vuoto
+   */
+  public static ProgrammaLineare decodifica(List<? extends CharSequence> righe) {
+    Objects.requireNonNull(righe, "Il programma lineare non può essere null");
+    int n = righe.size();
+    if (n == 0) throw new IndexOutOfBoundsException("Il programma lineare non contiene righe");
+    CharSequence[] testi = new CharSequence[n];
+    for (int i = 0; i < n; i++) {
+      testi[i] =
+          Objects.requireNonNull(
+              righe.get(i), "Una riga del programma lineare non può essere null");
+    }
+    char[] operandi = new char[n];
+    int[][] indici = new int[n][];
+    Nodo[] foglie = new Nodo[n];
+    boolean[] raggiungibile = new boolean[n];
+    raggiungibile[n - 1] = true;
+    int numeroRaggiungibili = 0;
+    for (int i = n - 1; i >= 0; i--) {
+      if (!raggiungibile[i]) continue;
+      numeroRaggiungibili++;
+      CharSequence riga = testi[i];
+      int[] limiti = Lessico.dividi(riga, 0, riga.length());
+      int parole = limiti.length / 2;
+      if (parole == 0) throw new IllegalArgumentException("La riga " + i + " è vuota");
+      char operando = limiti[1] - limiti[0] == 1 ? riga.charAt(limiti[0]) : 0;
+      switch (operando) {
+        case '.':
+          if (parole < 2)
+            throw new IllegalArgumentException(
+                "La riga " + i + " non indica il valore della foglia");
+          foglie[i] = ParserProgrammaLineare.creaNodoFoglia(riga, limiti[2], limiti[3]);
+          break;
+        case '+', '-', '*', '/', '^':
+          int[] dipendenze = new int[parole - 1];
+          for (int k = 1; k < parole; k++) {
+            int indice = Lessico.intero(riga, limiti[2 * k], limiti[2 * k + 1]);
+            if (indice < 0 || indice >= i)
+              throw new IndexOutOfBoundsException("L'indice eccede la dimensione del vettore");
+            dipendenze[k - 1] = indice;
+            raggiungibile[indice] = true;
+          }
+          indici[i] = dipendenze;
+          break;
+        default:
+          throw new IllegalArgumentException(
+              Lessico.parola(riga, limiti[0], limiti[1]) + " non è definito");
+      }
+      operandi[i] = operando;
+    }
+    return ordina(operandi, indici, foglie, numeroRaggiungibili);
+  }
+
+  /**
+   * Metodo che restituisce il programma formato dalle righe già decodificate date, scartando
+   * quelle che l'ultima riga non raggiunge. Gli array vengono modificati e non devono essere più
+   * usati dal chiamante
+   *
+   * @param operandi gli operandi delle righe, diversi da 0
+   * @param indici gli indici delle righe da cui dipende ogni riga con un operatore, minori
+   *     dell'indice della riga stessa
+   * @param foglie le foglie delle righe con operando '.'
+   * @return il programma decodificato
+   */
+  static ProgrammaLineare daRighe(char[] operandi, int[][] indici, Nodo[] foglie) {
+    int n = operandi.length;
+    boolean[] raggiungibile = new boolean[n];
+    raggiungibile[n - 1] = true;
+    int numeroRaggiungibili = 0;
+    for (int i = n - 1; i >= 0; i--) {
+      if (!raggiungibile[i]) {
+        operandi[i] = 0;
+        indici[i] = null;
+        foglie[i] = null;
+        continue;
+      }
+      numeroRaggiungibili++;
+      if (operandi[i] != '.') {
+        for (int j : indici[i]) raggiungibile[j] = true;
+      }
+    }
+    return ordina(operandi, indici, foglie, numeroRaggiungibili);
+  }
+
+  /**
+   * Metodo che calcola il livello di ogni riga raggiungibile e restituisce il programma con le
+   * righe ordinate per livello
+   *
+   * @param operandi gli operandi delle righe
+   * @param indici gli indici delle righe da cui dipende ogni riga
+   * @param foglie le foglie delle righe
+   * @param numeroRaggiungibili il numero di righe raggiungibili
+   * @return il programma decodificato
+   */
+  private static ProgrammaLineare ordina(
+      char[] operandi, int[][] indici, Nodo[] foglie, int numeroRaggiungibili) {
+    int n = operandi.length;
+    int[] livelli = new int[n];
+    int numeroLivelli = 0;
+    for (int i = 0; i < n; i++) {
+      if (operandi[i] == 0 || operandi[i] == '.') continue;
+      int livello = 0;
+      for (int j : indici[i]) livello = Math.max(livello, livelli[j] + 1);
+      livelli[i] = livello;
+      numeroLivelli = Math.max(numeroLivelli, livello + 1);
+    }
+    numeroLivelli = Math.max(numeroLivelli, 1);
+    int[] inizioLivelli = new int[numeroLivelli + 1];
+    for (int i = 0; i < n; i++) {
+      if (operandi[i] != 0) inizioLivelli[livelli[i] + 1]++;
+    }
+    for (int l = 0; l < numeroLivelli; l++) inizioLivelli[l + 1] += inizioLivelli[l];
+    int[] ordine = new int[numeroRaggiungibili];
+    int[] prossimo = inizioLivelli.clone();
+    for (int i = 0; i < n; i++) {
+      if (operandi[i] != 0) ordine[prossimo[livelli[i]]++] = i;
+    }
+    return new ProgrammaLineare(operandi, indici, foglie, ordine, inizioLivelli);
+  }
+
+  /**
+   * Metodo che restituisce il numero di righe del programma
+   *
+   * @return il numero di righe
+   */
+  public int getNumeroRighe() {
+    return operandi.length;
+  }
+
+  /**
+   * Metodo che restituisce il numero di righe raggiungibili dall'ultima riga, compresa l'ultima
+   *
+   * @return il numero di righe raggiungibili
+   */
+  public int getNumeroRigheRaggiungibili() {
+    return ordine.length;
+  }
+
+  /**
+   * Metodo che restituisce il numero di livelli topologici delle righe raggiungibili
+   *
+   * @return il numero di livelli
+   */
+  public int getNumeroLivelli() {
+    return inizioLivelli.length - 1;
+  }
+
+  /**
+   * Metodo che restituisce l'operando di una riga
+   *
+   * @param riga l'indice della riga
+   * @return l'operando della riga, o 0 se la riga non è raggiungibile
+   */
+  char getOperando(int riga) {
+    return operandi[riga];
+  }
+
+  /**
+   * Metodo che restituisce gli indici delle righe da cui dipende una riga con un operatore; l'array
+   * restituito non deve essere modificato
+   *
+   * @param riga l'indice della riga
+   * @return gli indici delle righe da cui dipende la riga, o null se la riga non ha un operatore
+   */
+  int[] getIndici(int riga) {
+    return indici[riga];
+  }
+
+  /**
+   * Metodo che restituisce la foglia definita da una riga con operando '.'
+   *
+   * @param riga l'indice della riga
+   * @return la foglia della riga, o null se la riga non definisce una foglia
+   */
+  Nodo getFoglia(int riga) {
+    return foglie[riga];
+  }
+
+  /**
+   * Metodo che costruisce l'espressione calcolata dall'ultima riga, costruendo le righe
+   * raggiungibili una alla volta nell'ordine del programma
+   *
+   * @return l'espressione
+   * @throws IllegalArgumentException se una riga con un operatore non indica alcuna riga
+   */
+  public Espressione costruisci() {
+    Nodo[] nodi = new Nodo[operandi.length];
+    for (int i = 0; i < operandi.length; i++) {
+      if (operandi[i] != 0) nodi[i] = creaNodo(i, nodi);
+    }
+    return new Espressione(nodi[nodi.length - 1]);
+  }
+
+  /**
+   * Metodo che costruisce l'espressione calcolata dall'ultima riga, costruendo in parallelo sul
+   * pool fork-join comune le righe di ogni livello
+   *
+   * @return l'espressione
+   * @throws IllegalArgumentException se una riga con un operatore non indica alcuna riga
+   */
+  public Espressione costruisciParallelo() {
+    return costruisciPerLivelli(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Metodo che costruisce l'espressione calcolata dall'ultima riga, costruendo in parallelo sul
+   * pool dato le righe di ogni livello. I livelli vengono scanditi dal thread chiamante, mentre le
+   * righe dei livelli grandi vengono sottomesse esplicitamente al pool
+   *
+   * @param pool il pool su cui costruire le righe
+   * @return l'espressione
+   * @throws NullPointerException se il pool è null
+   * @throws IllegalArgumentException se una riga con un operatore non indica alcuna riga
+   */
+  public Espressione costruisciParallelo(ForkJoinPool pool) {
+    Objects.requireNonNull(pool, "Il pool non può essere null");
+    return costruisciPerLivelli(pool);
+  }
+
+  /**
+   * Metodo che costruisce le righe raggiungibili un livello alla volta. I livelli con almeno
+   * SOGLIA_PARALLELA righe vengono divisi in blocchi sottomessi al pool, e il livello successivo
+   * inizia solo dopo il completamento di tutti i blocchi
+   *
+   * @param pool il pool su cui costruire le righe dei livelli grandi
+   * @return l'espressione
+   * @throws IllegalArgumentException se una riga con un operatore non indica alcuna riga
+   */
+  private Espressione costruisciPerLivelli(ForkJoinPool pool) {
+    Nodo[] nodi = new Nodo[operandi.length];
+    for (int l = 0; l < getNumeroLivelli(); l++) {
+      int da = inizioLivelli[l];
+      int a = inizioLivelli[l + 1];
+      if (a - da < SOGLIA_PARALLELA) {
+        costruisciRighe(da, a, nodi);
+        continue;
+      }
+      int passo = Math.max(SOGLIA_PARALLELA, (a - da) / (4 * pool.getParallelism()));
+      List<ForkJoinTask<?>> blocchi = new ArrayList<>();
+      for (int inizio = da; inizio < a; inizio += passo) {
+        int primo = inizio;
+        int ultimo = Math.min(inizio + passo, a);
+        blocchi.add(pool.submit(() -> costruisciRighe(primo, ultimo, nodi)));
+      }
+      for (ForkJoinTask<?> blocco : blocchi) blocco.join();
+    }
+    return new Espressione(nodi[nodi.length - 1]);
+  }
+
+  /**
+   * Metodo mutazionale che costruisce le righe raggiungibili in ordine[da], ..., ordine[a - 1],
+   * che dipendono solo da righe già costruite
+   *
+   * @param da la prima posizione in ordine
+   * @param a la posizione successiva all'ultima
+   * @param nodi i nodi delle righe, in cui vengono registrati quelli costruiti
+   * @throws IllegalArgumentException se una riga con un operatore non indica alcuna riga
+   */
+  private void costruisciRighe(int da, int a, Nodo[] nodi) {
+    for (int k = da; k < a; k++) nodi[ordine[k]] = creaNodo(ordine[k], nodi);
+  }
+
+  /**
+   * Metodo che costruisce il nodo di una riga raggiungibile a partire dai nodi delle righe da cui
+   * dipende
+   *
+   * @param riga l'indice della riga
+   * @param nodi i nodi delle righe già costruite
+   * @return il nodo della riga
+   * @throws IllegalArgumentException se la riga ha un operatore ma non indica alcuna riga
+   */
+  private Nodo creaNodo(int riga, Nodo[] nodi) {
+    if (operandi[riga] == '.') return foglie[riga];
+    int[] dipendenze = indici[riga];
+    List<Nodo> nodiDiInteresse = new ArrayList<>(dipendenze.length);
+    for (int j : dipendenze) nodiDiInteresse.add(nodi[j]);
+    return ParserProgrammaLineare.creaPerOperando(nodiDiInteresse, operandi[riga]);
+  }
+}
@@ -0,0 +1,281 @@
+package luppolo.Costruzione;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Nodo.FogliaRazionale;
+import luppolo.Nodo.FogliaSimbolo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe non istanziabile legge e scrive programmi lineari in un formato binario
+ * compatto, che si decodifica senza dividere il testo in parole né interpretare numeri.
+ *
+ * <p>Un programma binario comincia con l'intestazione "LPB" seguita dalla versione 1, dal numero
+ * di righe e dalle righe in ordine. Ogni riga inizia con il byte del proprio codice: una foglia
+ * simbolo è seguita dal byte della lettera, una foglia razionale dal numeratore in zigzag e dal
+ * denominatore positivo, un operatore dal numero di operandi e, per ogni operando, dalla distanza
+ * tra la riga e la riga indicata. Tutti gli interi sono varint senza segno, 7 bit per byte a
+ * partire dai meno significativi. Vengono scritte solo le righe raggiungibili dall'ultima.
+ */
+public final class ProgrammaLineareBinario {
+
+  /** L'intestazione di un programma binario, seguita dalla versione */
+  private static final byte[] INTESTAZIONE = {'L', 'P', 'B', 1};
+
+  /** Il codice di una foglia simbolo */
+  private static final int FOGLIA_SIMBOLO = 0;
+
+  /** Il codice di una foglia razionale */
+  private static final int FOGLIA_RAZIONALE = 1;
+
+  /** Gli operatori nell'ordine dei loro codici, a partire da 2 */
+  private static final String OPERATORI = "+-*/^";
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private ProgrammaLineareBinario() {}
+
+  /**
+   * Metodo che converte un programma lineare dal formato testuale a quello binario
+   *
+   * @param righe le righe del programma testuale
+   * @param destinazione lo stream su cui scrivere il programma binario
+   * @throws NullPointerException se le righe, una di esse o la destinazione sono null
+   * @throws IllegalArgumentException se un operando o un elemento di una riga raggiungibile non è
+   *     valido
+   * @throws IndexOutOfBoundsException se un indice non si riferisce a una riga precedente o il
+   *     programma è vuoto
+   * @throws IOException se la scrittura fallisce
+   */
+  public static void converti(List<? extends CharSequence> righe, OutputStream destinazione)
+      throws IOException {
+    Objects.requireNonNull(destinazione, "La destinazione non può essere null");
+    scrivi(ProgrammaLineare.decodifica(righe), destinazione);
+  }
+
+  /**
+   * Metodo che scrive le righe raggiungibili di un programma nel formato binario, rinumerandole
+   * in ordine
+   *
+   * @param programma il programma
+   * @param destinazione lo stream su cui scrivere il programma binario
+   * @throws NullPointerException se il programma o la destinazione sono null
+   * @throws IOException se la scrittura fallisce
+   */
+  public static void scrivi(ProgrammaLineare programma, OutputStream destinazione)
+      throws IOException {
+    Objects.requireNonNull(programma, "Il programma non può essere null");
+    Objects.requireNonNull(destinazione, "La destinazione non può essere null");
+    destinazione.write(codifica(programma));
+  }
+
+  /**
+   * Metodo che restituisce un programma lineare nel formato binario
+   *
+   * @param programma il programma
+   * @return i byte del programma binario
+   * @throws NullPointerException se il programma è null
+   */
+  public static byte[] codifica(ProgrammaLineare programma) {
+    Objects.requireNonNull(programma, "Il programma non può essere null");
+    int n = programma.getNumeroRighe();
+    int[] nuoviIndici = new int[n];
+    int righeScritte = 0;
+    for (int i = 0; i < n; i++) {
+      if (programma.getOperando(i) != 0) nuoviIndici[i] = righeScritte++;
+    }
+    Scrittura scrittura = new Scrittura(INTESTAZIONE.length + 4 * n);
+    for (byte b : INTESTAZIONE) scrittura.byteSingolo(b);
+    scrittura.varint(righeScritte);
+    for (int i = 0; i < n; i++) {
+      char operando = programma.getOperando(i);
+      if (operando == 0) continue;
+      if (operando == '.') {
+        Nodo foglia = programma.getFoglia(i);
+        if (foglia instanceof FogliaSimbolo) {
+          scrittura.byteSingolo(FOGLIA_SIMBOLO);
+          scrittura.byteSingolo(foglia.getValoreNodo().charAt(0));
+        } else {
+          NumeroRazionale valore = foglia.evaluate();
+          scrittura.byteSingolo(FOGLIA_RAZIONALE);
+          scrittura.varint(zigzag(valore.getNumeratore()));
+          scrittura.varint(valore.getDenominatore());
+        }
+      } else {
+        int[] dipendenze = programma.getIndici(i);
+        scrittura.byteSingolo(FOGLIA_RAZIONALE + 1 + OPERATORI.indexOf(operando));
+        scrittura.varint(dipendenze.length);
+        for (int j : dipendenze) scrittura.varint(nuoviIndici[i] - nuoviIndici[j]);
+      }
+    }
+    return scrittura.toByteArray();
+  }
+
+  /**
+   * Metodo che legge un programma binario da uno stream, fino alla sua fine
+   *
+   * @param sorgente lo stream da cui leggere il programma binario
+   * @return il programma decodificato
+   * @throws NullPointerException se la sorgente è null
+   * @throws IOException se la lettura fallisce o il programma binario non è valido
+   */
+  public static ProgrammaLineare leggi(InputStream sorgente) throws IOException {
+    Objects.requireNonNull(sorgente, "La sorgente non può essere null");
+    return leggi(ByteBuffer.wrap(sorgente.readAllBytes()));
+  }
+
+  /**
+   * Metodo che legge un programma binario da un buffer, a partire dalla sua posizione corrente,
+   * che viene portata alla fine del programma
+   *
+   * @param sorgente il buffer da cui leggere il programma binario
+   * @return il programma decodificato
+   * @throws NullPointerException se la sorgente è null
+   * @throws IOException se il programma binario non è valido
+   */
+  public static ProgrammaLineare leggi(ByteBuffer sorgente) throws IOException {
+    Objects.requireNonNull(sorgente, "La sorgente non può essere null");
+    try {
+      for (byte b : INTESTAZIONE) {
+        if (sorgente.get() != b)
+          throw new IOException("L'intestazione del programma binario non è valida");
+      }
+      int n = intero(sorgente);
+      if (n == 0) throw new IOException("Il programma binario non contiene righe");
+      if (n > sorgente.remaining()) throw new EOFException("Il programma binario è troncato");
+      char[] operandi = new char[n];
+      int[][] indici = new int[n][];
+      Nodo[] foglie = new Nodo[n];
+      for (int i = 0; i < n; i++) {
+        int codice = sorgente.get() & 0xFF;
+        if (codice == FOGLIA_SIMBOLO) {
+          char lettera = (char) (sorgente.get() & 0xFF);
+          if (lettera < 'a' || lettera > 'z')
+            throw new IOException("La riga " + i + " non contiene un simbolo valido");
+          foglie[i] = FogliaSimbolo.valueOf(lettera);
+          operandi[i] = '.';
+        } else if (codice == FOGLIA_RAZIONALE) {
+          long numeratore = dezigzag(varint(sorgente));
+          long denominatore = varint(sorgente);
+          if (denominatore <= 0)
+            throw new IOException("La riga " + i + " non contiene un razionale valido");
+          foglie[i] =
+              denominatore == 1
+                  ? Lessico.costante(numeratore)
+                  : new FogliaRazionale(new NumeroRazionale(numeratore, denominatore));
+          operandi[i] = '.';
+        } else if (codice - FOGLIA_RAZIONALE - 1 < OPERATORI.length()) {
+          int arieta = intero(sorgente);
+          if (arieta > sorgente.remaining())
+            throw new EOFException("Il programma binario è troncato");
+          int[] dipendenze = new int[arieta];
+          for (int k = 0; k < arieta; k++) {
+            int distanza = intero(sorgente);
+            if (distanza < 1 || distanza > i)
+              throw new IOException("La riga " + i + " non si riferisce a una riga precedente");
+            dipendenze[k] = i - distanza;
+          }
+          indici[i] = dipendenze;
+          operandi[i] = OPERATORI.charAt(codice - FOGLIA_RAZIONALE - 1);
+        } else {
+          throw new IOException("La riga " + i + " ha un codice non valido: " + codice);
+        }
+      }
+      return ProgrammaLineare.daRighe(operandi, indici, foglie);
+    } catch (BufferUnderflowException e) {
+      throw new EOFException("Il programma binario è troncato");
+    }
+  }
+
+  /**
+   * Metodo che legge un varint che deve essere un int non negativo
+   *
+   * @param sorgente il buffer
+   * @return il valore letto
+   * @throws IOException se il valore non è un int non negativo
+   * @throws BufferUnderflowException se il buffer termina prima del valore
+   */
+  private static int intero(ByteBuffer sorgente) throws IOException {
+    long valore = varint(sorgente);
+    if (valore < 0 || valore > Integer.MAX_VALUE)
+      throw new IOException("Il programma binario contiene un intero troppo grande");
+    return (int) valore;
+  }
+
+  /**
+   * Metodo che legge un varint di al più 64 bit
+   *
+   * @param sorgente il buffer
+   * @return il valore letto, come long senza segno
+   * @throws IOException se il varint supera i 64 bit
+   * @throws BufferUnderflowException se il buffer termina prima del valore
+   */
+  private static long varint(ByteBuffer sorgente) throws IOException {
+    long valore = 0;
+    for (int spostamento = 0; spostamento < 64; spostamento += 7) {
+      byte b = sorgente.get();
+      valore |= (long) (b & 0x7F) << spostamento;
+      if (b >= 0) return valore;
+    }
+    throw new IOException("Il programma binario contiene un intero troppo grande");
+  }
+
+  /**
+   * Metodo che codifica un long con segno in modo che i valori piccoli in modulo abbiano varint
+   * brevi
+   *
+   * @param valore il valore
+   * @return il valore codificato
+   */
+  private static long zigzag(long valore) {
+    return (valore << 1) ^ (valore >> 63);
+  }
+
+  /**
+   * Metodo inverso di zigzag
+   *
+   * @param valore il valore codificato
+   * @return il valore
+   */
+  private static long dezigzag(long valore) {
+    return (valore >>> 1) ^ -(valore & 1);
+  }
+
+  /** Un buffer di byte che cresce durante la scrittura */
+  private static final class Scrittura {
+
+    /** I byte scritti, seguiti da spazio libero */
+    private byte[] dati;
+
+    /** Il numero di byte scritti */
+    private int lunghezza;
+
+    private Scrittura(int capacita) {
+      dati = new byte[Math.max(capacita, 16)];
+    }
+
+    private void byteSingolo(int b) {
+      if (lunghezza == dati.length) dati = Arrays.copyOf(dati, 2 * dati.length);
+      dati[lunghezza++] = (byte) b;
+    }
+
+    private void varint(long valore) {
+      while ((valore & ~0x7FL) != 0) {
+        byteSingolo((int) (valore & 0x7F) | 0x80);
+        valore >>>= 7;
+      }
+      byteSingolo((int) valore);
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(dati, lunghezza);
+    }
+  }
+}
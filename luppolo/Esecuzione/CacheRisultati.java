@@ -0,0 +1,448 @@
+package luppolo.Esecuzione;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import luppolo.Manipolazione.DerivataVisitor;
+import luppolo.Manipolazione.EspansioneVisitor;
+import luppolo.Manipolazione.SemplificaVisitor;
+import luppolo.Manipolazione.Visitor;
+import luppolo.Metriche.Misuratore;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe rappresenta una cache concorrente dei risultati delle manipolazioni,
+ * indicizzata dalla struttura canonica del nodo e dall'operazione. La cache è limitata sia nel
+ * numero di voci sia nel peso complessivo, misurato in nodi, e sceglie le voci da eliminare con
+ * una politica W-TinyLFU: le voci nuove entrano in una piccola finestra LRU e vengono ammesse
+ * nella regione principale solo se più frequenti della voce che andrebbero a sostituire. Richieste
+ * concorrenti della stessa chiave condividono un unico calcolo.
+ */
+public class CacheRisultati {
+
+  /**
+   * AF: La cache associa a ogni chiave {operazione, variabile, nodo} il nodo risultante. Le voci
+   * sono divise tra finestra e principale, entrambe in ordine di accesso. IR: finestra != null,
+   * principale != null, finestra e principale non hanno chiavi in comune, numero di voci <=
+   * vociMassime, peso <= pesoMassimo al termine di ogni inserimento
+   */
+
+  /** La cache condivisa dall'intero processo */
+  private static final CacheRisultati GLOBALE = new CacheRisultati(10_000, 1_000_000);
+
+  /** Il numero massimo di voci */
+  private final int vociMassime;
+
+  /** Il peso massimo complessivo delle voci, in nodi */
+  private final long pesoMassimo;
+
+  /** Il numero massimo di voci della finestra */
+  private final int vociFinestra;
+
+  /** La finestra delle voci inserite di recente, in ordine di accesso */
+  private final LinkedHashMap<Chiave, Voce> finestra = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** La regione principale delle voci ammesse, in ordine di accesso */
+  private final LinkedHashMap<Chiave, Voce> principale = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** La stima delle frequenze di accesso alle chiavi */
+  private final SchizzoFrequenze frequenze;
+
+  /** I calcoli in corso, per condividerli tra richieste concorrenti della stessa chiave */
+  private final ConcurrentMap<Chiave, CompletableFuture<Nodo>> inCorso = new ConcurrentHashMap<>();
+
+  /** Il peso complessivo delle voci */
+  private long peso;
+
+  /** Il numero di richieste trovate nella cache */
+  private long successi;
+
+  /** Il numero di richieste non trovate nella cache */
+  private long mancati;
+
+  /** Il numero di richieste che hanno atteso un calcolo già in corso */
+  private long condivisi;
+
+  /** Il numero di voci eliminate per rispettare i limiti */
+  private long evizioni;
+
+  /**
+   * Costruisce una cache vuota con i limiti dati
+   *
+   * @param vociMassime il numero massimo di voci
+   * @param pesoMassimo il peso massimo complessivo delle voci, in nodi
+   * @throws IllegalArgumentException se uno dei limiti non è positivo
+   */
+  public CacheRisultati(int vociMassime, long pesoMassimo) {
+    if (vociMassime <= 0)
+      throw new IllegalArgumentException("Il numero massimo di voci deve essere positivo.");
+    if (pesoMassimo <= 0)
+      throw new IllegalArgumentException("Il peso massimo deve essere positivo.");
+    this.vociMassime = vociMassime;
+    this.pesoMassimo = pesoMassimo;
+    this.vociFinestra = Math.max(1, vociMassime / 100);
+    this.frequenze = new SchizzoFrequenze(vociMassime);
+  }
+
+  /**
+   * Metodo che restituisce la cache condivisa dall'intero processo
+   *
+   * @return la cache globale
+   */
+  public static CacheRisultati globale() {
+    return GLOBALE;
+  }
+
+  /**
+   * Metodo che restituisce il nodo semplificato, calcolandolo solo se non è già nella cache
+   *
+   * @param nodo il nodo da semplificare
+   * @return il nodo semplificato
+   * @throws NullPointerException se il nodo è null
+   */
+  public Nodo semplifica(Nodo nodo) {
+    return calcola(Operazione.SEMPLIFICA, null, nodo);
+  }
+
+  /**
+   * Metodo che restituisce il nodo espanso, calcolandolo solo se non è già nella cache
+   *
+   * @param nodo il nodo da espandere
+   * @return il nodo espanso
+   * @throws NullPointerException se il nodo è null
+   */
+  public Nodo espandi(Nodo nodo) {
+    return calcola(Operazione.ESPANSIONE, null, nodo);
+  }
+
+  /**
+   * Metodo che restituisce la derivata del nodo rispetto alla variabile, calcolandola solo se non
+   * è già nella cache
+   *
+   * @param nodo il nodo da derivare
+   * @param variabile la variabile secondo cui derivare
+   * @return la derivata del nodo
+   * @throws NullPointerException se il nodo o la variabile sono null
+   * @throws IllegalArgumentException se la variabile non è definita nel dominio {a-z}
+   */
+  public Nodo deriva(Nodo nodo, String variabile) {
+    Objects.requireNonNull(variabile, "La variabile non può essere null.");
+    return calcola(Operazione.DERIVATA, variabile, nodo);
+  }
+
+  /**
+   * Metodo che restituisce il risultato dell'operazione sul nodo, calcolandolo solo se non è già
+   * nella cache. Se lo stesso risultato è già in calcolo su un altro thread, il metodo ne attende
+   * il completamento invece di ricalcolarlo.
+   *
+   * @param operazione l'operazione da applicare
+   * @param variabile la variabile secondo cui derivare, null per le altre operazioni
+   * @param nodo il nodo su cui applicare l'operazione
+   * @return il risultato dell'operazione
+   * @throws NullPointerException se l'operazione o il nodo sono null
+   */
+  private Nodo calcola(Operazione operazione, String variabile, Nodo nodo) {
+    Objects.requireNonNull(operazione, "L'operazione non può essere null.");
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    Chiave chiave = new Chiave(operazione, variabile, nodo);
+    synchronized (this) {
+      frequenze.incrementa(chiave.hashCode());
+      Voce voce = finestra.get(chiave);
+      if (voce == null) voce = principale.get(chiave);
+      if (voce != null) {
+        successi++;
+        return voce.risultato;
+      }
+      mancati++;
+    }
+
+    CompletableFuture<Nodo> calcolo = new CompletableFuture<>();
+    CompletableFuture<Nodo> esistente = inCorso.putIfAbsent(chiave, calcolo);
+    if (esistente != null) {
+      synchronized (this) {
+        condivisi++;
+      }
+      return attendi(esistente);
+    }
+    try {
+      Nodo presente = ricontrolla(chiave);
+      if (presente != null) {
+        calcolo.complete(presente);
+        return presente;
+      }
+      Visitor visitor = creaVisitor(operazione, variabile);
+      Nodo risultato = Misuratore.applica(operazione.name(), visitor, nodo);
+      inserisci(chiave, risultato);
+      calcolo.complete(risultato);
+      return risultato;
+    } catch (RuntimeException | Error e) {
+      calcolo.completeExceptionally(e);
+      throw e;
+    } finally {
+      inCorso.remove(chiave, calcolo);
+    }
+  }
+
+  /**
+   * Metodo che cerca di nuovo un risultato dopo aver registrato il proprio calcolo: un altro thread
+   * può averlo inserito tra il primo controllo e la registrazione. In tal caso il mancato già
+   * contato diventa un successo.
+   *
+   * @param chiave la chiave del risultato
+   * @return il risultato, o null se non è nella cache
+   */
+  private synchronized Nodo ricontrolla(Chiave chiave) {
+    Voce voce = finestra.get(chiave);
+    if (voce == null) voce = principale.get(chiave);
+    if (voce == null) return null;
+    mancati--;
+    successi++;
+    return voce.risultato;
+  }
+
+  /**
+   * Metodo che attende il risultato di un calcolo in corso su un altro thread
+   *
+   * @param calcolo il calcolo in corso
+   * @return il risultato del calcolo
+   * @throws RuntimeException l'eccezione sollevata dal calcolo
+   */
+  private static Nodo attendi(CompletableFuture<Nodo> calcolo) {
+    try {
+      return calcolo.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException causa) throw causa;
+      if (e.getCause() instanceof Error causa) throw causa;
+      throw e;
+    }
+  }
+
+  /**
+   * Metodo che crea il visitor che realizza l'operazione
+   *
+   * @param operazione l'operazione
+   * @param variabile la variabile secondo cui derivare, null per le altre operazioni
+   * @return il visitor
+   */
+  private static Visitor creaVisitor(Operazione operazione, String variabile) {
+    switch (operazione) {
+      case SEMPLIFICA:
+        return new SemplificaVisitor();
+      case ESPANSIONE:
+        return new EspansioneVisitor();
+      case DERIVATA:
+        return new DerivataVisitor(variabile);
+      default:
+        throw new IllegalArgumentException(operazione + " non è un'operazione valida");
+    }
+  }
+
+  /**
+   * Metodo mutazionale che inserisce un risultato nella finestra e riporta la cache entro i limiti
+   *
+   * @param chiave la chiave del risultato
+   * @param risultato il risultato
+   */
+  private synchronized void inserisci(Chiave chiave, Nodo risultato) {
+    if (finestra.containsKey(chiave) || principale.containsKey(chiave)) return;
+    Voce voce = new Voce(risultato, contaNodi(chiave.nodo) + contaNodi(risultato));
+    finestra.put(chiave, voce);
+    peso += voce.peso;
+    while (finestra.size() > vociFinestra) {
+      Map.Entry<Chiave, Voce> candidata = rimuoviPiuVecchia(finestra);
+      ammetti(candidata.getKey(), candidata.getValue());
+    }
+    while (peso > pesoMassimo && !(finestra.isEmpty() && principale.isEmpty())) {
+      rimuoviPiuVecchia(principale.isEmpty() ? finestra : principale);
+      evizioni++;
+    }
+  }
+
+  /**
+   * Metodo mutazionale che sposta nella regione principale una voce uscita dalla finestra, se è
+   * più frequente delle voci che deve sostituire, e altrimenti la elimina
+   *
+   * @param chiave la chiave della voce
+   * @param voce la voce
+   */
+  private void ammetti(Chiave chiave, Voce voce) {
+    int frequenzaCandidata = frequenze.frequenza(chiave.hashCode());
+    while (finestra.size() + principale.size() >= vociMassime && !principale.isEmpty()) {
+      Chiave vittima = principale.keySet().iterator().next();
+      if (frequenzaCandidata <= frequenze.frequenza(vittima.hashCode())) {
+        evizioni++;
+        return;
+      }
+      rimuoviPiuVecchia(principale);
+      evizioni++;
+    }
+    principale.put(chiave, voce);
+    peso += voce.peso;
+  }
+
+  /**
+   * Metodo mutazionale che rimuove la voce usata meno di recente da una regione
+   *
+   * @param regione la regione, non vuota
+   * @return la voce rimossa
+   */
+  private Map.Entry<Chiave, Voce> rimuoviPiuVecchia(LinkedHashMap<Chiave, Voce> regione) {
+    Iterator<Map.Entry<Chiave, Voce>> it = regione.entrySet().iterator();
+    Map.Entry<Chiave, Voce> voce = it.next();
+    Map.Entry<Chiave, Voce> piuVecchia = Map.entry(voce.getKey(), voce.getValue());
+    it.remove();
+    peso -= piuVecchia.getValue().peso;
+    return piuVecchia;
+  }
+
+  /**
+   * Metodo che conta i nodi di un albero
+   *
+   * @param nodo la radice dell'albero
+   * @return il numero di nodi
+   */
+  private static long contaNodi(Nodo nodo) {
+    long nodi = 1;
+    for (Nodo figlio : nodo.getFigliNodo()) {
+      nodi += contaNodi(figlio);
+    }
+    return nodi;
+  }
+
+  /** Metodo mutazionale che svuota la cache, senza azzerarne le statistiche */
+  public synchronized void svuota() {
+    finestra.clear();
+    principale.clear();
+    peso = 0;
+  }
+
+  /**
+   * Metodo che restituisce il numero di richieste trovate nella cache
+   *
+   * @return il numero di successi
+   */
+  public synchronized long getSuccessi() {
+    return successi;
+  }
+
+  /**
+   * Metodo che restituisce il numero di richieste non trovate nella cache, comprese quelle che
+   * hanno atteso un calcolo già in corso
+   *
+   * @return il numero di mancati
+   */
+  public synchronized long getMancati() {
+    return mancati;
+  }
+
+  /**
+   * Metodo che restituisce il numero di richieste che hanno atteso un calcolo già in corso invece
+   * di ripeterlo
+   *
+   * @return il numero di calcoli condivisi
+   */
+  public synchronized long getCondivisi() {
+    return condivisi;
+  }
+
+  /**
+   * Metodo che restituisce il numero di voci eliminate per rispettare i limiti
+   *
+   * @return il numero di evizioni
+   */
+  public synchronized long getEvizioni() {
+    return evizioni;
+  }
+
+  /**
+   * Metodo che restituisce il numero di voci presenti
+   *
+   * @return il numero di voci
+   */
+  public synchronized int getDimensione() {
+    return finestra.size() + principale.size();
+  }
+
+  /**
+   * Metodo che restituisce il peso complessivo delle voci presenti, in nodi
+   *
+   * @return il peso
+   */
+  public synchronized long getPeso() {
+    return peso;
+  }
+
+  /**
+   * OVERVIEW: La classe immutabile rappresenta la chiave di un risultato: l'operazione, la
+   * variabile secondo cui derivare e il nodo su cui è applicata
+   */
+  private static final class Chiave {
+
+    /** L'operazione */
+    private final Operazione operazione;
+
+    /** La variabile secondo cui derivare, null per le altre operazioni */
+    private final String variabile;
+
+    /** Il nodo su cui è applicata l'operazione */
+    private final Nodo nodo;
+
+    /** L'hash della chiave, calcolato una sola volta */
+    private final int hash;
+
+    /**
+     * Costruisce una chiave
+     *
+     * @param operazione l'operazione
+     * @param variabile la variabile secondo cui derivare
+     * @param nodo il nodo
+     */
+    private Chiave(Operazione operazione, String variabile, Nodo nodo) {
+      this.operazione = operazione;
+      this.variabile = variabile;
+      this.nodo = nodo;
+      this.hash = Objects.hash(operazione, variabile, nodo);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Chiave that)) return false;
+      return hash == that.hash
+          && operazione == that.operazione
+          && Objects.equals(variabile, that.variabile)
+          && nodo.equals(that.nodo);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /** OVERVIEW: La classe immutabile rappresenta una voce della cache: il risultato e il suo peso */
+  private static final class Voce {
+
+    /** Il risultato memorizzato */
+    private final Nodo risultato;
+
+    /** Il peso della voce, in nodi */
+    private final long peso;
+
+    /**
+     * Costruisce una voce
+     *
+     * @param risultato il risultato
+     * @param peso il peso
+     */
+    private Voce(Nodo risultato, long peso) {
+      this.risultato = risultato;
+      this.peso = peso;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package luppolo.Esecuzione;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+import luppolo.Espressione;
+import luppolo.Manipolazione.Visitor;
+import luppolo.Metriche.Misuratore;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta una fase di elaborazione di un'espressione, definita
+ * da un nome, dal visitor che la trasforma e dal tempo massimo concesso alla sua esecuzione.
+ */
+public class Fase {
+
+  /**
+   * AF: La fase applica all'espressione un visitor nuovo ottenuto dal fornitore, entro il tempo
+   * massimo timeout. Un esempio è {"semplifica", SemplificaVisitor::new, 1s}. IR: nome != null,
+   * nome non vuoto, fornitoreVisitor != null, timeout != null, timeout > 0
+   */
+
+  /** Il nome della fase */
+  private final String nome;
+
+  /** Il fornitore del visitor, invocato una volta per ogni espressione elaborata */
+  private final Supplier<? extends Visitor> fornitoreVisitor;
+
+  /** Il tempo massimo concesso alla fase */
+  private final Duration timeout;
+
+  /**
+   * Costruisce una fase a partire dal suo nome, dal fornitore del visitor e dal tempo massimo
+   *
+   * @param nome il nome della fase
+   * @param fornitoreVisitor il fornitore del visitor da applicare
+   * @param timeout il tempo massimo concesso alla fase
+   * @throws NullPointerException se uno dei parametri è null
+   * @throws IllegalArgumentException se il nome è vuoto
+   * @throws IllegalArgumentException se il timeout non è positivo
+   */
+  public Fase(String nome, Supplier<? extends Visitor> fornitoreVisitor, Duration timeout) {
+    Objects.requireNonNull(nome, "Il nome della fase non può essere null.");
+    Objects.requireNonNull(fornitoreVisitor, "Il fornitore del visitor non può essere null.");
+    Objects.requireNonNull(timeout, "Il timeout non può essere null.");
+    if (nome.isEmpty())
+      throw new IllegalArgumentException("Il nome della fase non può essere vuoto.");
+    if (timeout.isNegative() || timeout.isZero())
+      throw new IllegalArgumentException("Il timeout deve essere positivo.");
+    this.nome = nome;
+    this.fornitoreVisitor = fornitoreVisitor;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Metodo che restituisce il nome della fase
+   *
+   * @return il nome
+   */
+  public String getNome() {
+    return nome;
+  }
+
+  /**
+   * Metodo che restituisce il tempo massimo concesso alla fase
+   *
+   * @return il timeout
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Metodo che applica la fase a un'espressione
+   *
+   * @param espressione l'espressione da trasformare
+   * @return l'espressione trasformata
+   * @throws NullPointerException se l'espressione è null
+   * @throws NullPointerException se il fornitore restituisce un visitor null
+   */
+  public Espressione applica(Espressione espressione) {
+    Objects.requireNonNull(espressione, "L'espressione non può essere null.");
+    Visitor visitor =
+        Objects.requireNonNull(fornitoreVisitor.get(), "Il visitor fornito non può essere null.");
+    return new Espressione(Misuratore.applica(nome, visitor, espressione.getRadice()));
+  }
+
+  @Override
+  public String toString() {
+    return nome;
+  }
+}
@@ -0,0 +1,11 @@
+package luppolo.Esecuzione;
+
+/** OVERVIEW: Enum che definisce le manipolazioni i cui risultati possono essere memorizzati */
+public enum Operazione {
+  /** Enum operazione di semplificazione */
+  SEMPLIFICA,
+  /** Enum operazione di espansione */
+  ESPANSIONE,
+  /** Enum operazione di derivata rispetto a una variabile */
+  DERIVATA;
+}
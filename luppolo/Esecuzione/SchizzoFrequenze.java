@@ -0,0 +1,87 @@
+package luppolo.Esecuzione;
+
+/**
+ * OVERVIEW: La classe mutabile stima in modo approssimato la frequenza di accesso alle chiavi con
+ * un count-min sketch a quattro righe. I contatori vengono dimezzati periodicamente, così che la
+ * stima segua le frequenze recenti.
+ */
+class SchizzoFrequenze {
+
+  /**
+   * AF: La frequenza stimata di una chiave è il minimo dei quattro contatori selezionati dal suo
+   * hash. IR: contatori != null, la lunghezza di contatori è una potenza di due, campioni <=
+   * periodo
+   */
+
+  /** Le quattro righe di contatori, disposte una dopo l'altra */
+  private final int[] contatori;
+
+  /** La maschera per selezionare un contatore all'interno di una riga */
+  private final int maschera;
+
+  /** Il numero di incrementi dopo cui i contatori vengono dimezzati */
+  private final int periodo;
+
+  /** Il numero di incrementi dall'ultimo dimezzamento */
+  private int campioni;
+
+  /**
+   * Costruisce uno schizzo dimensionato per il numero di chiavi da distinguere
+   *
+   * @param capacita il numero di chiavi da distinguere
+   */
+  SchizzoFrequenze(int capacita) {
+    int larghezza = Integer.highestOneBit(Math.max(16, capacita - 1) << 1);
+    this.contatori = new int[4 * larghezza];
+    this.maschera = larghezza - 1;
+    this.periodo = 10 * Math.max(16, capacita);
+  }
+
+  /**
+   * Metodo mutazionale che registra un accesso alla chiave con l'hash dato
+   *
+   * @param hash l'hash della chiave
+   */
+  void incrementa(int hash) {
+    for (int riga = 0; riga < 4; riga++) {
+      int indice = indice(hash, riga);
+      if (contatori[indice] < 15) contatori[indice]++;
+    }
+    if (++campioni >= periodo) dimezza();
+  }
+
+  /**
+   * Metodo che stima la frequenza di accesso alla chiave con l'hash dato
+   *
+   * @param hash l'hash della chiave
+   * @return la frequenza stimata
+   */
+  int frequenza(int hash) {
+    int minimo = Integer.MAX_VALUE;
+    for (int riga = 0; riga < 4; riga++) {
+      minimo = Math.min(minimo, contatori[indice(hash, riga)]);
+    }
+    return minimo;
+  }
+
+  /** Metodo mutazionale che dimezza tutti i contatori */
+  private void dimezza() {
+    for (int i = 0; i < contatori.length; i++) {
+      contatori[i] >>>= 1;
+    }
+    campioni /= 2;
+  }
+
+  /**
+   * Metodo che restituisce la posizione del contatore della riga data per un hash
+   *
+   * @param hash l'hash della chiave
+   * @param riga la riga
+   * @return la posizione del contatore
+   */
+  private int indice(int hash, int riga) {
+    long h = (hash + 0x9E3779B97F4A7C15L * (riga + 1)) * 0xBF58476D1CE4E5B9L;
+    h ^= h >>> 31;
+    return riga * (maschera + 1) + ((int) h & maschera);
+  }
+}
@@ -0,0 +1,306 @@
+package luppolo.Esecuzione;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import luppolo.Costruzione.AlberoNotazionePolacca;
+import luppolo.Espressione;
+
+/**
+ * OVERVIEW: La classe rappresenta un servizio concorrente che elabora espressioni in notazione
+ * polacca: ogni lavoro costruisce l'espressione e le applica in ordine le fasi configurate. I
+ * lavori vengono eseguiti su un esecutore, limitando il numero di lavori in corso, e ogni fase è
+ * sorvegliata dal proprio timeout.
+ *
+ * <p>Il servizio può usare un pool di thread proprio di dimensione fissata oppure un esecutore
+ * esterno, ad esempio quello a thread virtuali {@code Executors.newVirtualThreadPerTaskExecutor()}
+ * disponibile da Java 21.
+ */
+public class ServizioEspressioni implements AutoCloseable {
+
+  /**
+   * AF: Il servizio applica a ogni espressione sottomessa la sequenza di fasi, su esecutore, con al
+   * più lavoriInCorsoMassimi lavori non ancora terminati. IR: fasi != null, per ogni fase f in
+   * fasi f != null, esecutore != null, sorvegliante != null, postiLiberi != null, lavoriAttivi >=
+   * 0, se chiuso e lavoriAttivi == 0 allora sorvegliante è stato chiuso
+   */
+
+  /** Le fasi applicate in ordine a ogni espressione */
+  private final List<Fase> fasi;
+
+  /** L'esecutore dei lavori */
+  private final ExecutorService esecutore;
+
+  /** Indica se l'esecutore è stato creato dal servizio e va quindi chiuso con esso */
+  private final boolean esecutoreProprio;
+
+  /** Il thread che fa scadere le fasi che superano il proprio timeout */
+  private final ScheduledExecutorService sorvegliante;
+
+  /** I posti liberi per nuovi lavori, che limitano i lavori in corso */
+  private final Semaphore postiLiberi;
+
+  /** Indica se il servizio è stato chiuso */
+  private boolean chiuso;
+
+  /**
+   * Il numero di lavori sottomessi e non ancora terminati, compresi quelli scaduti il cui thread
+   * sta ancora eseguendo una fase
+   */
+  private int lavoriAttivi;
+
+  /**
+   * Costruisce un servizio con un pool di thread proprio di dimensione fissata
+   *
+   * @param fasi le fasi da applicare in ordine a ogni espressione
+   * @param numeroThread il numero di thread del pool
+   * @param lavoriInCorsoMassimi il numero massimo di lavori sottomessi e non ancora terminati
+   * @throws NullPointerException se la lista di fasi o una delle fasi è null
+   * @throws IllegalArgumentException se il numero di thread o di lavori in corso non è positivo
+   */
+  public ServizioEspressioni(List<Fase> fasi, int numeroThread, int lavoriInCorsoMassimi) {
+    this(fasi, creaPool(numeroThread), true, lavoriInCorsoMassimi);
+  }
+
+  /**
+   * Costruisce un servizio che esegue i lavori sull'esecutore dato, che non viene chiuso dal
+   * servizio
+   *
+   * @param fasi le fasi da applicare in ordine a ogni espressione
+   * @param esecutore l'esecutore dei lavori
+   * @param lavoriInCorsoMassimi il numero massimo di lavori sottomessi e non ancora terminati
+   * @throws NullPointerException se la lista di fasi, una delle fasi o l'esecutore è null
+   * @throws IllegalArgumentException se il numero di lavori in corso non è positivo
+   */
+  public ServizioEspressioni(List<Fase> fasi, ExecutorService esecutore, int lavoriInCorsoMassimi) {
+    this(fasi, esecutore, false, lavoriInCorsoMassimi);
+  }
+
+  private ServizioEspressioni(
+      List<Fase> fasi, ExecutorService esecutore, boolean esecutoreProprio, int lavoriInCorso) {
+    Objects.requireNonNull(fasi, "La lista di fasi non può essere null.");
+    for (Fase fase : fasi) {
+      Objects.requireNonNull(fase, "Ogni fase non può essere null.");
+    }
+    Objects.requireNonNull(esecutore, "L'esecutore non può essere null.");
+    if (lavoriInCorso <= 0)
+      throw new IllegalArgumentException("Il numero di lavori in corso deve essere positivo.");
+    this.fasi = List.copyOf(fasi);
+    this.esecutore = esecutore;
+    this.esecutoreProprio = esecutoreProprio;
+    this.postiLiberi = new Semaphore(lavoriInCorso);
+    this.sorvegliante =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "luppolo-sorvegliante");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Metodo che crea il pool di thread proprio del servizio
+   *
+   * @param numeroThread il numero di thread
+   * @return il pool
+   * @throws IllegalArgumentException se il numero di thread non è positivo
+   */
+  private static ExecutorService creaPool(int numeroThread) {
+    if (numeroThread <= 0)
+      throw new IllegalArgumentException("Il numero di thread deve essere positivo.");
+    return Executors.newFixedThreadPool(numeroThread);
+  }
+
+  /**
+   * Metodo che sottomette un'espressione in notazione polacca al servizio. Se il numero massimo di
+   * lavori in corso è stato raggiunto, il metodo attende che un lavoro termini: un lavoro scaduto
+   * occupa il suo posto finché il thread che lo esegue non si ferma.
+   *
+   * @param notazionePolacca l'espressione in notazione polacca
+   * @return il futuro che si completa con l'espressione elaborata, oppure eccezionalmente con
+   *     l'errore di una fase o con una TimeoutException se una fase supera il proprio timeout
+   * @throws NullPointerException se l'espressione è null
+   * @throws InterruptedException se il thread viene interrotto durante l'attesa
+   * @throws RejectedExecutionException se il servizio è stato chiuso
+   */
+  public CompletableFuture<Espressione> sottometti(String notazionePolacca)
+      throws InterruptedException {
+    Objects.requireNonNull(notazionePolacca, "L'espressione non può essere null.");
+    controllaAperto();
+    postiLiberi.acquire();
+    synchronized (this) {
+      if (chiuso) {
+        postiLiberi.release();
+        controllaAperto();
+      }
+      lavoriAttivi++;
+    }
+    Lavoro lavoro = new Lavoro(notazionePolacca);
+    try {
+      esecutore.execute(() -> esegui(lavoro));
+    } catch (RejectedExecutionException e) {
+      lavoro.risultato.completeExceptionally(e);
+      termina();
+      throw e;
+    }
+    return lavoro.risultato;
+  }
+
+  /**
+   * Metodo che verifica che il servizio non sia stato chiuso
+   *
+   * @throws RejectedExecutionException se il servizio è stato chiuso
+   */
+  private synchronized void controllaAperto() {
+    if (chiuso) throw new RejectedExecutionException("Il servizio è stato chiuso.");
+  }
+
+  /**
+   * Metodo che registra la fine di un lavoro, quando il thread che lo esegue si è fermato o il
+   * lavoro non è stato accettato dall'esecutore: libera il suo posto e, se il servizio è stato
+   * chiuso e non restano lavori in corso, chiude il sorvegliante
+   */
+  private void termina() {
+    postiLiberi.release();
+    synchronized (this) {
+      if (--lavoriAttivi == 0 && chiuso) sorvegliante.shutdown();
+    }
+  }
+
+  /**
+   * Metodo che sottomette un lotto di espressioni in notazione polacca al servizio
+   *
+   * @param lotto le espressioni in notazione polacca
+   * @return i futuri delle espressioni elaborate, nello stesso ordine del lotto
+   * @throws NullPointerException se il lotto o una delle espressioni è null
+   * @throws InterruptedException se il thread viene interrotto durante l'attesa
+   * @throws RejectedExecutionException se il servizio è stato chiuso
+   */
+  public List<CompletableFuture<Espressione>> sottomettiLotto(List<String> lotto)
+      throws InterruptedException {
+    Objects.requireNonNull(lotto, "Il lotto non può essere null.");
+    List<CompletableFuture<Espressione>> futuri = new ArrayList<>();
+    for (String notazionePolacca : lotto) {
+      futuri.add(sottometti(notazionePolacca));
+    }
+    return futuri;
+  }
+
+  /**
+   * Metodo che elabora un lotto di espressioni in notazione polacca e ne restituisce i risultati
+   * come stream, nello stesso ordine del lotto. Lo stream attende ciascun risultato quando viene
+   * consumato.
+   *
+   * @param lotto le espressioni in notazione polacca
+   * @return lo stream delle espressioni elaborate
+   * @throws NullPointerException se il lotto o una delle espressioni è null
+   * @throws InterruptedException se il thread viene interrotto durante l'attesa
+   * @throws RejectedExecutionException se il servizio è stato chiuso
+   * @throws java.util.concurrent.CompletionException durante il consumo, se un lavoro è fallito
+   */
+  public Stream<Espressione> elaboraLotto(List<String> lotto) throws InterruptedException {
+    return sottomettiLotto(lotto).stream().map(CompletableFuture::join);
+  }
+
+  /**
+   * Metodo che esegue un lavoro: costruisce l'espressione e le applica le fasi, facendo scadere
+   * quelle che superano il proprio timeout. Il posto del lavoro viene liberato solo alla fine
+   * dell'esecuzione, anche se il lavoro è scaduto prima
+   *
+   * @param lavoro il lavoro da eseguire
+   */
+  private void esegui(Lavoro lavoro) {
+    synchronized (lavoro) {
+      lavoro.thread = Thread.currentThread();
+    }
+    try {
+      Espressione espressione =
+          new AlberoNotazionePolacca(lavoro.notazionePolacca).alberoNotazionePolacca();
+      for (Fase fase : fasi) {
+        if (lavoro.risultato.isDone()) return;
+        ScheduledFuture<?> scadenza =
+            sorvegliante.schedule(
+                () -> scadi(lavoro, fase), fase.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        try {
+          espressione = fase.applica(espressione);
+        } finally {
+          scadenza.cancel(false);
+        }
+      }
+      lavoro.risultato.complete(espressione);
+    } catch (RuntimeException | Error e) {
+      lavoro.risultato.completeExceptionally(e);
+    } finally {
+      synchronized (lavoro) {
+        lavoro.thread = null;
+      }
+      Thread.interrupted();
+      termina();
+    }
+  }
+
+  /**
+   * Metodo che fa scadere un lavoro la cui fase ha superato il timeout, completandone il risultato
+   * con una TimeoutException e interrompendo il thread che lo sta eseguendo
+   *
+   * @param lavoro il lavoro da far scadere
+   * @param fase la fase scaduta
+   */
+  private static void scadi(Lavoro lavoro, Fase fase) {
+    synchronized (lavoro) {
+      TimeoutException errore =
+          new TimeoutException(
+              "La fase " + fase.getNome() + " ha superato il timeout di " + fase.getTimeout());
+      if (lavoro.risultato.completeExceptionally(errore) && lavoro.thread != null)
+        lavoro.thread.interrupt();
+    }
+  }
+
+  /**
+   * Metodo che chiude il servizio: i lavori già sottomessi vengono completati, ciascuno ancora
+   * sorvegliato dai timeout delle proprie fasi, mentre non è più possibile sottometterne di nuovi.
+   * Il sorvegliante viene chiuso alla fine dell'ultimo lavoro in corso. L'esecutore esterno
+   * non viene chiuso.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (chiuso) return;
+      chiuso = true;
+      if (lavoriAttivi == 0) sorvegliante.shutdown();
+    }
+    if (esecutoreProprio) esecutore.shutdown();
+  }
+
+  /** OVERVIEW: La classe rappresenta lo stato di un singolo lavoro sottomesso al servizio */
+  private static class Lavoro {
+
+    /** L'espressione in notazione polacca da elaborare */
+    private final String notazionePolacca;
+
+    /** Il risultato del lavoro */
+    private final CompletableFuture<Espressione> risultato = new CompletableFuture<>();
+
+    /** Il thread che sta eseguendo il lavoro, null se il lavoro non è in esecuzione */
+    private Thread thread;
+
+    /**
+     * Costruisce un lavoro a partire dall'espressione da elaborare
+     *
+     * @param notazionePolacca l'espressione in notazione polacca
+     */
+    private Lavoro(String notazionePolacca) {
+      this.notazionePolacca = notazionePolacca;
+    }
+  }
+}
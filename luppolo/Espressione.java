@@ -1,6 +1,12 @@
 package luppolo;
 
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
 import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoAddizionePigro;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+import luppolo.Rappresentazione.ScrittoreEspressione;
 
 /**
  * OVERVIEW: La classe immutabile rappresenta un oggetto Espressione sotto forma di albero n-ario
@@ -28,6 +34,100 @@ public class Espressione {
     return radice;
   }
 
+  /**
+   * Metodo che restituisce l'espressione in notazione polacca, nel formato letto da
+   * AlberoNotazionePolacca
+   *
+   * @return l'espressione in notazione polacca
+   */
+  public String toNotazionePolacca() {
+    return ScrittoreEspressione.polacca(radice);
+  }
+
+  /**
+   * Metodo che valuta l'espressione in virgola mobile, senza allocazioni per nodo
+   *
+   * @param valori i valori delle variabili, indicizzati per lettera: valori[0] è il valore di 'a'
+   * @return il valore approssimato dell'espressione
+   * @throws NullPointerException se i valori sono null
+   * @throws IllegalArgumentException se i valori non sono uno per ogni lettera da 'a' a 'z'
+   */
+  public double valutaDouble(double[] valori) {
+    return valutaDouble(valori, false);
+  }
+
+  /**
+   * Metodo che valuta l'espressione in virgola mobile oppure, se richiesto, in modo esatto con i
+   * numeri razionali, arrotondando solo il risultato. La valutazione esatta torna a quella in
+   * virgola mobile se un valore non è rappresentabile come razionale, il risultato non è razionale
+   * o un risultato intermedio supera i limiti dei long.
+   *
+   * @param valori i valori delle variabili, indicizzati per lettera: valori[0] è il valore di 'a'
+   * @param esatto true per valutare in modo esatto quando possibile
+   * @return il valore dell'espressione
+   * @throws NullPointerException se i valori sono null
+   * @throws IllegalArgumentException se i valori non sono uno per ogni lettera da 'a' a 'z'
+   */
+  public double valutaDouble(double[] valori, boolean esatto) {
+    Objects.requireNonNull(valori, "I valori delle variabili non possono essere null.");
+    if (valori.length != 26)
+      throw new IllegalArgumentException("Servono i valori di tutte le 26 variabili.");
+    if (esatto) {
+      try {
+        NumeroRazionale[] razionali = new NumeroRazionale[valori.length];
+        for (int i = 0; i < valori.length; i++) {
+          razionali[i] = NumeroRazionale.daDouble(valori[i]);
+        }
+        return valutaEsatta(radice, razionali).doubleValue();
+      } catch (UnsupportedOperationException | IllegalArgumentException | ArithmeticException e) {
+        return radice.valutaDouble(valori);
+      }
+    }
+    return radice.valutaDouble(valori);
+  }
+
+  /**
+   * Metodo che valuta un nodo in modo esatto, controllando che nessun risultato intermedio superi i
+   * limiti dei long
+   *
+   * @param nodo il nodo da valutare
+   * @param valori i valori delle variabili, indicizzati per lettera
+   * @return il valore esatto del nodo
+   * @throws UnsupportedOperationException se una potenza non ha un valore razionale
+   *     rappresentabile
+   * @throws ArithmeticException se un risultato intermedio supera i limiti dei long
+   */
+  private static NumeroRazionale valutaEsatta(Nodo nodo, NumeroRazionale[] valori) {
+    if (nodo instanceof NodoAddizionePigro pigro && pigro.getEquivalente() != null)
+      return valutaEsatta(pigro.getEquivalente(), valori);
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        return nodo.evaluate();
+      case SIMBOLO:
+        return valori[nodo.getValoreNodo().charAt(0) - 'a'];
+      case POTENZA:
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        Nodo risultato =
+            valutaEsatta(potenza.getBase(), valori).potenzaReturnNodo(potenza.getEsponenteValore());
+        if (risultato.getTipoNodo() != EnumNodo.RAZIONALE)
+          throw new UnsupportedOperationException(
+              "La potenza " + nodo + " non ha un valore razionale rappresentabile");
+        return risultato.evaluate();
+      case MOLTIPLICAZIONE:
+        NumeroRazionale prodotto = NumeroRazionale.UNO;
+        for (Nodo fattore : nodo.getFigliNodo()) {
+          prodotto = prodotto.moltiplicazioneEsatta(valutaEsatta(fattore, valori));
+        }
+        return prodotto;
+      default:
+        NumeroRazionale somma = NumeroRazionale.ZERO;
+        for (Nodo addendo : nodo.getFigliNodo()) {
+          somma = somma.addizioneEsatta(valutaEsatta(addendo, valori));
+        }
+        return somma;
+    }
+  }
+
   @Override
   public String toString() {
     return radice.toString();
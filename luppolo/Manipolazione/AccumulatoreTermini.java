@@ -0,0 +1,174 @@
+package luppolo.Manipolazione;
+
+import java.util.Arrays;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe mutabile raccoglie i termini simili di una semplificazione, associando a
+ * ogni nodo distinto la somma dei razionali che gli vengono aggiunti. La tabella è a indirizzamento
+ * aperto sulle impronte strutturali dei nodi, già calcolate alla loro costruzione, e le somme sono
+ * tenute come coppie di long modificate sul posto, quindi aggiungere un termine non alloca nulla.
+ * I nodi vengono restituiti nell'ordine canonico, indipendente da quello di inserimento.
+ */
+final class AccumulatoreTermini {
+
+  /**
+   * AF: L'accumulatore associa a chiavi[i] il razionale numeratori[i] / denominatori[i], per ogni
+   * posizione i occupata. IR: la lunghezza degli array è una potenza di due, chiavi[i] == null per
+   * le posizioni libere, impronte[i] == chiavi[i].getImpronta() per quelle occupate, le chiavi
+   * sono a due a due diverse, denominatori[i] > 0 e mcd(numeratori[i], denominatori[i]) == 1,
+   * dimensione è il numero di posizioni occupate e non supera metà della lunghezza
+   */
+
+  /** Le impronte delle chiavi */
+  private long[] impronte;
+
+  /** Le chiavi, null nelle posizioni libere */
+  private Nodo[] chiavi;
+
+  /** I numeratori delle somme */
+  private long[] numeratori;
+
+  /** I denominatori delle somme */
+  private long[] denominatori;
+
+  /** Il numero di chiavi distinte */
+  private int dimensione;
+
+  /**
+   * Costruisce un accumulatore adatto a raccogliere il numero di termini dato senza ingrandirsi
+   *
+   * @param termini il numero di termini previsto
+   */
+  AccumulatoreTermini(int termini) {
+    int capacita = Integer.highestOneBit(Math.max(4, termini) * 2 - 1) << 1;
+    impronte = new long[capacita];
+    chiavi = new Nodo[capacita];
+    numeratori = new long[capacita];
+    denominatori = new long[capacita];
+  }
+
+  /**
+   * Metodo che aggiunge un razionale alla somma associata a un nodo
+   *
+   * @param chiave il nodo
+   * @param valore il razionale da aggiungere
+   * @throws IllegalArgumentException se il denominatore della somma supera i limiti dei long
+   */
+  void aggiungi(Nodo chiave, NumeroRazionale valore) {
+    aggiungi(chiave, valore.getNumeratore(), valore.getDenominatore());
+  }
+
+  /**
+   * Metodo che aggiunge il razionale numeratore / denominatore, già ridotto e con denominatore
+   * positivo, alla somma associata a un nodo. La somma viene calcolata come in
+   * NumeroRazionale.addizione, modificando sul posto la coppia di long.
+   *
+   * @param chiave il nodo
+   * @param numeratore il numeratore
+   * @param denominatore il denominatore
+   * @throws IllegalArgumentException se il denominatore della somma supera i limiti dei long
+   */
+  void aggiungi(Nodo chiave, long numeratore, long denominatore) {
+    long impronta = chiave.getImpronta();
+    int i = posizione(chiave, impronta);
+    if (chiavi[i] == null) {
+      impronte[i] = impronta;
+      chiavi[i] = chiave;
+      numeratori[i] = numeratore;
+      denominatori[i] = denominatore;
+      if (++dimensione * 2 > chiavi.length) ingrandisci();
+      return;
+    }
+    long num = numeratori[i] * denominatore + numeratore * denominatori[i];
+    long den = denominatori[i] * denominatore;
+    if (den == 0) throw new IllegalArgumentException("Il denominatore non può essere zero");
+    if (den < 0) {
+      num = -num;
+      den = -den;
+    }
+    long mcd = NumeroRazionale.mcdLong(Math.abs(num), den);
+    if (mcd > 1) {
+      num /= mcd;
+      den /= mcd;
+    }
+    numeratori[i] = num;
+    denominatori[i] = den;
+  }
+
+  /**
+   * Metodo che restituisce il numero di nodi distinti raccolti
+   *
+   * @return il numero di nodi
+   */
+  int dimensione() {
+    return dimensione;
+  }
+
+  /**
+   * Metodo che restituisce i nodi raccolti in ordine canonico
+   *
+   * @return un nuovo array con i nodi ordinati
+   */
+  Nodo[] chiaviOrdinate() {
+    Nodo[] ordinate = new Nodo[dimensione];
+    int k = 0;
+    for (Nodo chiave : chiavi) {
+      if (chiave != null) ordinate[k++] = chiave;
+    }
+    Arrays.sort(ordinate);
+    return ordinate;
+  }
+
+  /**
+   * Metodo che restituisce la somma associata a un nodo raccolto
+   *
+   * @param chiave il nodo
+   * @return la somma dei razionali aggiunti al nodo
+   * @throws IllegalArgumentException se il nodo non è stato raccolto
+   */
+  NumeroRazionale valore(Nodo chiave) {
+    int i = posizione(chiave, chiave.getImpronta());
+    if (chiavi[i] == null)
+      throw new IllegalArgumentException("Il nodo " + chiave + " non è stato raccolto");
+    return new NumeroRazionale(numeratori[i], denominatori[i]);
+  }
+
+  /**
+   * Metodo che restituisce la posizione di un nodo, o la posizione libera in cui inserirlo
+   *
+   * @param chiave il nodo
+   * @param impronta l'impronta del nodo
+   * @return la posizione
+   */
+  private int posizione(Nodo chiave, long impronta) {
+    int maschera = chiavi.length - 1;
+    int i = (int) (impronta ^ (impronta >>> 32)) & maschera;
+    while (chiavi[i] != null && (impronte[i] != impronta || !chiavi[i].equals(chiave))) {
+      i = (i + 1) & maschera;
+    }
+    return i;
+  }
+
+  /** Metodo che raddoppia la tabella, reinserendo le posizioni occupate */
+  private void ingrandisci() {
+    long[] vecchieImpronte = impronte;
+    Nodo[] vecchieChiavi = chiavi;
+    long[] vecchiNumeratori = numeratori;
+    long[] vecchiDenominatori = denominatori;
+    int capacita = vecchieChiavi.length * 2;
+    impronte = new long[capacita];
+    chiavi = new Nodo[capacita];
+    numeratori = new long[capacita];
+    denominatori = new long[capacita];
+    for (int j = 0; j < vecchieChiavi.length; j++) {
+      if (vecchieChiavi[j] == null) continue;
+      int i = posizione(vecchieChiavi[j], vecchieImpronte[j]);
+      impronte[i] = vecchieImpronte[j];
+      chiavi[i] = vecchieChiavi[j];
+      numeratori[i] = vecchiNumeratori[j];
+      denominatori[i] = vecchiDenominatori[j];
+    }
+  }
+}
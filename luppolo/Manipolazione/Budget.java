@@ -0,0 +1,171 @@
+package luppolo.Manipolazione;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * OVERVIEW: La classe mutabile rappresenta il budget di una singola manipolazione: il numero
+ * massimo di nodi visitati o creati, la profondità massima di ricorsione, la scadenza e il token di
+ * cancellazione. Il budget viene controllato a ogni nodo, così che una manipolazione troppo
+ * costosa venga interrotta con un errore prima di esaurire la memoria.
+ *
+ * <p>Il budget tiene il conto dei nodi di una sola manipolazione alla volta e non va quindi
+ * condiviso tra visitor usati in parallelo, ad eccezione di {@link #ILLIMITATO}, che non tiene
+ * alcun conto. Ogni budget, compreso quello illimitato, interrompe la manipolazione se il thread
+ * che la esegue viene interrotto.
+ */
+public class Budget {
+
+  /**
+   * AF: Il budget consente al più nodiMassimi nodi, una profondità di al più profonditaMassima e
+   * scade all'istante scadenza di System.nanoTime(). IR: nodiMassimi > 0, profonditaMassima > 0,
+   * nodi >= 0, profondita >= 0, se limitato è false allora nodi = profondita = 0 e token = null
+   */
+
+  /** Il budget senza limiti, condivisibile tra thread */
+  public static final Budget ILLIMITATO = new Budget();
+
+  /** Indica se il budget ha almeno un limite o un token */
+  private final boolean limitato;
+
+  /** Il numero massimo di nodi visitati o creati */
+  private final long nodiMassimi;
+
+  /** La profondità massima di ricorsione */
+  private final int profonditaMassima;
+
+  /** Indica se il budget ha una scadenza */
+  private final boolean conScadenza;
+
+  /** La scadenza, come istante di System.nanoTime() */
+  private final long scadenza;
+
+  /** Il token di cancellazione, null se assente */
+  private final TokenCancellazione token;
+
+  /** I nodi visitati o creati finora */
+  private long nodi;
+
+  /** La profondità di ricorsione corrente */
+  private int profondita;
+
+  /** Costruisce il budget senza limiti */
+  private Budget() {
+    this.limitato = false;
+    this.nodiMassimi = Long.MAX_VALUE;
+    this.profonditaMassima = Integer.MAX_VALUE;
+    this.conScadenza = false;
+    this.scadenza = 0;
+    this.token = null;
+  }
+
+  /**
+   * Costruisce un budget con i limiti dati. La durata massima decorre dalla costruzione del
+   * budget.
+   *
+   * @param nodiMassimi il numero massimo di nodi visitati o creati
+   * @param profonditaMassima la profondità massima di ricorsione
+   * @param durataMassima la durata massima, null se il budget non scade
+   * @param token il token di cancellazione, null se assente
+   * @throws IllegalArgumentException se il numero di nodi o la profondità non sono positivi
+   * @throws IllegalArgumentException se la durata massima non è positiva
+   */
+  public Budget(
+      long nodiMassimi, int profonditaMassima, Duration durataMassima, TokenCancellazione token) {
+    if (nodiMassimi <= 0)
+      throw new IllegalArgumentException("Il numero massimo di nodi deve essere positivo.");
+    if (profonditaMassima <= 0)
+      throw new IllegalArgumentException("La profondità massima deve essere positiva.");
+    if (durataMassima != null && (durataMassima.isNegative() || durataMassima.isZero()))
+      throw new IllegalArgumentException("La durata massima deve essere positiva.");
+    this.limitato = true;
+    this.nodiMassimi = nodiMassimi;
+    this.profonditaMassima = profonditaMassima;
+    this.conScadenza = durataMassima != null;
+    this.scadenza = conScadenza ? System.nanoTime() + durataMassima.toNanos() : 0;
+    this.token = token;
+  }
+
+  /**
+   * Costruisce un budget controllato soltanto dal token di cancellazione
+   *
+   * @param token il token di cancellazione
+   * @throws NullPointerException se il token è null
+   */
+  public Budget(TokenCancellazione token) {
+    this(
+        Long.MAX_VALUE,
+        Integer.MAX_VALUE,
+        null,
+        Objects.requireNonNull(token, "Il token non può essere null."));
+  }
+
+  /**
+   * Metodo mutazionale invocato all'ingresso in un nodo: conta il nodo, aumenta la profondità e
+   * controlla tutti i limiti
+   *
+   * @throws LimiteSuperatoException se il numero di nodi o la profondità superano il limite
+   * @throws LimiteSuperatoException se il budget è scaduto
+   * @throws CancellationException se il token è stato cancellato o il thread interrotto
+   */
+  public void entra() {
+    if (!limitato) {
+      controllaInterruzione();
+      return;
+    }
+    if (++profondita > profonditaMassima)
+      throw new LimiteSuperatoException(
+          "La profondità massima di " + profonditaMassima + " è stata superata");
+    consuma(1);
+  }
+
+  /** Metodo mutazionale invocato all'uscita da un nodo: riduce la profondità */
+  public void esci() {
+    if (limitato && profondita > 0) profondita--;
+  }
+
+  /**
+   * Metodo mutazionale che conta i nodi che una manipolazione sta per creare e controlla tutti i
+   * limiti, prima che i nodi vengano allocati
+   *
+   * @param quanti il numero di nodi
+   * @throws IllegalArgumentException se il numero di nodi è negativo
+   * @throws LimiteSuperatoException se il numero di nodi supera il limite
+   * @throws LimiteSuperatoException se il budget è scaduto
+   * @throws CancellationException se il token è stato cancellato o il thread interrotto
+   */
+  public void consuma(long quanti) {
+    if (quanti < 0)
+      throw new IllegalArgumentException("Il numero di nodi non può essere negativo.");
+    controllaInterruzione();
+    if (!limitato) return;
+    if (quanti > nodiMassimi - nodi)
+      throw new LimiteSuperatoException(
+          "Il numero massimo di " + nodiMassimi + " nodi è stato superato");
+    nodi += quanti;
+    if (token != null && token.isCancellato())
+      throw new CancellationException("La manipolazione è stata cancellata");
+    if (conScadenza && System.nanoTime() - scadenza > 0)
+      throw new LimiteSuperatoException("Il tempo massimo della manipolazione è scaduto");
+  }
+
+  /**
+   * Metodo che restituisce i nodi visitati o creati finora
+   *
+   * @return il numero di nodi
+   */
+  public long getNodi() {
+    return nodi;
+  }
+
+  /**
+   * Metodo che interrompe la manipolazione se il thread che la esegue è stato interrotto
+   *
+   * @throws CancellationException se il thread è stato interrotto
+   */
+  private static void controllaInterruzione() {
+    if (Thread.currentThread().isInterrupted())
+      throw new CancellationException("Il thread della manipolazione è stato interrotto");
+  }
+}
@@ -5,13 +5,18 @@ import luppolo.Nodo.*;
 
 /**
  * OVERVIEW: La classe che implementa l'interfaccia visitor definisce un'implementazione della
- * manipolazione di derivata per ogni tipologia di nodo definita.
+ * manipolazione di derivata per ogni tipologia di nodo definita. Se richiesto, la derivata viene
+ * semplificata localmente durante la costruzione: i termini nulli vengono eliminati, le
+ * moltiplicazioni per uno collassate e gli esponenti costanti ripiegati.
  */
-public class DerivataVisitor implements Visitor {
+public class DerivataVisitor extends VisitorLimitato {
 
   /** La variabile fissata secondo cui derivare. */
   private final String variabile;
 
+  /** Indica se semplificare localmente i nodi durante la costruzione della derivata. */
+  private final boolean semplificaLocalmente;
+
   /**
    * Metodo che associa al DerivataVisitor la variabile secondo cui derivare
    *
@@ -21,12 +26,45 @@ public class DerivataVisitor implements Visitor {
    * @throws IllegalArgumentException se la variabile non è definita nel dominio {a-z}
    */
   public DerivataVisitor(String variabile) {
+    this(variabile, false);
+  }
+
+  /**
+   * Metodo che associa al DerivataVisitor la variabile secondo cui derivare e la modalità di
+   * costruzione della derivata
+   *
+   * @param variabile fissata
+   * @param semplificaLocalmente true se la derivata va semplificata localmente durante la
+   *     costruzione
+   * @throws NullPointerException se la variabile è null
+   * @throws IllegalArgumentException se la variabile è vuota
+   * @throws IllegalArgumentException se la variabile non è definita nel dominio {a-z}
+   */
+  public DerivataVisitor(String variabile, boolean semplificaLocalmente) {
+    this(variabile, semplificaLocalmente, Budget.ILLIMITATO);
+  }
+
+  /**
+   * Metodo che associa al DerivataVisitor la variabile secondo cui derivare, la modalità di
+   * costruzione della derivata e il budget della manipolazione
+   *
+   * @param variabile fissata
+   * @param semplificaLocalmente true se la derivata va semplificata localmente durante la
+   *     costruzione
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se la variabile o il budget sono null
+   * @throws IllegalArgumentException se la variabile è vuota
+   * @throws IllegalArgumentException se la variabile non è definita nel dominio {a-z}
+   */
+  public DerivataVisitor(String variabile, boolean semplificaLocalmente, Budget budget) {
+    super(budget);
     Objects.requireNonNull(variabile, "La variabile non può essere null.");
     if (variabile.isEmpty())
       throw new IllegalArgumentException("La variabile non può essere vuota.");
     if (!variabile.matches("-?[a-z]"))
       throw new IllegalArgumentException("La variabile deve essere compresa nell'intervallo a-z");
     this.variabile = variabile;
+    this.semplificaLocalmente = semplificaLocalmente;
   }
 
   @Override
@@ -47,8 +85,13 @@ public class DerivataVisitor implements Visitor {
   public Nodo visit(NodoPotenza nodoPotenza) {
     Objects.requireNonNull(nodoPotenza, "Il nodo potenza da derivare non può essere null.");
     Nodo base = nodoPotenza.getBase();
-    Nodo derivataBase = base.accept(this);
+    Nodo derivataBase = visita(base);
     NumeroRazionale esponente = nodoPotenza.getEsponenteValore();
+    if (semplificaLocalmente) {
+      if (isZero(derivataBase)) return new FogliaRazionale(NumeroRazionale.ZERO);
+      Nodo potenza = potenza(base, esponente.sottrazione(NumeroRazionale.UNO));
+      return prodotto(List.of(potenza, derivataBase, new FogliaRazionale(esponente)));
+    }
     NodoPotenza potenza =
         new NodoPotenza(base, new FogliaRazionale(esponente.sottrazione(NumeroRazionale.UNO)));
     return new NodoMoltiplicazione(List.of(potenza, derivataBase, nodoPotenza.getEsponente()));
@@ -59,8 +102,9 @@ public class DerivataVisitor implements Visitor {
     Objects.requireNonNull(nodoAddizione, "Il nodo addizione da derivare non può essere null.");
     List<Nodo> sommaAddendiDerivati = new ArrayList<>();
     for (Nodo nodo : nodoAddizione.getFigliNodo()) {
-      sommaAddendiDerivati.add(nodo.accept(this));
+      sommaAddendiDerivati.add(visita(nodo));
     }
+    if (semplificaLocalmente) return somma(sommaAddendiDerivati);
     return new NodoAddizione(sommaAddendiDerivati);
   }
 
@@ -71,7 +115,9 @@ public class DerivataVisitor implements Visitor {
     List<Nodo> fattori = nodoMoltiplicazione.getFigliNodo();
     List<Nodo> derivata = new ArrayList<>();
     for (int i = 0; i < fattori.size(); i++) {
-      Nodo e_i = fattori.get(i).accept(this);
+      Nodo e_i = visita(fattori.get(i));
+      if (semplificaLocalmente && isZero(e_i)) continue;
+      getBudget().consuma(fattori.size());
       List<Nodo> moltiplicazione = new ArrayList<>();
       for (int j = 0; j < fattori.size(); j++) {
         if (i != j) {
@@ -79,8 +125,98 @@ public class DerivataVisitor implements Visitor {
         }
       }
       moltiplicazione.add(e_i);
-      derivata.add(new NodoMoltiplicazione(moltiplicazione));
+      derivata.add(
+          semplificaLocalmente
+              ? prodotto(moltiplicazione)
+              : new NodoMoltiplicazione(moltiplicazione));
     }
+    if (semplificaLocalmente) return somma(derivata);
     return new NodoAddizione(derivata);
   }
+
+  /**
+   * Metodo che stabilisce se un nodo è la foglia razionale zero
+   *
+   * @param nodo il nodo da controllare
+   * @return true se il nodo è la costante zero, false altrimenti
+   */
+  private static boolean isZero(Nodo nodo) {
+    return nodo.getTipoNodo() == EnumNodo.RAZIONALE && nodo.evaluate().equals(NumeroRazionale.ZERO);
+  }
+
+  /**
+   * Metodo che costruisce localmente semplificata la somma di una lista di nodi: gli addendi
+   * addizione vengono appiattiti, le costanti sommate e gli zeri eliminati
+   *
+   * @param addendi i nodi da sommare
+   * @return la somma semplificata localmente
+   */
+  private static Nodo somma(List<Nodo> addendi) {
+    List<Nodo> nonRazionali = new ArrayList<>();
+    NumeroRazionale costante = NumeroRazionale.ZERO;
+    for (Nodo addendo : addendi) {
+      if (addendo.getTipoNodo() == EnumNodo.RAZIONALE) {
+        costante = costante.addizione(addendo.evaluate());
+      } else if (addendo.getTipoNodo() == EnumNodo.ADDIZIONE) {
+        for (Nodo figlio : addendo.getFigliNodo()) {
+          if (figlio.getTipoNodo() == EnumNodo.RAZIONALE) {
+            costante = costante.addizione(figlio.evaluate());
+          } else {
+            nonRazionali.add(figlio);
+          }
+        }
+      } else {
+        nonRazionali.add(addendo);
+      }
+    }
+    if (!costante.equals(NumeroRazionale.ZERO)) nonRazionali.add(new FogliaRazionale(costante));
+    if (nonRazionali.isEmpty()) return new FogliaRazionale(NumeroRazionale.ZERO);
+    if (nonRazionali.size() == 1) return nonRazionali.get(0);
+    return new NodoAddizione(nonRazionali);
+  }
+
+  /**
+   * Metodo che costruisce localmente semplificato il prodotto di una lista di nodi: i fattori
+   * moltiplicazione vengono appiattiti, le costanti moltiplicate e i fattori uno eliminati; se una
+   * costante è zero il prodotto è zero
+   *
+   * @param fattori i nodi da moltiplicare
+   * @return il prodotto semplificato localmente
+   */
+  private static Nodo prodotto(List<Nodo> fattori) {
+    List<Nodo> nonRazionali = new ArrayList<>();
+    NumeroRazionale costante = NumeroRazionale.UNO;
+    for (Nodo fattore : fattori) {
+      List<Nodo> daAggiungere =
+          fattore.getTipoNodo() == EnumNodo.MOLTIPLICAZIONE
+              ? fattore.getFigliNodo()
+              : List.of(fattore);
+      for (Nodo figlio : daAggiungere) {
+        if (figlio.getTipoNodo() == EnumNodo.RAZIONALE) {
+          costante = costante.moltiplicazione(figlio.evaluate());
+        } else {
+          nonRazionali.add(figlio);
+        }
+      }
+    }
+    if (costante.equals(NumeroRazionale.ZERO)) return new FogliaRazionale(NumeroRazionale.ZERO);
+    if (!costante.equals(NumeroRazionale.UNO)) nonRazionali.add(new FogliaRazionale(costante));
+    if (nonRazionali.isEmpty()) return new FogliaRazionale(NumeroRazionale.UNO);
+    if (nonRazionali.size() == 1) return nonRazionali.get(0);
+    return new NodoMoltiplicazione(nonRazionali);
+  }
+
+  /**
+   * Metodo che costruisce localmente semplificata la potenza di un nodo con esponente costante:
+   * l'esponente zero restituisce uno e l'esponente uno restituisce la base
+   *
+   * @param base la base della potenza
+   * @param esponente l'esponente della potenza
+   * @return la potenza semplificata localmente
+   */
+  private static Nodo potenza(Nodo base, NumeroRazionale esponente) {
+    if (esponente.equals(NumeroRazionale.ZERO)) return new FogliaRazionale(NumeroRazionale.UNO);
+    if (esponente.equals(NumeroRazionale.UNO)) return base;
+    return new NodoPotenza(base, new FogliaRazionale(esponente));
+  }
 }
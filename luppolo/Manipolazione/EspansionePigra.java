@@ -0,0 +1,194 @@
+package luppolo.Manipolazione;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Supplier;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe non istanziabile espande un nodo in una somma di prodotti i cui termini
+ * vengono generati uno alla volta, durante l'iterazione del NodoAddizionePigro restituito. I
+ * prodotti di addizioni e le potenze intere positive di addizioni vengono espansi scorrendo il
+ * prodotto cartesiano degli addendi, senza costruire la lista dei termini, quindi chi legge pochi
+ * termini non costruisce l'albero espanso completo. Poiché l'espansione conserva il valore, la
+ * valutazione della somma restituita valuta direttamente il nodo di partenza, senza generare
+ * alcun termine.
+ *
+ * <p>I termini sono prodotti di fattori che non sono addizioni, uguali in valore all'espansione di
+ * EspansioneVisitor; le potenze con esponente negativo o frazionario non vengono espanse.
+ */
+public final class EspansionePigra {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private EspansionePigra() {}
+
+  /**
+   * Metodo che restituisce l'espansione di un nodo, i cui termini vengono generati su richiesta
+   *
+   * @param nodo il nodo da espandere
+   * @return il nodo stesso se l'espansione ha un solo termine, altrimenti un nodo addizione pigro
+   *     che genera i termini dell'espansione e si valuta come il nodo
+   * @throws NullPointerException se il nodo è null
+   */
+  public static Nodo espandi(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo da espandere non può essere null.");
+    Supplier<Iterator<Nodo>> termini = termini(nodo);
+    Iterator<Nodo> primi = termini.get();
+    Nodo primo = primi.next();
+    if (!primi.hasNext()) return primo;
+    return new NodoAddizionePigro(termini, nodo);
+  }
+
+  /**
+   * Metodo che restituisce il generatore dei termini dell'espansione di un nodo
+   *
+   * @param nodo il nodo
+   * @return il generatore, che restituisce almeno un termine
+   */
+  private static Supplier<Iterator<Nodo>> termini(Nodo nodo) {
+    switch (nodo.getTipoNodo()) {
+      case ADDIZIONE:
+        {
+          List<Supplier<Iterator<Nodo>>> addendi = new ArrayList<>();
+          for (Nodo addendo : nodo.getFigliNodo()) addendi.add(termini(addendo));
+          return () -> new Concatenazione(addendi);
+        }
+      case MOLTIPLICAZIONE:
+        {
+          List<Supplier<Iterator<Nodo>>> fattori = new ArrayList<>();
+          for (Nodo fattore : nodo.getFigliNodo()) fattori.add(termini(fattore));
+          return () -> new ProdottoCartesiano(fattori);
+        }
+      case POTENZA:
+        {
+          NodoPotenza potenza = (NodoPotenza) nodo;
+          NumeroRazionale esponente = potenza.getEsponenteValore();
+          if (esponente.equals(NumeroRazionale.ZERO))
+            return singolo(new FogliaRazionale(NumeroRazionale.UNO));
+          if (esponente.getDenominatore() != 1
+              || esponente.getNumeratore() < 0
+              || esponente.getNumeratore() > Integer.MAX_VALUE) return singolo(nodo);
+          Supplier<Iterator<Nodo>> base = termini(potenza.getBase());
+          int volte = (int) esponente.getNumeratore();
+          Iterator<Nodo> primi = base.get();
+          Nodo primo = primi.next();
+          if (!primi.hasNext()) {
+            if (volte == 1) return singolo(primo);
+            return singolo(new NodoPotenza(primo, new FogliaRazionale(esponente)));
+          }
+          List<Supplier<Iterator<Nodo>>> fattori = new ArrayList<>(volte);
+          for (int i = 0; i < volte; i++) fattori.add(base);
+          return () -> new ProdottoCartesiano(fattori);
+        }
+      default:
+        return singolo(nodo);
+    }
+  }
+
+  /**
+   * Metodo che restituisce il generatore di un solo termine
+   *
+   * @param termine il termine
+   * @return il generatore
+   */
+  private static Supplier<Iterator<Nodo>> singolo(Nodo termine) {
+    return () -> List.of(termine).iterator();
+  }
+
+  /** L'iteratore che restituisce in ordine i termini di più generatori */
+  private static final class Concatenazione implements Iterator<Nodo> {
+
+    /** I generatori da concatenare */
+    private final List<Supplier<Iterator<Nodo>>> parti;
+
+    /** L'indice del prossimo generatore */
+    private int prossima;
+
+    /** L'iteratore della parte in corso */
+    private Iterator<Nodo> corrente;
+
+    private Concatenazione(List<Supplier<Iterator<Nodo>>> parti) {
+      this.parti = parti;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (corrente == null || !corrente.hasNext()) {
+        if (prossima == parti.size()) return false;
+        corrente = parti.get(prossima++).get();
+      }
+      return true;
+    }
+
+    @Override
+    public Nodo next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      return corrente.next();
+    }
+  }
+
+  /**
+   * L'iteratore che restituisce il prodotto di ogni combinazione di termini dei generatori, uno
+   * per generatore, come un contachilometri in cui l'ultimo generatore avanza per primo
+   */
+  private static final class ProdottoCartesiano implements Iterator<Nodo> {
+
+    /** I generatori dei fattori */
+    private final List<Supplier<Iterator<Nodo>>> fattori;
+
+    /** L'iteratore in corso di ogni generatore */
+    private final List<Iterator<Nodo>> iteratori;
+
+    /** Il termine scelto per ogni generatore */
+    private final Nodo[] scelti;
+
+    /** Indica se la combinazione in scelti non è ancora stata restituita */
+    private boolean pronto;
+
+    private ProdottoCartesiano(List<Supplier<Iterator<Nodo>>> fattori) {
+      this.fattori = fattori;
+      this.iteratori = new ArrayList<>(fattori.size());
+      this.scelti = new Nodo[fattori.size()];
+      for (int i = 0; i < fattori.size(); i++) {
+        Iterator<Nodo> iteratore = fattori.get(i).get();
+        iteratori.add(iteratore);
+        scelti[i] = iteratore.next();
+      }
+      this.pronto = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (pronto) return true;
+      int i = scelti.length - 1;
+      while (i >= 0 && !iteratori.get(i).hasNext()) i--;
+      if (i < 0) return false;
+      scelti[i] = iteratori.get(i).next();
+      for (int j = i + 1; j < scelti.length; j++) {
+        Iterator<Nodo> iteratore = fattori.get(j).get();
+        iteratori.set(j, iteratore);
+        scelti[j] = iteratore.next();
+      }
+      pronto = true;
+      return true;
+    }
+
+    @Override
+    public Nodo next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      pronto = false;
+      List<Nodo> termine = new ArrayList<>(scelti.length);
+      for (Nodo scelto : scelti) {
+        if (scelto.getTipoNodo() == EnumNodo.MOLTIPLICAZIONE) {
+          termine.addAll(scelto.getFigliNodo());
+        } else {
+          termine.add(scelto);
+        }
+      }
+      return termine.size() == 1 ? termine.get(0) : new NodoMoltiplicazione(termine);
+    }
+  }
+}
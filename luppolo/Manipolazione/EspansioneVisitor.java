@@ -10,7 +10,23 @@ import luppolo.Nodo.*;
  * OVERVIEW: La classe che implementa l'interfaccia visitor definisce un'implementazione della
  * manipolazione di espansione per ogni tipologia di nodo definita.
  */
-public class EspansioneVisitor implements Visitor {
+public class EspansioneVisitor extends VisitorLimitato {
+
+  /** Costruisce un EspansioneVisitor senza limiti */
+  public EspansioneVisitor() {
+    this(Budget.ILLIMITATO);
+  }
+
+  /**
+   * Costruisce un EspansioneVisitor che rispetta il budget dato
+   *
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se il budget è null
+   */
+  public EspansioneVisitor(Budget budget) {
+    super(budget);
+  }
+
   @Override
   public Nodo visit(FogliaRazionale numeroRazionale) {
     Objects.requireNonNull(numeroRazionale, "Il nodo foglia da espandere non può essere null.");
@@ -26,7 +42,7 @@ public class EspansioneVisitor implements Visitor {
   @Override
   public Nodo visit(NodoPotenza nodoPotenza) {
     Objects.requireNonNull(nodoPotenza, "Il nodo potenza da espandere non può essere null.");
-    Nodo baseEspansa = nodoPotenza.getBase().accept(this);
+    Nodo baseEspansa = visita(nodoPotenza.getBase());
     NumeroRazionale esponente = nodoPotenza.getEsponenteValore();
     long p = esponente.getNumeratore();
     long q = (int) esponente.getDenominatore();
@@ -39,13 +55,14 @@ public class EspansioneVisitor implements Visitor {
     } else if (p == -1) {
       return nodoPotenza;
     }
+    getBudget().consuma(absP);
     List<Nodo> prodotti = new ArrayList<>();
     for (int i = 0; i < absP; i++) {
       prodotti.add(baseEspansa);
     }
     Nodo prodottoBase = new NodoMoltiplicazione(prodotti);
     if (baseEspansa.getTipoNodo() == EnumNodo.ADDIZIONE) {
-      prodottoBase = prodottoBase.accept(this);
+      prodottoBase = visita(prodottoBase);
     }
     if (prodotti.size() == 1) prodottoBase = prodotti.get(0);
 
@@ -61,7 +78,7 @@ public class EspansioneVisitor implements Visitor {
     Objects.requireNonNull(nodoAddizione, "Il nodo addizione da espandere non può essere null.");
     List<Nodo> addendiSemplificati = new ArrayList<>();
     for (Nodo addendo : nodoAddizione.getFigliNodo()) {
-      addendiSemplificati.add(addendo.accept(this));
+      addendiSemplificati.add(visita(addendo));
     }
     return new NodoAddizione(addendiSemplificati);
   }
@@ -75,11 +92,11 @@ public class EspansioneVisitor implements Visitor {
 
     if (sizeFigli < 2) return nodoMoltiplicazione.getFigliNodo().get(0);
 
-    Nodo secondaExp = nodoMoltiplicazione.getFigliNodo().get(sizeFigli - 1).accept(this);
+    Nodo secondaExp = visita(nodoMoltiplicazione.getFigliNodo().get(sizeFigli - 1));
     List<Nodo> primaExp = new ArrayList<>();
 
     for (int i = 0; i < sizeFigli - 1; i++) {
-      primaExp.add(nodoMoltiplicazione.getFigliNodo().get(i).accept(this));
+      primaExp.add(visita(nodoMoltiplicazione.getFigliNodo().get(i)));
       if (nodoMoltiplicazione.getFigliNodo().get(i).getTipoNodo().equals(EnumNodo.ADDIZIONE))
         countNodiAdd++;
     }
@@ -92,7 +109,7 @@ public class EspansioneVisitor implements Visitor {
     }
 
     if (countNodiAdd > 2) {
-      Nodo espansionePrimaExp = new NodoMoltiplicazione(primaExp).accept(this);
+      Nodo espansionePrimaExp = visita(new NodoMoltiplicazione(primaExp));
       primaExp =
           (espansionePrimaExp.getTipoNodo().equals(EnumNodo.MOLTIPLICAZIONE))
               ? espansionePrimaExp.getFigliNodo()
@@ -110,9 +127,11 @@ public class EspansioneVisitor implements Visitor {
         for (Nodo figlioAddizione : nodoAddizione.getFigliNodo()) {
           if (altroNodo.getTipoNodo().equals(EnumNodo.ADDIZIONE)) {
             for (Nodo altroFiglio : altroNodo.getFigliNodo()) {
+              getBudget().consuma(1);
               espansi.add(new NodoMoltiplicazione(Arrays.asList(figlioAddizione, altroFiglio)));
             }
           } else {
+            getBudget().consuma(1);
             espansi.add(new NodoMoltiplicazione(Arrays.asList(figlioAddizione, altroNodo)));
           }
         }
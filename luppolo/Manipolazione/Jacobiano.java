@@ -0,0 +1,154 @@
+package luppolo.Manipolazione;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta la matrice jacobiana di un sistema di espressioni
+ * rispetto a un insieme di variabili: l'elemento (i, j) è la derivata dell'espressione i rispetto
+ * alla variabile j, semplificata localmente durante la costruzione.
+ *
+ * <p>Per ogni variabile tutte le espressioni vengono derivate da un solo DerivataVisitor, con un
+ * memo dei risultati per uguaglianza strutturale dei sottoalberi: un sottoalbero che compare più
+ * volte, nella stessa espressione o in espressioni diverse, viene derivato una volta sola e tutte
+ * le sue occorrenze condividono lo stesso nodo derivato. Il costo cresce quindi con il numero di
+ * sottoalberi distinti del sistema per il numero di variabili, non con la dimensione totale delle
+ * espressioni.
+ */
+public final class Jacobiano {
+
+  /**
+   * AF: La matrice ha una riga per ogni espressione e una colonna per ogni variabile di variabili;
+   * derivate[i][j] è la derivata dell'espressione i rispetto a variabili.get(j). Un esempio è
+   * [[y, x], [1, 1]] per le espressioni *(x, y), +(x, y) e le variabili [x, y]. IR: variabili !=
+   * null, derivate != null, ogni riga di derivate ha variabili.size() elementi diversi da null,
+   * derivateCalcolate >= 0
+   */
+
+  /** Le variabili, una per colonna */
+  private final List<String> variabili;
+
+  /** Le derivate, per riga e per colonna */
+  private final Espressione[][] derivate;
+
+  /** Il numero di derivate di sottoalberi distinti calcolate per tutte le variabili */
+  private final int derivateCalcolate;
+
+  /**
+   * Costruisce la matrice jacobiana di un sistema di espressioni, senza limiti
+   *
+   * @param espressioni le espressioni del sistema, una per riga
+   * @param variabili le variabili, una per colonna
+   * @throws NullPointerException se una delle liste, un'espressione, la sua radice o una variabile
+   *     sono null
+   * @throws IllegalArgumentException se una variabile è vuota o non è definita nel dominio {a-z}
+   */
+  public Jacobiano(List<Espressione> espressioni, List<String> variabili) {
+    this(espressioni, variabili, Budget.ILLIMITATO);
+  }
+
+  /**
+   * Costruisce la matrice jacobiana di un sistema di espressioni entro un budget, condiviso da
+   * tutte le derivate
+   *
+   * @param espressioni le espressioni del sistema, una per riga
+   * @param variabili le variabili, una per colonna
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se una delle liste, un'espressione, la sua radice, una variabile o
+   *     il budget sono null
+   * @throws IllegalArgumentException se una variabile è vuota o non è definita nel dominio {a-z}
+   * @throws LimiteSuperatoException se la costruzione supera uno dei limiti del budget
+   */
+  public Jacobiano(List<Espressione> espressioni, List<String> variabili, Budget budget) {
+    Objects.requireNonNull(espressioni, "La lista delle espressioni non può essere null.");
+    Objects.requireNonNull(variabili, "La lista delle variabili non può essere null.");
+    Objects.requireNonNull(budget, "Il budget non può essere null.");
+    List<Nodo> radici = new ArrayList<>(espressioni.size());
+    for (Espressione espressione : espressioni) {
+      Objects.requireNonNull(espressione, "Ogni espressione non può essere null.");
+      radici.add(
+          Objects.requireNonNull(espressione.getRadice(), "La radice non può essere null."));
+    }
+    List<DerivataVisitor> visitor = new ArrayList<>(variabili.size());
+    for (String variabile : variabili) visitor.add(new DerivataVisitor(variabile, true, budget));
+
+    this.variabili = List.copyOf(variabili);
+    this.derivate = new Espressione[radici.size()][visitor.size()];
+    int calcolate = 0;
+    for (int j = 0; j < visitor.size(); j++) {
+      DerivataVisitor derivata = visitor.get(j);
+      MemoVisite memo = new MemoVisite();
+      derivata.usaMemo(memo);
+      for (int i = 0; i < radici.size(); i++) {
+        derivate[i][j] = new Espressione(derivata.visita(radici.get(i)));
+      }
+      derivata.usaMemo(null);
+      calcolate += memo.dimensione();
+    }
+    this.derivateCalcolate = calcolate;
+  }
+
+  /**
+   * Metodo che restituisce il numero di righe, cioè di espressioni
+   *
+   * @return il numero di righe
+   */
+  public int getNumeroRighe() {
+    return derivate.length;
+  }
+
+  /**
+   * Metodo che restituisce le variabili, una per colonna
+   *
+   * @return la lista, non modificabile, delle variabili
+   */
+  public List<String> getVariabili() {
+    return variabili;
+  }
+
+  /**
+   * Metodo che restituisce un elemento della matrice
+   *
+   * @param riga l'indice dell'espressione
+   * @param colonna l'indice della variabile
+   * @return la derivata dell'espressione rispetto alla variabile
+   * @throws IndexOutOfBoundsException se uno degli indici non è valido
+   */
+  public Espressione getDerivata(int riga, int colonna) {
+    Objects.checkIndex(riga, derivate.length);
+    Objects.checkIndex(colonna, variabili.size());
+    return derivate[riga][colonna];
+  }
+
+  /**
+   * Metodo che restituisce la derivata di un'espressione rispetto a una variabile
+   *
+   * @param riga l'indice dell'espressione
+   * @param variabile la variabile
+   * @return la derivata dell'espressione rispetto alla variabile
+   * @throws NullPointerException se la variabile è null
+   * @throws IndexOutOfBoundsException se l'indice non è valido
+   * @throws IllegalArgumentException se la variabile non è una colonna della matrice
+   */
+  public Espressione getDerivata(int riga, String variabile) {
+    Objects.requireNonNull(variabile, "La variabile non può essere null.");
+    int colonna = variabili.indexOf(variabile);
+    if (colonna < 0)
+      throw new IllegalArgumentException(
+          "La variabile " + variabile + " non è una colonna della matrice.");
+    return getDerivata(riga, colonna);
+  }
+
+  /**
+   * Metodo che restituisce il numero di derivate di sottoalberi distinti calcolate, sommato su
+   * tutte le variabili
+   *
+   * @return il numero di derivate calcolate
+   */
+  public int getNumeroDerivateCalcolate() {
+    return derivateCalcolate;
+  }
+}
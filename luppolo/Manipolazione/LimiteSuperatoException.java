@@ -0,0 +1,19 @@
+package luppolo.Manipolazione;
+
+/**
+ * OVERVIEW: L'eccezione segnala che una manipolazione è stata interrotta perché ha superato uno
+ * dei limiti del proprio budget.
+ */
+public class LimiteSuperatoException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Costruisce l'eccezione a partire dalla descrizione del limite superato
+   *
+   * @param messaggio la descrizione del limite superato
+   */
+  public LimiteSuperatoException(String messaggio) {
+    super(messaggio);
+  }
+}
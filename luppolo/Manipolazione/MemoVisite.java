@@ -0,0 +1,50 @@
+package luppolo.Manipolazione;
+
+import java.util.HashMap;
+import java.util.Map;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe mutabile memorizza i risultati delle visite ricorsive di un visitor, per
+ * uguaglianza strutturale del nodo visitato. Le chiavi vengono confrontate tramite le impronte già
+ * calcolate dai nodi, quindi sottoalberi uguali ma distinti condividono lo stesso risultato.
+ */
+final class MemoVisite {
+
+  /**
+   * AF: Il memo associa a ogni nodo di risultati il risultato della sua visita. IR: risultati !=
+   * null, i valori di risultati sono diversi da null
+   */
+
+  /** I risultati delle visite, per nodo visitato */
+  private final Map<Nodo, Nodo> risultati = new HashMap<>();
+
+  /**
+   * Metodo che restituisce il risultato memorizzato della visita di un nodo
+   *
+   * @param nodo il nodo
+   * @return il risultato, o null se il nodo non è nel memo
+   */
+  Nodo cerca(Nodo nodo) {
+    return risultati.get(nodo);
+  }
+
+  /**
+   * Metodo che memorizza il risultato della visita di un nodo, se il nodo non è già nel memo
+   *
+   * @param nodo il nodo visitato
+   * @param risultato il risultato della visita
+   */
+  void registra(Nodo nodo, Nodo risultato) {
+    risultati.putIfAbsent(nodo, risultato);
+  }
+
+  /**
+   * Metodo che restituisce il numero di nodi nel memo
+   *
+   * @return il numero di nodi
+   */
+  int dimensione() {
+    return risultati.size();
+  }
+}
@@ -0,0 +1,150 @@
+package luppolo.Manipolazione;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe immutabile compone più visitor in un'unica visita dal basso verso l'alto,
+ * ad esempio DerivataVisitor, poi EspansioneVisitor, poi SemplificaVisitor: ogni nodo distinto
+ * dell'albero viene trasformato dopo i suoi figli, e il risultato di ogni fase sul nodo passa
+ * subito alla fase successiva prima di risalire al padre. Ogni fase tiene un memo dei risultati
+ * delle sue visite per uguaglianza strutturale, quindi trasformando un nodo le visite ricorsive di
+ * una fase trovano già pronti i risultati sui sottoalberi prodotti dalla fase precedente per i
+ * figli, e visitano solo la parte nuova del risultato.
+ *
+ * <p>Le fasi devono essere deterministiche e il risultato della visita di un nodo deve dipendere
+ * solo dalla struttura del nodo, non dalla sua identità né dall'ordine delle visite, come per i
+ * visitor di questo package: solo in tal caso il risultato è uguale a quello dell'applicazione
+ * delle fasi in sequenza. La pipeline è essa stessa un visitor: ogni visita ottiene visitor nuovi
+ * dai fornitori, quindi la stessa pipeline può essere usata da più thread.
+ */
+public final class PipelineVisitor implements Visitor {
+
+  /**
+   * AF: La pipeline applica in ordine i visitor ottenuti dai fornitori di fasi. Un esempio è
+   * [() -> new DerivataVisitor("x"), EspansioneVisitor::new, SemplificaVisitor::new]. IR: fasi !=
+   * null, fasi non vuota, per ogni fornitore f in fasi f != null
+   */
+
+  /** I fornitori dei visitor delle fasi, nell'ordine di applicazione */
+  private final List<Supplier<? extends VisitorLimitato>> fasi;
+
+  /**
+   * Costruisce una pipeline a partire dai fornitori dei visitor delle sue fasi
+   *
+   * @param fasi i fornitori dei visitor, nell'ordine di applicazione; ogni fornitore deve
+   *     restituire a ogni chiamata un visitor nuovo, i cui risultati dipendono solo dalla struttura
+   *     dei nodi visitati
+   * @throws NullPointerException se la lista o uno dei fornitori sono null
+   * @throws IllegalArgumentException se la lista è vuota
+   */
+  public PipelineVisitor(List<? extends Supplier<? extends VisitorLimitato>> fasi) {
+    Objects.requireNonNull(fasi, "La lista delle fasi non può essere null.");
+    if (fasi.isEmpty())
+      throw new IllegalArgumentException("La pipeline deve avere almeno una fase.");
+    for (Supplier<? extends VisitorLimitato> fase : fasi) {
+      Objects.requireNonNull(fase, "Ogni fornitore di visitor non può essere null.");
+    }
+    this.fasi = List.copyOf(fasi);
+  }
+
+  /**
+   * Metodo che restituisce il numero di fasi della pipeline
+   *
+   * @return il numero di fasi
+   */
+  public int getNumeroFasi() {
+    return fasi.size();
+  }
+
+  /**
+   * Metodo che applica tutte le fasi a un albero in un'unica visita dal basso verso l'alto
+   *
+   * @param radice la radice dell'albero
+   * @return il risultato dell'ultima fase
+   * @throws NullPointerException se la radice è null o un fornitore restituisce null
+   * @throws LimiteSuperatoException se una fase supera uno dei limiti del suo budget
+   */
+  public Nodo applica(Nodo radice) {
+    Objects.requireNonNull(radice, "La radice non può essere null.");
+    VisitorLimitato[] visitor = new VisitorLimitato[fasi.size()];
+    for (int f = 0; f < visitor.length; f++) {
+      visitor[f] =
+          Objects.requireNonNull(fasi.get(f).get(), "Il visitor fornito non può essere null.");
+    }
+    try {
+      for (VisitorLimitato fase : visitor) fase.usaMemo(new MemoVisite());
+      return trasforma(radice, visitor);
+    } finally {
+      for (VisitorLimitato fase : visitor) fase.usaMemo(null);
+    }
+  }
+
+  /**
+   * Metodo che trasforma ogni nodo distinto dell'albero, dopo i suoi figli, con tutte le fasi in
+   * ordine, senza ricorsione
+   *
+   * @param radice la radice dell'albero
+   * @param visitor i visitor delle fasi, ciascuno con il proprio memo
+   * @return il risultato dell'ultima fase sulla radice
+   */
+  private static Nodo trasforma(Nodo radice, VisitorLimitato[] visitor) {
+    Set<Nodo> trasformati = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Nodo> nodi = new ArrayDeque<>();
+    Deque<Boolean> figliPronti = new ArrayDeque<>();
+    nodi.push(radice);
+    figliPronti.push(false);
+    Nodo risultato = radice;
+    while (!nodi.isEmpty()) {
+      Nodo nodo = nodi.pop();
+      boolean pronti = figliPronti.pop();
+      if (trasformati.contains(nodo)) continue;
+      if (!pronti) {
+        nodi.push(nodo);
+        figliPronti.push(true);
+        for (Nodo figlio : nodo.getFigliNodo()) {
+          if (trasformati.contains(figlio)) continue;
+          nodi.push(figlio);
+          figliPronti.push(false);
+        }
+        continue;
+      }
+      risultato = nodo;
+      for (VisitorLimitato fase : visitor) risultato = fase.visita(risultato);
+      trasformati.add(nodo);
+    }
+    return risultato;
+  }
+
+  @Override
+  public Nodo visit(FogliaRazionale nodo) {
+    return applica(nodo);
+  }
+
+  @Override
+  public Nodo visit(FogliaSimbolo nodo) {
+    return applica(nodo);
+  }
+
+  @Override
+  public Nodo visit(NodoPotenza nodo) {
+    return applica(nodo);
+  }
+
+  @Override
+  public Nodo visit(NodoAddizione nodo) {
+    return applica(nodo);
+  }
+
+  @Override
+  public Nodo visit(NodoMoltiplicazione nodo) {
+    return applica(nodo);
+  }
+}
@@ -7,7 +7,23 @@ import luppolo.Nodo.*;
  * OVERVIEW: La classe che implementa l'interfaccia visitor definisce un'implementazione della
  * manipolazione di semplificazione per ogni tipologia di nodo definita.
  */
-public class SemplificaVisitor implements Visitor {
+public class SemplificaVisitor extends VisitorLimitato {
+
+  /** Costruisce un SemplificaVisitor senza limiti */
+  public SemplificaVisitor() {
+    this(Budget.ILLIMITATO);
+  }
+
+  /**
+   * Costruisce un SemplificaVisitor che rispetta il budget dato
+   *
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se il budget è null
+   */
+  public SemplificaVisitor(Budget budget) {
+    super(budget);
+  }
+
   @Override
   public Nodo visit(FogliaRazionale nodo) {
     Objects.requireNonNull(nodo, "Il nodo foglia razionale da semplificare non può essere null.");
@@ -20,13 +36,13 @@ public class SemplificaVisitor implements Visitor {
   public Nodo visit(FogliaSimbolo fogliaSimbolo) {
     Objects.requireNonNull(
         fogliaSimbolo, "Il nodo foglia simbolo da semplificare non può essere null.");
-    return new FogliaSimbolo(fogliaSimbolo.getValoreNodo());
+    return FogliaSimbolo.valueOf(fogliaSimbolo.getValoreNodo());
   }
 
   @Override
   public Nodo visit(NodoPotenza nodoPotenza) {
     Objects.requireNonNull(nodoPotenza, "Il nodo potenza da semplificare non può essere null.");
-    Nodo baseSemplificata = nodoPotenza.getBase().accept(this);
+    Nodo baseSemplificata = visita(nodoPotenza.getBase());
     NumeroRazionale esponente = nodoPotenza.getEsponenteValore();
 
     if (esponente.equals(NumeroRazionale.UNO)) {
@@ -67,7 +83,7 @@ public class SemplificaVisitor implements Visitor {
     Objects.requireNonNull(nodoAddizione, "Il nodo addizione da semplificare non può essere null.");
     List<Nodo> addendiSemplificati = new ArrayList<>();
     for (Nodo addendo : nodoAddizione.getFigliNodo()) {
-      Nodo addendoSemplificato = addendo.accept(this);
+      Nodo addendoSemplificato = visita(addendo);
       if (addendoSemplificato.getTipoNodo() == EnumNodo.ADDIZIONE) {
         addendiSemplificati.addAll((addendoSemplificato).getFigliNodo());
       } else {
@@ -95,7 +111,7 @@ public class SemplificaVisitor implements Visitor {
       nodiNonRazionali.add(new FogliaRazionale(sommaNumeri));
     }
 
-    Map<Nodo, NumeroRazionale> baseFattoreMap = new HashMap<>();
+    AccumulatoreTermini basiFattori = new AccumulatoreTermini(nodiNonRazionali.size());
     for (Nodo nodo : nodiNonRazionali) {
       NumeroRazionale fattore = NumeroRazionale.UNO;
       if (nodo.getTipoNodo() == EnumNodo.MOLTIPLICAZIONE) {
@@ -110,31 +126,30 @@ public class SemplificaVisitor implements Visitor {
         nodo =
             nonRazionali.size() == 1 ? nonRazionali.get(0) : new NodoMoltiplicazione(nonRazionali);
       }
-      baseFattoreMap.merge(nodo, fattore, NumeroRazionale::addizione);
+      basiFattori.aggiungi(nodo, fattore);
     }
+    List<Nodo> basi = new ArrayList<>();
     List<Nodo> fattorizzati = new ArrayList<>();
-    for (Map.Entry<Nodo, NumeroRazionale> entry : baseFattoreMap.entrySet()) {
-      Nodo base = entry.getKey();
-      NumeroRazionale fattore = entry.getValue();
+    for (Nodo base : basiFattori.chiaviOrdinate()) {
+      NumeroRazionale fattore = basiFattori.valore(base);
       if (!fattore.equals(NumeroRazionale.UNO)) {
         if (base.getTipoNodo() == EnumNodo.MOLTIPLICAZIONE && base.getFigliNodo().size() > 1) {
-          List<Nodo> figliMoltiplicazione = new ArrayList<>();
-          figliMoltiplicazione.add(new FogliaRazionale(fattore));
-          figliMoltiplicazione.addAll(base.getFigliNodo());
-          fattorizzati.add(new NodoMoltiplicazione(figliMoltiplicazione));
+          fattorizzati.add(
+              NodoMoltiplicazione.fondi(
+                  List.of(List.of(new FogliaRazionale(fattore)), base.getFigliNodo())));
         } else {
           fattorizzati.add(
               new NodoMoltiplicazione(Arrays.asList(new FogliaRazionale(fattore), base)));
         }
       } else {
-        fattorizzati.add(base);
+        basi.add(base);
       }
     }
 
-    if (fattorizzati.size() == 1) {
-      return fattorizzati.get(0);
+    if (basi.size() + fattorizzati.size() == 1) {
+      return basi.isEmpty() ? fattorizzati.get(0) : basi.get(0);
     }
-    return new NodoAddizione(fattorizzati);
+    return NodoAddizione.fondi(List.of(basi, fattorizzati));
   }
 
   @Override
@@ -144,7 +159,7 @@ public class SemplificaVisitor implements Visitor {
     List<Nodo> figliSemplificati = new ArrayList<>();
 
     for (Nodo figlio : nodoMoltiplicazione.getFigliNodo()) {
-      Nodo figlioSemplificato = figlio.accept(this);
+      Nodo figlioSemplificato = visita(figlio);
       if (figlioSemplificato.getTipoNodo() == EnumNodo.MOLTIPLICAZIONE) {
         figliSemplificati.addAll(figlioSemplificato.getFigliNodo());
       } else {
@@ -172,38 +187,38 @@ public class SemplificaVisitor implements Visitor {
       return new FogliaRazionale(NumeroRazionale.UNO);
     }
 
-    Map<Nodo, NumeroRazionale> baseEsponenteMap = new HashMap<>();
+    AccumulatoreTermini basiEsponenti = new AccumulatoreTermini(nodiNonRazionali.size());
     for (Nodo nodo : nodiNonRazionali) {
       if (nodo.getTipoNodo() == EnumNodo.POTENZA) {
         NodoPotenza potenza = (NodoPotenza) nodo;
         Nodo base = potenza.getBase();
         NumeroRazionale esponente = potenza.getEsponenteValore();
-        base = base.accept(this);
+        base = visita(base);
         if (base.getTipoNodo() == EnumNodo.POTENZA) {
           NodoPotenza basePotenza = (NodoPotenza) base;
           esponente = esponente.moltiplicazione(basePotenza.getEsponenteValore());
           base = basePotenza.getBase();
         }
         if (!esponente.equals(NumeroRazionale.ZERO)) {
-          baseEsponenteMap.merge(base, esponente, NumeroRazionale::addizione);
+          basiEsponenti.aggiungi(base, esponente);
         }
       } else {
-        baseEsponenteMap.merge(nodo, NumeroRazionale.UNO, NumeroRazionale::addizione);
+        basiEsponenti.aggiungi(nodo, 1, 1);
       }
     }
-    List<Nodo> fattorizzati = new ArrayList<>();
-    for (Map.Entry<Nodo, NumeroRazionale> entry : baseEsponenteMap.entrySet()) {
-      Nodo base = entry.getKey();
-      NumeroRazionale esponente = entry.getValue();
+    List<Nodo> basi = new ArrayList<>();
+    List<Nodo> potenze = new ArrayList<>();
+    for (Nodo base : basiEsponenti.chiaviOrdinate()) {
+      NumeroRazionale esponente = basiEsponenti.valore(base);
       if (!esponente.equals(NumeroRazionale.UNO)) {
-        fattorizzati.add(new NodoPotenza(base, new FogliaRazionale(esponente)));
+        potenze.add(new NodoPotenza(base, new FogliaRazionale(esponente)));
       } else {
-        fattorizzati.add(base);
+        basi.add(base);
       }
     }
-    if (fattorizzati.size() == 1) {
-      return fattorizzati.get(0);
+    if (basi.size() + potenze.size() == 1) {
+      return basi.isEmpty() ? potenze.get(0) : basi.get(0);
     }
-    return new NodoMoltiplicazione(fattorizzati);
+    return NodoMoltiplicazione.fondi(List.of(basi, potenze));
   }
 }
@@ -0,0 +1,25 @@
+package luppolo.Manipolazione;
+
+/**
+ * OVERVIEW: La classe rappresenta un token di cancellazione condivisibile tra thread: una volta
+ * cancellato, ogni visitor il cui budget lo controlla si interrompe al nodo successivo.
+ */
+public class TokenCancellazione {
+
+  /** Indica se il token è stato cancellato */
+  private volatile boolean cancellato;
+
+  /** Metodo mutazionale che cancella il token; la cancellazione non è reversibile */
+  public void cancella() {
+    cancellato = true;
+  }
+
+  /**
+   * Metodo che stabilisce se il token è stato cancellato
+   *
+   * @return true se il token è stato cancellato, false altrimenti
+   */
+  public boolean isCancellato() {
+    return cancellato;
+  }
+}
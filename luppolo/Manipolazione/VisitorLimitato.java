@@ -0,0 +1,77 @@
+package luppolo.Manipolazione;
+
+import java.util.Objects;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe astratta definisce un visitor le cui visite ricorsive passano per il budget,
+ * che viene controllato all'ingresso in ogni nodo. Le visite ricorsive consultano prima
+ * l'eventuale memo dei risultati già calcolati, usato da PipelineVisitor per non visitare di nuovo
+ * i sottoalberi già trasformati.
+ */
+public abstract class VisitorLimitato implements Visitor {
+
+  /** Il budget della manipolazione */
+  private final Budget budget;
+
+  /** Il memo dei risultati delle visite, null se assente */
+  private MemoVisite memo;
+
+  /**
+   * Inizializza il budget del visitor
+   *
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se il budget è null
+   */
+  protected VisitorLimitato(Budget budget) {
+    Objects.requireNonNull(budget, "Il budget non può essere null.");
+    this.budget = budget;
+  }
+
+  /**
+   * Metodo che restituisce il budget della manipolazione
+   *
+   * @return il budget
+   */
+  protected Budget getBudget() {
+    return budget;
+  }
+
+  /**
+   * Metodo che imposta il memo consultato e aggiornato dalle visite ricorsive. Il memo deve
+   * contenere soltanto risultati di visite di questo visitor, e va usato solo se tali risultati
+   * dipendono soltanto dalla struttura dei nodi visitati
+   *
+   * @param memo il memo, o null per non usarne alcuno
+   */
+  void usaMemo(MemoVisite memo) {
+    this.memo = memo;
+  }
+
+  /**
+   * Metodo che visita ricorsivamente un nodo, controllando il budget. Se il memo contiene già il
+   * risultato della visita del nodo, viene restituito senza visitarlo; altrimenti il risultato
+   * viene aggiunto al memo
+   *
+   * @param nodo il nodo da visitare
+   * @return il nodo restituito dalla visita
+   * @throws NullPointerException se il nodo è null
+   * @throws LimiteSuperatoException se la visita supera uno dei limiti del budget
+   * @throws java.util.concurrent.CancellationException se la visita viene cancellata
+   */
+  protected Nodo visita(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo da visitare non può essere null.");
+    if (memo != null) {
+      Nodo risultato = memo.cerca(nodo);
+      if (risultato != null) return risultato;
+    }
+    budget.entra();
+    try {
+      Nodo risultato = nodo.accept(this);
+      if (memo != null) memo.registra(nodo, risultato);
+      return risultato;
+    } finally {
+      budget.esci();
+    }
+  }
+}
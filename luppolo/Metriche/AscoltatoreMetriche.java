@@ -0,0 +1,12 @@
+package luppolo.Metriche;
+
+/** OVERVIEW: l'interfaccia definisce un ascoltatore che riceve le metriche di ogni passata */
+@FunctionalInterface
+public interface AscoltatoreMetriche {
+  /**
+   * Metodo invocato al termine di ogni passata misurata, sul thread che l'ha eseguita.
+   *
+   * @param metriche le metriche della passata
+   */
+  void passataCompletata(MetrichePassata metriche);
+}
@@ -0,0 +1,37 @@
+package luppolo.Metriche;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** OVERVIEW: La classe rappresenta l'evento JFR registrato al termine di ogni passata misurata */
+@Name("luppolo.Passata")
+@Label("Passata")
+@Category("Luppolo")
+@Description("Una passata di costruzione o manipolazione di un albero")
+class EventoPassata extends Event {
+
+  /** Il nome della passata */
+  @Label("Nome")
+  String nome;
+
+  /** Il totale dei nodi visitati */
+  @Label("Nodi visitati")
+  long nodiVisitati;
+
+  /** Il totale dei nodi creati */
+  @Label("Nodi creati")
+  long nodiCreati;
+
+  /** La profondità massima degli alberi della passata */
+  @Label("Profondità massima")
+  int profonditaMassima;
+
+  /** I byte allocati dal thread durante la passata */
+  @Label("Byte allocati")
+  @DataAmount
+  long byteAllocati;
+}
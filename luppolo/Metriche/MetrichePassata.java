@@ -0,0 +1,169 @@
+package luppolo.Metriche;
+
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta le metriche di una passata su un albero: la durata, i
+ * nodi visitati e creati per tipologia di nodo, la profondità massima e i byte allocati.
+ */
+public class MetrichePassata {
+
+  /**
+   * AF: Le metriche della passata nome, dove nodiVisitati[t] e nodiCreati[t] sono i nodi della
+   * tipologia con ordinale t. IR: nome != null, durataNanos >= 0, nodiVisitati != null, nodiCreati
+   * != null, nodiVisitati e nodiCreati hanno un elemento per ogni EnumNodo, byteAllocati >= -1
+   */
+
+  /** Il nome della passata */
+  private final String nome;
+
+  /** La durata della passata in nanosecondi */
+  private final long durataNanos;
+
+  /** I nodi dell'albero in ingresso, per tipologia */
+  private final long[] nodiVisitati;
+
+  /** I nodi dell'albero in uscita che non erano presenti in ingresso, per tipologia */
+  private final long[] nodiCreati;
+
+  /** La profondità massima tra l'albero in ingresso e quello in uscita */
+  private final int profonditaMassima;
+
+  /** I byte allocati dal thread durante la passata, -1 se la misura non è disponibile */
+  private final long byteAllocati;
+
+  /**
+   * Costruisce le metriche di una passata
+   *
+   * @param nome il nome della passata
+   * @param durataNanos la durata in nanosecondi
+   * @param nodiVisitati i nodi visitati per tipologia
+   * @param nodiCreati i nodi creati per tipologia
+   * @param profonditaMassima la profondità massima
+   * @param byteAllocati i byte allocati, -1 se non disponibili
+   */
+  MetrichePassata(
+      String nome,
+      long durataNanos,
+      long[] nodiVisitati,
+      long[] nodiCreati,
+      int profonditaMassima,
+      long byteAllocati) {
+    this.nome = Objects.requireNonNull(nome, "Il nome della passata non può essere null.");
+    this.durataNanos = durataNanos;
+    this.nodiVisitati = nodiVisitati.clone();
+    this.nodiCreati = nodiCreati.clone();
+    this.profonditaMassima = profonditaMassima;
+    this.byteAllocati = byteAllocati;
+  }
+
+  /**
+   * Metodo che restituisce il nome della passata
+   *
+   * @return il nome
+   */
+  public String getNome() {
+    return nome;
+  }
+
+  /**
+   * Metodo che restituisce la durata della passata
+   *
+   * @return la durata in nanosecondi
+   */
+  public long getDurataNanos() {
+    return durataNanos;
+  }
+
+  /**
+   * Metodo che restituisce i nodi visitati di una tipologia
+   *
+   * @param tipo la tipologia di nodo
+   * @return il numero di nodi visitati
+   * @throws NullPointerException se la tipologia è null
+   */
+  public long getNodiVisitati(EnumNodo tipo) {
+    Objects.requireNonNull(tipo, "La tipologia di nodo non può essere null.");
+    return nodiVisitati[tipo.ordinal()];
+  }
+
+  /**
+   * Metodo che restituisce i nodi creati di una tipologia
+   *
+   * @param tipo la tipologia di nodo
+   * @return il numero di nodi creati
+   * @throws NullPointerException se la tipologia è null
+   */
+  public long getNodiCreati(EnumNodo tipo) {
+    Objects.requireNonNull(tipo, "La tipologia di nodo non può essere null.");
+    return nodiCreati[tipo.ordinal()];
+  }
+
+  /**
+   * Metodo che restituisce il totale dei nodi visitati
+   *
+   * @return il numero di nodi visitati
+   */
+  public long getTotaleNodiVisitati() {
+    return somma(nodiVisitati);
+  }
+
+  /**
+   * Metodo che restituisce il totale dei nodi creati
+   *
+   * @return il numero di nodi creati
+   */
+  public long getTotaleNodiCreati() {
+    return somma(nodiCreati);
+  }
+
+  /**
+   * Metodo che restituisce la profondità massima degli alberi della passata
+   *
+   * @return la profondità massima
+   */
+  public int getProfonditaMassima() {
+    return profonditaMassima;
+  }
+
+  /**
+   * Metodo che restituisce i byte allocati dal thread durante la passata
+   *
+   * @return i byte allocati, -1 se la misura non è disponibile
+   */
+  public long getByteAllocati() {
+    return byteAllocati;
+  }
+
+  /**
+   * Metodo che somma i contatori per tipologia
+   *
+   * @param contatori i contatori
+   * @return la somma
+   */
+  private static long somma(long[] contatori) {
+    long totale = 0;
+    for (long contatore : contatori) {
+      totale += contatore;
+    }
+    return totale;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(nome).append(": ").append(durataNanos).append(" ns");
+    for (EnumNodo tipo : EnumNodo.values()) {
+      sb.append(", ")
+          .append(tipo)
+          .append(' ')
+          .append(nodiVisitati[tipo.ordinal()])
+          .append('/')
+          .append(nodiCreati[tipo.ordinal()]);
+    }
+    sb.append(", profondità ").append(profonditaMassima);
+    sb.append(", allocati ").append(byteAllocati).append(" B");
+    return sb.toString();
+  }
+}
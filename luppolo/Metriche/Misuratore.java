@@ -0,0 +1,202 @@
+package luppolo.Metriche;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import jdk.jfr.EventType;
+import luppolo.Espressione;
+import luppolo.Manipolazione.Visitor;
+import luppolo.Nodo.EnumNodo;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe non istanziabile misura le passate di costruzione e manipolazione degli
+ * alberi e ne pubblica le metriche agli ascoltatori registrati e come eventi JFR {@code
+ * luppolo.Passata}. Se non ci sono ascoltatori e l'evento JFR non è abilitato, le passate vengono
+ * eseguite direttamente, senza alcuna misura.
+ */
+public final class Misuratore {
+
+  /** Gli ascoltatori registrati */
+  private static final List<AscoltatoreMetriche> ASCOLTATORI = new CopyOnWriteArrayList<>();
+
+  /** Il tipo dell'evento JFR, per controllare se è abilitato */
+  private static final EventType TIPO_EVENTO = EventType.getEventType(EventoPassata.class);
+
+  /** Il bean che misura i byte allocati dal thread, null se non disponibile */
+  private static final com.sun.management.ThreadMXBean ALLOCAZIONI = beanAllocazioni();
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private Misuratore() {}
+
+  /**
+   * Metodo che registra un ascoltatore delle metriche
+   *
+   * @param ascoltatore l'ascoltatore da registrare
+   * @throws NullPointerException se l'ascoltatore è null
+   */
+  public static void aggiungiAscoltatore(AscoltatoreMetriche ascoltatore) {
+    Objects.requireNonNull(ascoltatore, "L'ascoltatore non può essere null.");
+    ASCOLTATORI.add(ascoltatore);
+  }
+
+  /**
+   * Metodo che rimuove un ascoltatore delle metriche
+   *
+   * @param ascoltatore l'ascoltatore da rimuovere
+   * @return true se l'ascoltatore era registrato, false altrimenti
+   */
+  public static boolean rimuoviAscoltatore(AscoltatoreMetriche ascoltatore) {
+    return ASCOLTATORI.remove(ascoltatore);
+  }
+
+  /**
+   * Metodo che stabilisce se le passate vengono misurate
+   *
+   * @return true se c'è almeno un ascoltatore o l'evento JFR è abilitato, false altrimenti
+   */
+  public static boolean isAttivo() {
+    return !ASCOLTATORI.isEmpty() || TIPO_EVENTO.isEnabled();
+  }
+
+  /**
+   * Metodo che applica un visitor a un nodo, misurando la passata se la misura è attiva
+   *
+   * @param nome il nome della passata
+   * @param visitor il visitor da applicare
+   * @param nodo il nodo a cui applicarlo
+   * @return il nodo restituito dal visitor
+   * @throws NullPointerException se uno dei parametri è null
+   */
+  public static Nodo applica(String nome, Visitor visitor, Nodo nodo) {
+    Objects.requireNonNull(visitor, "Il visitor non può essere null.");
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    if (!isAttivo()) return nodo.accept(visitor);
+    return misura(nome, nodo, () -> nodo.accept(visitor));
+  }
+
+  /**
+   * Metodo che esegue la costruzione di un'espressione, misurando la passata se la misura è attiva
+   *
+   * @param nome il nome della passata
+   * @param costruzione la costruzione da eseguire
+   * @return l'espressione costruita
+   * @throws NullPointerException se uno dei parametri è null
+   */
+  public static Espressione costruisci(String nome, Supplier<Espressione> costruzione) {
+    Objects.requireNonNull(costruzione, "La costruzione non può essere null.");
+    if (!isAttivo()) return costruzione.get();
+    return new Espressione(misura(nome, null, () -> costruzione.get().getRadice()));
+  }
+
+  /**
+   * Metodo che esegue una passata misurandone le metriche, e le pubblica agli ascoltatori e come
+   * evento JFR
+   *
+   * @param nome il nome della passata
+   * @param ingresso l'albero in ingresso, null per le costruzioni
+   * @param passata la passata da eseguire
+   * @return l'albero restituito dalla passata
+   * @throws NullPointerException se il nome è null
+   */
+  private static Nodo misura(String nome, Nodo ingresso, Supplier<Nodo> passata) {
+    Objects.requireNonNull(nome, "Il nome della passata non può essere null.");
+    EventoPassata evento = new EventoPassata();
+    evento.begin();
+    long byteIniziali = byteAllocati();
+    long inizio = System.nanoTime();
+    Nodo uscita = passata.get();
+    long durata = System.nanoTime() - inizio;
+    long byteFinali = byteAllocati();
+    evento.end();
+
+    long[] nodiVisitati = new long[EnumNodo.values().length];
+    long[] nodiCreati = new long[EnumNodo.values().length];
+    Map<Nodo, Integer> altezze = new IdentityHashMap<>();
+    int profondita = 0;
+    if (ingresso != null) profondita = conta(ingresso, nodiVisitati, altezze);
+    profondita = Math.max(profondita, conta(uscita, nodiCreati, altezze));
+    long allocati = byteIniziali < 0 || byteFinali < 0 ? -1 : byteFinali - byteIniziali;
+    MetrichePassata metriche =
+        new MetrichePassata(nome, durata, nodiVisitati, nodiCreati, profondita, allocati);
+
+    if (evento.shouldCommit()) {
+      evento.nome = nome;
+      evento.nodiVisitati = metriche.getTotaleNodiVisitati();
+      evento.nodiCreati = metriche.getTotaleNodiCreati();
+      evento.profonditaMassima = profondita;
+      evento.byteAllocati = allocati;
+      evento.commit();
+    }
+    for (AscoltatoreMetriche ascoltatore : ASCOLTATORI) {
+      ascoltatore.passataCompletata(metriche);
+    }
+    return uscita;
+  }
+
+  /**
+   * Metodo che conta per tipologia i nodi distinti di un albero non ancora misurati, senza
+   * ricorsione, e ne restituisce la profondità massima. Ogni nodo viene contato e attraversato una
+   * sola volta anche se è condiviso da più padri, quindi il costo è lineare nel numero di nodi
+   * distinti anche per gli alberi con sottoalberi condivisi.
+   *
+   * @param radice la radice dell'albero
+   * @param contatori i contatori per tipologia da incrementare
+   * @param altezze le altezze dei nodi già misurati, per identità, a cui vengono aggiunte quelle
+   *     dei nodi contati
+   * @return la profondità massima dell'albero
+   */
+  private static int conta(Nodo radice, long[] contatori, Map<Nodo, Integer> altezze) {
+    Deque<Nodo> nodi = new ArrayDeque<>();
+    Deque<List<Nodo>> figliAperti = new ArrayDeque<>();
+    Map<Nodo, Boolean> aperti = new IdentityHashMap<>();
+    nodi.push(radice);
+    while (!nodi.isEmpty()) {
+      Nodo nodo = nodi.pop();
+      if (altezze.containsKey(nodo)) continue;
+      if (aperti.remove(nodo) == null) {
+        List<Nodo> figli = nodo.getFigliNodo();
+        aperti.put(nodo, Boolean.TRUE);
+        figliAperti.push(figli);
+        nodi.push(nodo);
+        for (Nodo figlio : figli) {
+          if (!altezze.containsKey(figlio)) nodi.push(figlio);
+        }
+      } else {
+        int altezza = 0;
+        for (Nodo figlio : figliAperti.pop()) altezza = Math.max(altezza, altezze.get(figlio) + 1);
+        contatori[nodo.getTipoNodo().ordinal()]++;
+        altezze.put(nodo, altezza);
+      }
+    }
+    return altezze.get(radice);
+  }
+
+  /**
+   * Metodo che restituisce i byte allocati finora dal thread corrente
+   *
+   * @return i byte allocati, -1 se la misura non è disponibile
+   */
+  private static long byteAllocati() {
+    return ALLOCAZIONI == null ? -1 : ALLOCAZIONI.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Metodo che restituisce il bean che misura i byte allocati dai thread, se disponibile
+   *
+   * @return il bean, null se la JVM non supporta la misura
+   */
+  private static com.sun.management.ThreadMXBean beanAllocazioni() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean))
+      return null;
+    if (!bean.isThreadAllocatedMemorySupported()) return null;
+    if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+    return bean;
+  }
+}
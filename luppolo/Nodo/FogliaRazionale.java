@@ -22,6 +22,9 @@ public class FogliaRazionale extends Nodo {
   /* Il valore della foglia definita come un Numero Razionale */
   private final NumeroRazionale valore;
 
+  /** L'impronta strutturale del nodo */
+  private final long impronta;
+
   /**
    * Costruisce una foglia razionale a partire da un numero razionale
    *
@@ -32,6 +35,7 @@ public class FogliaRazionale extends Nodo {
     super(EnumNodo.RAZIONALE);
     Objects.requireNonNull(valore, "Il valore non può essere null.");
     this.valore = valore;
+    this.impronta = Impronta.razionale(valore);
   }
 
   /**
@@ -62,6 +66,11 @@ public class FogliaRazionale extends Nodo {
     return valore;
   }
 
+  @Override
+  public double valutaDouble(double[] valori) {
+    return valore.doubleValue();
+  }
+
   @Override
   public List<Nodo> getFigliNodo() {
     return Collections.emptyList();
@@ -92,6 +101,11 @@ public class FogliaRazionale extends Nodo {
 
   @Override
   public int hashCode() {
-    return Objects.hash(valore);
+    return Long.hashCode(impronta);
+  }
+
+  @Override
+  public long getImpronta() {
+    return impronta;
   }
 }
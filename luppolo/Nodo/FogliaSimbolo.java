@@ -20,6 +20,18 @@ public class FogliaSimbolo extends Nodo {
   /* Rappresentazione del valore del nodo foglia con una stringa */
   private final String valore;
 
+  /** L'impronta strutturale del nodo */
+  private final long impronta;
+
+  /** Le foglie condivise delle lettere da a a z, che non vanno ricontrollate */
+  private static final FogliaSimbolo[] INTERNATE = new FogliaSimbolo[26];
+
+  static {
+    for (int i = 0; i < INTERNATE.length; i++) {
+      INTERNATE[i] = new FogliaSimbolo(String.valueOf((char) ('a' + i)));
+    }
+  }
+
   /**
    * Costruisce un oggetto di tipo FogliaSimbolo a partire da una stringa
    *
@@ -33,10 +45,41 @@ public class FogliaSimbolo extends Nodo {
     Objects.requireNonNull(valore, "Il valore del nodo foglia non può essere null");
     if (valore.isEmpty())
       throw new IllegalArgumentException(" Il valore del nodo non può essere vuoto");
-    if (!valore.matches("[a-z]"))
+    if (valore.length() != 1 || valore.charAt(0) < 'a' || valore.charAt(0) > 'z')
       throw new IllegalArgumentException(
           valore + " il valore del nodo deve essere compreso tra le lettere a-z");
     this.valore = valore;
+    this.impronta = Impronta.simbolo(valore);
+  }
+
+  /**
+   * Metodo che restituisce la foglia condivisa di una lettera
+   *
+   * @param lettera la lettera
+   * @return la foglia simbolo
+   * @throws IllegalArgumentException se la lettera non è compresa tra a e z
+   */
+  public static FogliaSimbolo valueOf(char lettera) {
+    if (lettera < 'a' || lettera > 'z')
+      throw new IllegalArgumentException(
+          lettera + " il valore del nodo deve essere compreso tra le lettere a-z");
+    return INTERNATE[lettera - 'a'];
+  }
+
+  /**
+   * Metodo che restituisce la foglia condivisa del valore dato, senza ricontrollarlo
+   *
+   * @param valore della foglia
+   * @return la foglia simbolo
+   * @throws NullPointerException se il valore della foglia è nullo
+   * @throws IllegalArgumentException se il valore della foglia è vuoto
+   * @throws IllegalArgumentException se il valore non è un valore appartenete al dominio [a-z]
+   */
+  public static FogliaSimbolo valueOf(String valore) {
+    Objects.requireNonNull(valore, "Il valore del nodo foglia non può essere null");
+    if (valore.length() == 1 && valore.charAt(0) >= 'a' && valore.charAt(0) <= 'z')
+      return INTERNATE[valore.charAt(0) - 'a'];
+    return new FogliaSimbolo(valore);
   }
 
   @Override
@@ -60,6 +103,11 @@ public class FogliaSimbolo extends Nodo {
         this + " non è possibile evaluare un nodo che ha come valore un simbolo");
   }
 
+  @Override
+  public double valutaDouble(double[] valori) {
+    return valori[valore.charAt(0) - 'a'];
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -70,7 +118,12 @@ public class FogliaSimbolo extends Nodo {
 
   @Override
   public int hashCode() {
-    return Objects.hash(valore);
+    return Long.hashCode(impronta);
+  }
+
+  @Override
+  public long getImpronta() {
+    return impronta;
   }
 
   @Override
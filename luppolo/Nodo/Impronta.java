@@ -0,0 +1,96 @@
+package luppolo.Nodo;
+
+import java.util.List;
+
+/**
+ * OVERVIEW: La classe non istanziabile calcola le impronte strutturali a 64 bit dei nodi.
+ * L'impronta di un nodo interno combina la sua tipologia con le impronte dei figli, già calcolate,
+ * nell'ordine canonico: nodi uguali hanno quindi sempre la stessa impronta.
+ */
+final class Impronta {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private Impronta() {}
+
+  /**
+   * Metodo che restituisce l'impronta di una foglia razionale
+   *
+   * @param valore il valore della foglia
+   * @return l'impronta
+   */
+  static long razionale(NumeroRazionale valore) {
+    long impronta = combina(seme(EnumNodo.RAZIONALE), valore.getNumeratore());
+    return combina(impronta, valore.getDenominatore());
+  }
+
+  /**
+   * Metodo che restituisce l'impronta di una foglia simbolo
+   *
+   * @param valore il valore della foglia
+   * @return l'impronta
+   */
+  static long simbolo(String valore) {
+    return combina(seme(EnumNodo.SIMBOLO), valore.hashCode());
+  }
+
+  /**
+   * Metodo che restituisce l'impronta di un nodo interno a partire dai figli in ordine canonico
+   *
+   * @param tipo la tipologia del nodo
+   * @param figli i figli del nodo
+   * @return l'impronta
+   */
+  static long interno(EnumNodo tipo, List<Nodo> figli) {
+    long impronta = combina(seme(tipo), figli.size());
+    for (int i = 0; i < figli.size(); i++) {
+      impronta = combina(impronta, figli.get(i).getImpronta());
+    }
+    return impronta;
+  }
+
+  /**
+   * Metodo che restituisce l'impronta di un nodo potenza
+   *
+   * @param base la base del nodo
+   * @param esponente l'esponente del nodo
+   * @return l'impronta
+   */
+  static long potenza(Nodo base, Nodo esponente) {
+    long impronta = combina(seme(EnumNodo.POTENZA), 2);
+    impronta = combina(impronta, base.getImpronta());
+    return combina(impronta, esponente.getImpronta());
+  }
+
+  /**
+   * Metodo che restituisce l'impronta di partenza di una tipologia di nodo
+   *
+   * @param tipo la tipologia
+   * @return l'impronta di partenza
+   */
+  private static long seme(EnumNodo tipo) {
+    return mescola(tipo.ordinal() + 1L);
+  }
+
+  /**
+   * Metodo che combina un'impronta parziale con un valore
+   *
+   * @param impronta l'impronta parziale
+   * @param valore il valore da aggiungere
+   * @return l'impronta combinata
+   */
+  private static long combina(long impronta, long valore) {
+    return mescola(impronta * 0x9E3779B97F4A7C15L + valore);
+  }
+
+  /**
+   * Metodo che distribuisce i bit di un valore (finalizzatore di SplitMix64)
+   *
+   * @param valore il valore
+   * @return il valore mescolato
+   */
+  private static long mescola(long valore) {
+    valore = (valore ^ (valore >>> 30)) * 0xBF58476D1CE4E5B9L;
+    valore = (valore ^ (valore >>> 27)) * 0x94D049BB133111EBL;
+    return valore ^ (valore >>> 31);
+  }
+}
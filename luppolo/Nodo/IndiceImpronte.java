@@ -0,0 +1,100 @@
+package luppolo.Nodo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import luppolo.Espressione;
+
+/**
+ * OVERVIEW: La classe immutabile indicizza tutti i sottoalberi di un'espressione per impronta
+ * strutturale, così che le occorrenze di un sottoalbero si trovino con un solo accesso alla
+ * tabella invece che visitando l'albero.
+ */
+public class IndiceImpronte {
+
+  /**
+   * AF: L'indice associa a ogni sottoalbero distinto dell'espressione la lista delle sue
+   * occorrenze, in ordine di visita in profondità. Un esempio è {+(x, y) -> [+(x, y)], x -> [x, x]}
+   * per l'espressione *(x, +(x, y)). IR: occorrenze != null, ogni lista di occorrenze è non vuota
+   * e contiene soltanto nodi uguali alla sua chiave
+   */
+
+  /** Le occorrenze di ogni sottoalbero distinto */
+  private final Map<Nodo, List<Nodo>> occorrenze;
+
+  /**
+   * Costruisce l'indice dei sottoalberi di un'espressione
+   *
+   * @param espressione l'espressione da indicizzare
+   * @throws NullPointerException se l'espressione è null
+   */
+  public IndiceImpronte(Espressione espressione) {
+    Objects.requireNonNull(espressione, "L'espressione non può essere null.");
+    Map<Nodo, List<Nodo>> mappa = new HashMap<>();
+    Deque<Nodo> daVisitare = new ArrayDeque<>();
+    daVisitare.push(espressione.getRadice());
+    while (!daVisitare.isEmpty()) {
+      Nodo nodo = daVisitare.pop();
+      mappa.computeIfAbsent(nodo, k -> new ArrayList<>()).add(nodo);
+      List<Nodo> figli = nodo.getFigliNodo();
+      for (int i = figli.size() - 1; i >= 0; i--) {
+        daVisitare.push(figli.get(i));
+      }
+    }
+    for (Map.Entry<Nodo, List<Nodo>> voce : mappa.entrySet()) {
+      voce.setValue(Collections.unmodifiableList(voce.getValue()));
+    }
+    this.occorrenze = mappa;
+  }
+
+  /**
+   * Metodo che restituisce le occorrenze di un sottoalbero nell'espressione
+   *
+   * @param sottoalbero il sottoalbero da cercare
+   * @return la lista, non modificabile, delle occorrenze; vuota se il sottoalbero non compare
+   * @throws NullPointerException se il sottoalbero è null
+   */
+  public List<Nodo> occorrenze(Nodo sottoalbero) {
+    Objects.requireNonNull(sottoalbero, "Il sottoalbero non può essere null.");
+    return occorrenze.getOrDefault(sottoalbero, Collections.emptyList());
+  }
+
+  /**
+   * Metodo che stabilisce se un sottoalbero compare nell'espressione
+   *
+   * @param sottoalbero il sottoalbero da cercare
+   * @return true se il sottoalbero compare almeno una volta, false altrimenti
+   * @throws NullPointerException se il sottoalbero è null
+   */
+  public boolean contiene(Nodo sottoalbero) {
+    Objects.requireNonNull(sottoalbero, "Il sottoalbero non può essere null.");
+    return occorrenze.containsKey(sottoalbero);
+  }
+
+  /**
+   * Metodo che restituisce il rappresentante canonico di un sottoalbero, cioè la sua prima
+   * occorrenza nell'espressione
+   *
+   * @param sottoalbero il sottoalbero da cercare
+   * @return la prima occorrenza, null se il sottoalbero non compare
+   * @throws NullPointerException se il sottoalbero è null
+   */
+  public Nodo canonico(Nodo sottoalbero) {
+    List<Nodo> trovate = occorrenze(sottoalbero);
+    return trovate.isEmpty() ? null : trovate.get(0);
+  }
+
+  /**
+   * Metodo che restituisce il numero di sottoalberi distinti dell'espressione
+   *
+   * @return il numero di sottoalberi distinti
+   */
+  public int getNumeroSottoalberiDistinti() {
+    return occorrenze.size();
+  }
+}
@@ -83,6 +83,17 @@ public abstract class Nodo implements Comparable<Nodo> {
    */
   public abstract NumeroRazionale evaluate() throws UnsupportedOperationException;
 
+  /**
+   * Metodo astratto che valuta il nodo in virgola mobile, senza allocare oggetti. Le potenze con
+   * esponente frazionario danno il loro valore reale approssimato, o NaN se non è reale.
+   *
+   * @param valori i valori delle variabili, indicizzati per lettera: valori[0] è il valore di 'a'
+   * @return il valore approssimato del nodo
+   * @throws NullPointerException se i valori sono null
+   * @throws ArrayIndexOutOfBoundsException se manca il valore di un simbolo del nodo
+   */
+  public abstract double valutaDouble(double[] valori);
+
   /**
    * Metodo che restituisce la lista di figli di un nodo. I nodi foglia restituiscono una lista
    * vuota.
@@ -91,6 +102,15 @@ public abstract class Nodo implements Comparable<Nodo> {
    */
   public abstract List<Nodo> getFigliNodo();
 
+  /**
+   * Metodo astratto che restituisce l'impronta strutturale a 64 bit del nodo, calcolata alla
+   * costruzione a partire dalle impronte dei figli. Nodi uguali hanno la stessa impronta, quindi
+   * nodi con impronte diverse sono certamente diversi.
+   *
+   * @return l'impronta del nodo
+   */
+  public abstract long getImpronta();
+
   /**
    * Metodo astratto che accetta un oggetto di tipo Visitor e restituisce un nodo
    *
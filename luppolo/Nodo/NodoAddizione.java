@@ -6,6 +6,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import luppolo.Manipolazione.Visitor;
+import luppolo.Rappresentazione.ScrittoreEspressione;
 
 /**
  * OVERVIEW: La classe NodoAddizione è immutabile ed estende la classe astratta Nodo, rappresentando
@@ -25,8 +26,13 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
   /** I figli (addendi) del nodo */
   private final List<Nodo> addendi;
 
+  /** L'impronta strutturale del nodo */
+  private final long impronta;
+
   /**
-   * Metodo che costruisce un nodo a partire da una lista di nodi
+   * Metodo che costruisce un nodo a partire da una lista di nodi. Gli addendi vengono ordinati solo
+   * se non sono già in ordine canonico, cosa che si verifica con un confronto per coppia di figli
+   * adiacenti
    *
    * @param addendi lista di nodi figli del nodo this
    * @throws NullPointerException se la lista di addendi è null
@@ -39,12 +45,22 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
     if (addendi.isEmpty())
       throw new IllegalArgumentException(
           "La lista di nodi figli non può essere vuota per i nodi interni");
-    for (Nodo nodo : addendi) {
-      Objects.requireNonNull(nodo, "Ogni nodo figlio non può essere null");
-    }
-    List<Nodo> tmp = new ArrayList<>(addendi);
-    Collections.sort(tmp);
-    this.addendi = new ArrayList<>(tmp);
+    this.addendi = Ordinamento.canonica(addendi);
+    this.impronta = Impronta.interno(EnumNodo.ADDIZIONE, this.addendi);
+  }
+
+  /**
+   * Metodo che costruisce un nodo addizione a partire da più sequenze di addendi. Le sequenze già
+   * in ordine canonico, come i figli di un altro nodo, vengono fuse senza essere ordinate di nuovo
+   *
+   * @param sequenze le sequenze di addendi
+   * @return il nodo addizione con tutti gli addendi delle sequenze
+   * @throws NullPointerException se la lista, una sequenza o uno degli addendi sono null
+   * @throws IllegalArgumentException se le sequenze non contengono alcun nodo
+   */
+  public static NodoAddizione fondi(List<? extends List<? extends Nodo>> sequenze) {
+    Objects.requireNonNull(sequenze, "La lista delle sequenze di figli non può essere null");
+    return new NodoAddizione(Ordinamento.fondi(sequenze));
   }
 
   @Override
@@ -54,32 +70,23 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
 
   @Override
   public String toString() {
-    StringBuilder sb = new StringBuilder();
-    sb.append(getValoreNodo());
-    sb.append("(");
-    for (int i = 0; i <= addendi.size() - 1; i++) {
-      sb.append(addendi.get(i).toString());
-      if (i < addendi.size() - 1) {
-        sb.append(", ");
-      }
-    }
-    sb.append(")");
-    return sb.toString();
+    return ScrittoreEspressione.funzionale(this);
   }
 
   @Override
   protected int compareToStessoTipoNodo(Nodo o) {
     if (!o.getTipoNodo().equals(getTipoNodo()))
       throw new ClassCastException("Non è possibile confrontare nodi di tipi diversi.");
-    int len = Math.min(this.addendi.size(), o.getFigliNodo().size());
+    List<Nodo> altri = ((NodoAddizione) NodoPigro.nonPigro(o)).addendi;
+    int len = Math.min(this.addendi.size(), altri.size());
     for (int i = 0; i < len; i++) {
-      int confronto = this.addendi.get(i).compareTo(o.getFigliNodo().get(i));
+      int confronto = this.addendi.get(i).compareTo(altri.get(i));
       if (confronto != 0) {
         return confronto;
       }
     }
 
-    return Integer.compare(this.addendi.size(), o.getFigliNodo().size());
+    return Integer.compare(this.addendi.size(), altri.size());
   }
 
   @Override
@@ -89,13 +96,7 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
 
   @Override
   public List<Nodo> getFigliNodo() {
-    Iterator<Nodo> io = iterator();
-    List<Nodo> tmp = new ArrayList<>();
-    while (io.hasNext()) {
-      tmp.add(io.next());
-    }
-    Collections.sort(tmp);
-    return tmp;
+    return new ArrayList<>(addendi);
   }
 
   @Override
@@ -106,14 +107,21 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
+    if (o instanceof NodoPigro) return equals(((NodoPigro) o).materializza());
     if (o == null || getClass() != o.getClass()) return false;
     NodoAddizione nodes = (NodoAddizione) o;
+    if (impronta != nodes.impronta) return false;
     return this.getTipoNodo() == nodes.getTipoNodo() && Objects.equals(addendi, nodes.addendi);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(addendi, getTipoNodo());
+    return Long.hashCode(impronta);
+  }
+
+  @Override
+  public long getImpronta() {
+    return impronta;
   }
 
   @Override
@@ -124,4 +132,13 @@ public class NodoAddizione extends Nodo implements Iterable<Nodo> {
     }
     return risultato;
   }
+
+  @Override
+  public double valutaDouble(double[] valori) {
+    double somma = 0;
+    for (int i = 0; i < addendi.size(); i++) {
+      somma += addendi.get(i).valutaDouble(valori);
+    }
+    return somma;
+  }
 }
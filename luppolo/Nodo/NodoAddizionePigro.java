@@ -0,0 +1,138 @@
+package luppolo.Nodo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * OVERVIEW: La classe rappresenta un nodo addizione immutabile i cui addendi vengono generati su
+ * richiesta. Ogni iterazione chiede al generatore un nuovo iteratore e ottiene gli addendi
+ * nell'ordine in cui vengono generati, quindi chi si ferma dopo pochi addendi non genera gli
+ * altri. La valutazione scorre gli addendi senza conservarli, oppure valuta direttamente un nodo
+ * equivalente se è stato indicato, ad esempio il nodo di cui gli addendi sono l'espansione; il
+ * NodoAddizione completo, con gli addendi ordinati, viene costruito solo se serve la sua
+ * struttura.
+ */
+public class NodoAddizionePigro extends NodoPigro implements Iterable<Nodo> {
+
+  /**
+   * AF: Il nodo rappresenta la somma degli addendi restituiti da un iteratore del generatore. IR:
+   * generatore != null, ogni iteratore del generatore restituisce la stessa sequenza non vuota di
+   * nodi diversi da null, se equivalente != null ha lo stesso valore della somma degli addendi
+   */
+
+  /** Il generatore degli addendi */
+  private final Supplier<? extends Iterator<? extends Nodo>> generatore;
+
+  /** Il nodo valutato al posto degli addendi, o null se la valutazione scorre gli addendi */
+  private final Nodo equivalente;
+
+  /**
+   * Costruisce un nodo addizione pigro a partire dal generatore dei suoi addendi. Il generatore
+   * deve restituire a ogni chiamata un nuovo iteratore sulla stessa sequenza di addendi
+   *
+   * @param generatore il generatore degli addendi
+   * @throws NullPointerException se il generatore è null
+   */
+  public NodoAddizionePigro(Supplier<? extends Iterator<? extends Nodo>> generatore) {
+    super(EnumNodo.ADDIZIONE);
+    this.generatore = Objects.requireNonNull(generatore, "Il generatore non può essere null");
+    this.equivalente = null;
+  }
+
+  /**
+   * Costruisce un nodo addizione pigro a partire dal generatore dei suoi addendi e da un nodo con
+   * lo stesso valore della loro somma, che viene valutato al posto degli addendi senza generarli
+   *
+   * @param generatore il generatore degli addendi
+   * @param equivalente il nodo con lo stesso valore della somma degli addendi
+   * @throws NullPointerException se il generatore o il nodo equivalente sono null
+   */
+  public NodoAddizionePigro(
+      Supplier<? extends Iterator<? extends Nodo>> generatore, Nodo equivalente) {
+    super(EnumNodo.ADDIZIONE);
+    this.generatore = Objects.requireNonNull(generatore, "Il generatore non può essere null");
+    this.equivalente =
+        Objects.requireNonNull(equivalente, "Il nodo equivalente non può essere null");
+  }
+
+  /**
+   * Metodo che restituisce il nodo valutato al posto degli addendi
+   *
+   * @return il nodo equivalente, o null se la valutazione scorre gli addendi
+   */
+  public Nodo getEquivalente() {
+    return equivalente;
+  }
+
+  /**
+   * {@inheritDoc} Gli addendi vengono generati durante l'iterazione, nell'ordine del generatore.
+   *
+   * @throws NullPointerException durante l'iterazione, se il generatore restituisce un addendo
+   *     null
+   */
+  @Override
+  public Iterator<Nodo> iterator() {
+    Iterator<? extends Nodo> addendi =
+        Objects.requireNonNull(generatore.get(), "Il generatore non può restituire null");
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return addendi.hasNext();
+      }
+
+      @Override
+      public Nodo next() {
+        if (!addendi.hasNext()) throw new NoSuchElementException();
+        return Objects.requireNonNull(addendi.next(), "Ogni nodo figlio non può essere null");
+      }
+    };
+  }
+
+  @Override
+  NodoAddizione costruisci() {
+    List<Nodo> addendi = new ArrayList<>();
+    for (Nodo addendo : this) addendi.add(addendo);
+    return new NodoAddizione(addendi);
+  }
+
+  /**
+   * {@inheritDoc} Viene valutato il nodo equivalente, se indicato; altrimenti gli addendi vengono
+   * generati e sommati uno alla volta, senza costruire il NodoAddizione completo.
+   *
+   * @throws IllegalArgumentException se il generatore non restituisce alcun addendo
+   */
+  @Override
+  public NumeroRazionale evaluate() {
+    if (equivalente != null) return equivalente.evaluate();
+    Iterator<Nodo> addendi = iterator();
+    if (!addendi.hasNext())
+      throw new IllegalArgumentException(
+          "La lista di nodi figli non può essere vuota per i nodi interni");
+    NumeroRazionale risultato = addendi.next().evaluate();
+    while (addendi.hasNext()) risultato = risultato.addizione(addendi.next().evaluate());
+    return risultato;
+  }
+
+  /**
+   * {@inheritDoc} Viene valutato il nodo equivalente, se indicato; altrimenti gli addendi vengono
+   * generati e sommati uno alla volta, senza costruire il NodoAddizione completo.
+   *
+   * @throws IllegalArgumentException se il generatore non restituisce alcun addendo
+   */
+  @Override
+  public double valutaDouble(double[] valori) {
+    Objects.requireNonNull(valori, "I valori non possono essere null");
+    if (equivalente != null) return equivalente.valutaDouble(valori);
+    Iterator<Nodo> addendi = iterator();
+    if (!addendi.hasNext())
+      throw new IllegalArgumentException(
+          "La lista di nodi figli non può essere vuota per i nodi interni");
+    double somma = 0;
+    while (addendi.hasNext()) somma += addendi.next().valutaDouble(valori);
+    return somma;
+  }
+}
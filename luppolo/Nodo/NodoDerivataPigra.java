@@ -0,0 +1,343 @@
+package luppolo.Nodo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import luppolo.Manipolazione.DerivataVisitor;
+
+/**
+ * OVERVIEW: La classe rappresenta in modo immutabile la derivata di un nodo rispetto a una
+ * variabile, senza costruirla. La derivata viene valutata in modalità forward, propagando insieme
+ * a ogni valore la sua derivata, quindi senza costruire alcun nodo. Il nodo materializzato è
+ * quello restituito da DerivataVisitor senza semplificazione locale, che ha lo stesso tipo di
+ * questo nodo: addizione per le derivate di addizioni e moltiplicazioni, moltiplicazione per le
+ * derivate di potenze.
+ */
+public class NodoDerivataPigra extends NodoPigro implements Iterable<Nodo> {
+
+  /**
+   * AF: Il nodo rappresenta la derivata di funzione rispetto a variabile, cioè
+   * funzione.accept(derivata). IR: funzione != null e non è una foglia, derivata != null,
+   * indiceVariabile è l'indice della lettera variabile, o -1 se variabile non è una lettera
+   */
+
+  /** Il nodo da derivare */
+  private final Nodo funzione;
+
+  /** Il visitor che costruisce la derivata */
+  private final DerivataVisitor derivata;
+
+  /** La variabile secondo cui derivare */
+  private final String variabile;
+
+  /** L'indice della variabile nei valori, o -1 se nessun simbolo coincide con la variabile */
+  private final int indiceVariabile;
+
+  private NodoDerivataPigra(Nodo funzione, String variabile) {
+    super(
+        funzione.getTipoNodo() == EnumNodo.POTENZA
+            ? EnumNodo.MOLTIPLICAZIONE
+            : EnumNodo.ADDIZIONE);
+    this.funzione = funzione;
+    this.derivata = new DerivataVisitor(variabile);
+    this.variabile = variabile;
+    this.indiceVariabile = variabile.length() == 1 ? variabile.charAt(0) - 'a' : -1;
+  }
+
+  /**
+   * Metodo che restituisce la derivata di un nodo rispetto a una variabile, rinviandone la
+   * costruzione se il nodo non è una foglia
+   *
+   * @param funzione il nodo da derivare
+   * @param variabile la variabile secondo cui derivare
+   * @return la derivata della foglia, o un nodo pigro che rappresenta la derivata
+   * @throws NullPointerException se il nodo o la variabile sono null
+   * @throws IllegalArgumentException se la variabile è vuota o non è definita nel dominio {a-z}
+   */
+  public static Nodo derivata(Nodo funzione, String variabile) {
+    Objects.requireNonNull(funzione, "Il nodo da derivare non può essere null");
+    switch (funzione.getTipoNodo()) {
+      case RAZIONALE:
+      case SIMBOLO:
+        return funzione.accept(new DerivataVisitor(variabile));
+      default:
+        return new NodoDerivataPigra(funzione, variabile);
+    }
+  }
+
+  /**
+   * Metodo che restituisce il nodo derivato
+   *
+   * @return il nodo derivato
+   */
+  public Nodo getFunzione() {
+    return funzione;
+  }
+
+  /**
+   * Metodo che restituisce la variabile secondo cui si deriva
+   *
+   * @return la variabile
+   */
+  public String getVariabile() {
+    return variabile;
+  }
+
+  @Override
+  Nodo costruisci() {
+    return funzione.accept(derivata);
+  }
+
+  /**
+   * {@inheritDoc} I figli vengono generati durante l'iterazione: per la derivata di un'addizione
+   * sono le derivate pigre degli addendi, per quella di una moltiplicazione i termini della regola
+   * del prodotto, per quella di una potenza i tre fattori della regola della potenza.
+   */
+  @Override
+  public Iterator<Nodo> iterator() {
+    switch (funzione.getTipoNodo()) {
+      case ADDIZIONE:
+        @SuppressWarnings("unchecked")
+        Iterator<Nodo> addendi = ((Iterable<Nodo>) funzione).iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return addendi.hasNext();
+          }
+
+          @Override
+          public Nodo next() {
+            return derivata(addendi.next(), variabile);
+          }
+        };
+      case MOLTIPLICAZIONE:
+        List<Nodo> fattori = funzione.getFigliNodo();
+        return new Iterator<>() {
+          private int prossimo = 0;
+
+          @Override
+          public boolean hasNext() {
+            return prossimo < fattori.size();
+          }
+
+          @Override
+          public Nodo next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return termineProdotto(fattori, prossimo++);
+          }
+        };
+      default:
+        NodoPotenza potenza = (NodoPotenza) funzione;
+        NumeroRazionale esponente = potenza.getEsponenteValore();
+        Nodo ridotta =
+            new NodoPotenza(
+                potenza.getBase(),
+                new FogliaRazionale(esponente.sottrazione(NumeroRazionale.UNO)));
+        return new Iterator<>() {
+          private int prossimo = 0;
+
+          @Override
+          public boolean hasNext() {
+            return prossimo < 3;
+          }
+
+          @Override
+          public Nodo next() {
+            switch (prossimo++) {
+              case 0:
+                return ridotta;
+              case 1:
+                return potenza.getEsponente();
+              case 2:
+                return potenza.getBase().accept(derivata);
+              default:
+                throw new NoSuchElementException();
+            }
+          }
+        };
+    }
+  }
+
+  /**
+   * Metodo che costruisce il termine della regola del prodotto in cui viene derivato un fattore
+   *
+   * @param fattori i fattori del prodotto
+   * @param indice l'indice del fattore derivato
+   * @return il prodotto degli altri fattori e della derivata del fattore
+   */
+  private Nodo termineProdotto(List<Nodo> fattori, int indice) {
+    Nodo[] termine = new Nodo[fattori.size()];
+    int k = 0;
+    for (int j = 0; j < fattori.size(); j++) {
+      if (j != indice) termine[k++] = fattori.get(j);
+    }
+    termine[k] = fattori.get(indice).accept(derivata);
+    return new NodoMoltiplicazione(List.of(termine));
+  }
+
+  /**
+   * {@inheritDoc} La derivata viene valutata sulla funzione, senza costruirla.
+   *
+   * @throws UnsupportedOperationException se la derivata costruita contiene un simbolo da valutare
+   *     o una potenza con risultato non razionale
+   */
+  @Override
+  public NumeroRazionale evaluate() {
+    return derivataEsatta(funzione);
+  }
+
+  /**
+   * {@inheritDoc} La derivata viene valutata in modalità forward, senza costruirla; viene allocato
+   * un solo array per l'intera valutazione.
+   */
+  @Override
+  public double valutaDouble(double[] valori) {
+    Objects.requireNonNull(valori, "I valori non possono essere null");
+    double[] derivataNodo = new double[1];
+    duale(funzione, valori, derivataNodo);
+    return derivataNodo[0];
+  }
+
+  /**
+   * Metodo che valuta in virgola mobile un nodo e la sua derivata rispetto alla variabile
+   *
+   * @param nodo il nodo
+   * @param valori i valori delle variabili
+   * @param derivataNodo l'array in cui scrivere in posizione 0 il valore della derivata
+   * @return il valore del nodo
+   */
+  private double duale(Nodo nodo, double[] valori, double[] derivataNodo) {
+    if (nodo instanceof NodoDerivataPigra) nodo = ((NodoDerivataPigra) nodo).materializza();
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        derivataNodo[0] = 0;
+        return nodo.valutaDouble(valori);
+      case SIMBOLO:
+        derivataNodo[0] = nodo.getValoreNodo().charAt(0) - 'a' == indiceVariabile ? 1 : 0;
+        return nodo.valutaDouble(valori);
+      case ADDIZIONE:
+        {
+          double valore = 0;
+          double derivataSomma = 0;
+          for (Nodo addendo : figli(nodo)) {
+            valore += duale(addendo, valori, derivataNodo);
+            derivataSomma += derivataNodo[0];
+          }
+          derivataNodo[0] = derivataSomma;
+          return valore;
+        }
+      case MOLTIPLICAZIONE:
+        {
+          double valore = 1;
+          double derivataProdotto = 0;
+          for (Nodo fattore : figli(nodo)) {
+            double valoreFattore = duale(fattore, valori, derivataNodo);
+            derivataProdotto = derivataProdotto * valoreFattore + valore * derivataNodo[0];
+            valore *= valoreFattore;
+          }
+          derivataNodo[0] = derivataProdotto;
+          return valore;
+        }
+      default:
+        {
+          NodoPotenza potenza = (NodoPotenza) nodo;
+          NumeroRazionale esponente = potenza.getEsponenteValore();
+          double base = duale(potenza.getBase(), valori, derivataNodo);
+          long p = esponente.getNumeratore();
+          long q = esponente.getDenominatore();
+          derivataNodo[0] *= potenzaReale(base, p - q, q) * p / q;
+          return potenzaReale(base, p, q);
+        }
+    }
+  }
+
+  /**
+   * Metodo che valuta esattamente la derivata di un nodo rispetto alla variabile, valutando i
+   * nodi solo dove la derivata costruita li valuterebbe: nei prodotti di più fattori e nelle
+   * basi delle potenze
+   *
+   * @param nodo il nodo
+   * @return il valore della derivata del nodo
+   * @throws UnsupportedOperationException se la derivata costruita non potrebbe essere valutata
+   */
+  private NumeroRazionale derivataEsatta(Nodo nodo) {
+    if (nodo instanceof NodoDerivataPigra) nodo = ((NodoDerivataPigra) nodo).materializza();
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        return NumeroRazionale.ZERO;
+      case SIMBOLO:
+        return nodo.getValoreNodo().equals(variabile) ? NumeroRazionale.UNO : NumeroRazionale.ZERO;
+      case ADDIZIONE:
+        {
+          NumeroRazionale derivataSomma = NumeroRazionale.ZERO;
+          for (Nodo addendo : figli(nodo)) {
+            derivataSomma = derivataSomma.addizione(derivataEsatta(addendo));
+          }
+          return derivataSomma;
+        }
+      case MOLTIPLICAZIONE:
+        {
+          List<Nodo> fattori = new ArrayList<>();
+          for (Nodo fattore : figli(nodo)) fattori.add(fattore);
+          if (fattori.size() == 1) return derivataEsatta(fattori.get(0));
+          NumeroRazionale valore = NumeroRazionale.UNO;
+          NumeroRazionale derivataProdotto = NumeroRazionale.ZERO;
+          for (Nodo fattore : fattori) {
+            NumeroRazionale valoreFattore = fattore.evaluate();
+            derivataProdotto =
+                derivataProdotto
+                    .moltiplicazione(valoreFattore)
+                    .addizione(valore.moltiplicazione(derivataEsatta(fattore)));
+            valore = valore.moltiplicazione(valoreFattore);
+          }
+          return derivataProdotto;
+        }
+      default:
+        {
+          NodoPotenza potenza = (NodoPotenza) nodo;
+          NumeroRazionale esponente = potenza.getEsponenteValore();
+          Nodo ridotta =
+              potenza
+                  .getBase()
+                  .evaluate()
+                  .potenzaReturnNodo(esponente.sottrazione(NumeroRazionale.UNO));
+          if (ridotta.getTipoNodo() != EnumNodo.RAZIONALE)
+            throw new UnsupportedOperationException(
+                "La derivata di " + potenza + " non ha un valore razionale rappresentabile");
+          return ridotta
+              .evaluate()
+              .moltiplicazione(derivataEsatta(potenza.getBase()))
+              .moltiplicazione(esponente);
+        }
+    }
+  }
+
+  /**
+   * Metodo che restituisce i figli di un nodo addizione o moltiplicazione, senza materializzare i
+   * nodi pigri che sanno generarli
+   *
+   * @param nodo il nodo
+   * @return i figli del nodo
+   */
+  @SuppressWarnings("unchecked")
+  private static Iterable<Nodo> figli(Nodo nodo) {
+    return nodo instanceof Iterable ? (Iterable<Nodo>) nodo : nodo.getFigliNodo();
+  }
+
+  /**
+   * Metodo che calcola la potenza reale di una base con esponente p / q, come NodoPotenza
+   *
+   * @param base la base
+   * @param p il numeratore dell'esponente
+   * @param q il denominatore positivo dell'esponente
+   * @return la potenza, o NaN se non è reale
+   */
+  private static double potenzaReale(double base, long p, long q) {
+    if (q == 1) return Math.pow(base, p);
+    if (base >= 0 || q % 2 == 0) return Math.pow(base, (double) p / q);
+    double modulo = Math.pow(-base, (double) p / q);
+    return p % 2 == 0 ? modulo : -modulo;
+  }
+}
@@ -2,6 +2,7 @@ package luppolo.Nodo;
 
 import java.util.*;
 import luppolo.Manipolazione.Visitor;
+import luppolo.Rappresentazione.ScrittoreEspressione;
 
 /**
  * OVERVIEW: La classe NodoMoltiplicazione è immutabile ed estende la classe astratta Nodo,
@@ -21,8 +22,13 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
   /* I figli (fattori) del nodo */
   private final List<Nodo> fattori;
 
+  /** L'impronta strutturale del nodo */
+  private final long impronta;
+
   /**
-   * Metodo che costruisce un nodo a partire da una lista di nodi
+   * Metodo che costruisce un nodo a partire da una lista di nodi. I fattori vengono ordinati solo
+   * se non sono già in ordine canonico, cosa che si verifica con un confronto per coppia di figli
+   * adiacenti
    *
    * @param fattori lista di nodi figli del nodo this
    * @throws NullPointerException se la lista di nodi fattori è null
@@ -35,17 +41,28 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
     if (fattori.isEmpty())
       throw new IllegalArgumentException(
           "La lista di nodi figli non può essere vuota per i nodi interni");
-    for (Nodo nodo : fattori) {
-      Objects.requireNonNull(nodo, "Ogni nodo figlio non può essere null");
-    }
-    List<Nodo> tmp = new ArrayList<>(fattori);
-    Collections.sort(tmp);
-    this.fattori = new ArrayList<>(tmp);
+    this.fattori = Ordinamento.canonica(fattori);
+    this.impronta = Impronta.interno(EnumNodo.MOLTIPLICAZIONE, this.fattori);
+  }
+
+  /**
+   * Metodo che costruisce un nodo moltiplicazione a partire da più sequenze di fattori. Le
+   * sequenze già in ordine canonico, come i figli di un altro nodo, vengono fuse senza essere
+   * ordinate di nuovo
+   *
+   * @param sequenze le sequenze di fattori
+   * @return il nodo moltiplicazione con tutti i fattori delle sequenze
+   * @throws NullPointerException se la lista, una sequenza o uno dei fattori sono null
+   * @throws IllegalArgumentException se le sequenze non contengono alcun nodo
+   */
+  public static NodoMoltiplicazione fondi(List<? extends List<? extends Nodo>> sequenze) {
+    Objects.requireNonNull(sequenze, "La lista delle sequenze di figli non può essere null");
+    return new NodoMoltiplicazione(Ordinamento.fondi(sequenze));
   }
 
   @Override
   protected int compareToStessoTipoNodo(Nodo other) {
-    NodoMoltiplicazione o = (NodoMoltiplicazione) other;
+    NodoMoltiplicazione o = (NodoMoltiplicazione) NodoPigro.nonPigro(other);
     int len = Math.min(this.fattori.size(), o.fattori.size());
     for (int i = 0; i < len; i++) {
       int confronto = this.fattori.get(i).compareTo(o.fattori.get(i));
@@ -77,17 +94,7 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
 
   @Override
   public String toString() {
-    StringBuilder sb = new StringBuilder();
-    sb.append(getValoreNodo());
-    sb.append("(");
-    for (int i = 0; i <= fattori.size() - 1; i++) {
-      sb.append(fattori.get(i).toString());
-      if (i < fattori.size() - 1) {
-        sb.append(", ");
-      }
-    }
-    sb.append(")");
-    return sb.toString();
+    return ScrittoreEspressione.funzionale(this);
   }
 
   @Override
@@ -97,13 +104,7 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
 
   @Override
   public List<Nodo> getFigliNodo() {
-    Iterator<Nodo> io = iterator();
-    List<Nodo> tmp = new ArrayList<>();
-    while (io.hasNext()) {
-      tmp.add(io.next());
-    }
-    Collections.sort(tmp);
-    return tmp;
+    return new ArrayList<>(fattori);
   }
 
   @Override
@@ -114,14 +115,21 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
+    if (o instanceof NodoPigro) return equals(((NodoPigro) o).materializza());
     if (o == null || getClass() != o.getClass()) return false;
     NodoMoltiplicazione nodes = (NodoMoltiplicazione) o;
+    if (impronta != nodes.impronta) return false;
     return Objects.equals(fattori, nodes.fattori);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(fattori);
+    return Long.hashCode(impronta);
+  }
+
+  @Override
+  public long getImpronta() {
+    return impronta;
   }
 
   @Override
@@ -132,4 +140,13 @@ public class NodoMoltiplicazione extends Nodo implements Iterable<Nodo> {
     }
     return risultato;
   }
+
+  @Override
+  public double valutaDouble(double[] valori) {
+    double prodotto = 1;
+    for (int i = 0; i < fattori.size(); i++) {
+      prodotto *= fattori.get(i).valutaDouble(valori);
+    }
+    return prodotto;
+  }
 }
@@ -0,0 +1,121 @@
+package luppolo.Nodo;
+
+import java.util.List;
+import luppolo.Manipolazione.Visitor;
+
+/**
+ * OVERVIEW: La classe astratta definisce nodi immutabili il cui albero viene costruito solo quando
+ * serve. Un nodo pigro può essere valutato o percorso senza costruire l'albero completo, mentre
+ * le operazioni che dipendono dalla sua struttura, come il confronto, l'impronta, i figli e le
+ * visite, lo materializzano una sola volta e usano il nodo costruito. Un nodo pigro è uguale al
+ * nodo che materializza.
+ *
+ * <p>I nodi pigri sono sempre di tipo addizione o moltiplicazione.
+ */
+public abstract class NodoPigro extends Nodo {
+
+  /**
+   * AF: Il nodo rappresenta il nodo restituito da costruisci(), che viene conservato in
+   * materializzato dopo la prima costruzione. IR: il tipo del nodo è ADDIZIONE o
+   * MOLTIPLICAZIONE, se materializzato != null ha lo stesso tipo del nodo e non è un nodo pigro
+   */
+
+  /** Il nodo costruito, o null se non è ancora stato costruito */
+  private volatile Nodo materializzato;
+
+  /**
+   * Inizializza il tipo del nodo pigro
+   *
+   * @param tipoNodo il tipo del nodo, ADDIZIONE o MOLTIPLICAZIONE
+   * @throws NullPointerException se il tipo è null
+   * @throws IllegalArgumentException se il tipo non è ADDIZIONE o MOLTIPLICAZIONE
+   */
+  NodoPigro(EnumNodo tipoNodo) {
+    super(tipoNodo);
+    if (tipoNodo != EnumNodo.ADDIZIONE && tipoNodo != EnumNodo.MOLTIPLICAZIONE)
+      throw new IllegalArgumentException("Un nodo pigro deve essere un'addizione o un prodotto");
+  }
+
+  /**
+   * Metodo che costruisce l'albero completo rappresentato dal nodo
+   *
+   * @return il nodo costruito, dello stesso tipo di this e non pigro
+   */
+  abstract Nodo costruisci();
+
+  /**
+   * Metodo che restituisce l'albero completo rappresentato dal nodo, costruendolo alla prima
+   * chiamata
+   *
+   * @return il nodo costruito
+   */
+  public final Nodo materializza() {
+    Nodo nodo = materializzato;
+    if (nodo == null) {
+      nodo = costruisci();
+      materializzato = nodo;
+    }
+    return nodo;
+  }
+
+  /**
+   * Metodo che stabilisce se l'albero completo è già stato costruito
+   *
+   * @return true se il nodo è già stato materializzato, false altrimenti
+   */
+  public boolean isMaterializzato() {
+    return materializzato != null;
+  }
+
+  /**
+   * Metodo che restituisce il nodo costruito da un nodo pigro, o il nodo stesso se non è pigro
+   *
+   * @param nodo il nodo
+   * @return il nodo non pigro equivalente
+   */
+  static Nodo nonPigro(Nodo nodo) {
+    return nodo instanceof NodoPigro ? ((NodoPigro) nodo).materializza() : nodo;
+  }
+
+  @Override
+  int compareToStessoTipoNodo(Nodo other) {
+    return materializza().compareToStessoTipoNodo(nonPigro(other));
+  }
+
+  @Override
+  public String getValoreNodo() {
+    return getTipoNodo() == EnumNodo.ADDIZIONE ? "+" : "*";
+  }
+
+  @Override
+  public List<Nodo> getFigliNodo() {
+    return materializza().getFigliNodo();
+  }
+
+  @Override
+  public long getImpronta() {
+    return materializza().getImpronta();
+  }
+
+  @Override
+  public Nodo accept(Visitor visitor) {
+    return materializza().accept(visitor);
+  }
+
+  @Override
+  public String toString() {
+    return materializza().toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Nodo)) return false;
+    return materializza().equals(nonPigro((Nodo) o));
+  }
+
+  @Override
+  public int hashCode() {
+    return materializza().hashCode();
+  }
+}
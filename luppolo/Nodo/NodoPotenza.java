@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import luppolo.Manipolazione.Visitor;
+import luppolo.Rappresentazione.ScrittoreEspressione;
 
 /**
  * OVERVIEW: La classe NodoPotenza è immutabile ed estende la classe astratta Nodo, rappresentando
@@ -23,6 +24,9 @@ public class NodoPotenza extends Nodo {
   /** Figlio che rappresenta il nodo esponente del nodo potenza */
   private final FogliaRazionale esponente;
 
+  /** L'impronta strutturale del nodo */
+  private final long impronta;
+
   /**
    * Metodo che costruisce un nodo a partire da un nodo base e da un nodo esponente
    *
@@ -37,6 +41,7 @@ public class NodoPotenza extends Nodo {
     Objects.requireNonNull(esponente, "Il nodo esponente non può essere null");
     this.base = base;
     this.esponente = esponente;
+    this.impronta = Impronta.potenza(base, esponente);
   }
 
   /**
@@ -68,7 +73,7 @@ public class NodoPotenza extends Nodo {
 
   @Override
   public String toString() {
-    return "^(" + base.toString() + ", " + esponente.toString() + ")";
+    return ScrittoreEspressione.funzionale(this);
   }
 
   @Override
@@ -102,12 +107,18 @@ public class NodoPotenza extends Nodo {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     NodoPotenza that = (NodoPotenza) o;
+    if (impronta != that.impronta) return false;
     return Objects.equals(base, that.base) && Objects.equals(esponente, that.esponente);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(base);
+    return Long.hashCode(impronta);
+  }
+
+  @Override
+  public long getImpronta() {
+    return impronta;
   }
 
   @Override
@@ -115,6 +126,21 @@ public class NodoPotenza extends Nodo {
     NumeroRazionale baseValue = base.evaluate();
     NumeroRazionale esponenteValue = esponente.evaluate();
     Nodo nodo = baseValue.potenzaReturnNodo(esponenteValue);
+    if (nodo.getTipoNodo() != EnumNodo.RAZIONALE)
+      throw new UnsupportedOperationException(
+          "La potenza " + this + " non ha un valore razionale rappresentabile");
     return nodo.evaluate();
   }
+
+  @Override
+  public double valutaDouble(double[] valori) {
+    double valoreBase = base.valutaDouble(valori);
+    long numeratore = esponente.getNumeratore();
+    long denominatore = esponente.getDenominatore();
+    if (denominatore == 1) return Math.pow(valoreBase, numeratore);
+    if (valoreBase >= 0 || denominatore % 2 == 0)
+      return Math.pow(valoreBase, (double) numeratore / denominatore);
+    double modulo = Math.pow(-valoreBase, (double) numeratore / denominatore);
+    return numeratore % 2 == 0 ? modulo : -modulo;
+  }
 }
@@ -50,9 +50,11 @@ public class NumeroRazionale {
    * li divide per l'mcd stesso semplificandoli.
    */
   private void semplifica() {
-    int mcd = mcd(Math.abs((int) numeratore), (int) denominatore);
-    numeratore /= mcd;
-    denominatore /= mcd;
+    long mcd = mcdLong(Math.abs(numeratore), denominatore);
+    if (mcd > 1) {
+      numeratore /= mcd;
+      denominatore /= mcd;
+    }
   }
 
   /**
@@ -84,6 +86,78 @@ public class NumeroRazionale {
     return b == 0 ? a : mcd(b, a % b);
   }
 
+  /**
+   * Restituisce il massimo comun divisore di due long non negativi, calcolato senza ricorsione
+   *
+   * @param a primo numero
+   * @param b secondo numero
+   * @return a se b = 0 altrimenti mcd(a, b)
+   */
+  public static long mcdLong(long a, long b) {
+    while (b != 0) {
+      long resto = a % b;
+      a = b;
+      b = resto;
+    }
+    return a;
+  }
+
+  /**
+   * Restituisce la potenza esatta di un long con esponente naturale, calcolata per quadrati
+   * successivi
+   *
+   * @param base la base
+   * @param esponente l'esponente, non negativo
+   * @return base^esponente
+   * @throws ArithmeticException se il risultato non è rappresentabile come long
+   */
+  private static long potenzaEsatta(long base, long esponente) {
+    if (base == 0 || base == 1) return esponente == 0 ? 1 : base;
+    long risultato = 1;
+    while (true) {
+      if ((esponente & 1) == 1) risultato = Math.multiplyExact(risultato, base);
+      esponente >>= 1;
+      if (esponente == 0) return risultato;
+      base = Math.multiplyExact(base, base);
+    }
+  }
+
+  /**
+   * Restituisce la radice k-esima esatta di un long non negativo, calcolata con il metodo di
+   * Newton sugli interi
+   *
+   * @param a il radicando, non negativo
+   * @param k l'indice della radice, positivo
+   * @return la radice k-esima di a se a è una potenza k-esima perfetta, -1 altrimenti
+   */
+  private static long radiceEsatta(long a, long k) {
+    if (a < 2 || k == 1) return a;
+    if (k >= Long.SIZE - 1) return -1;
+    int bit = Long.SIZE - Long.numberOfLeadingZeros(a);
+    long x = 1L << ((bit + k - 1) / k);
+    while (true) {
+      long y = ((k - 1) * x + a / potenzaSatura(x, k - 1)) / k;
+      if (y >= x) break;
+      x = y;
+    }
+    return potenzaSatura(x, k) == a ? x : -1;
+  }
+
+  /**
+   * Restituisce la potenza di un long positivo con esponente naturale, saturata a Long.MAX_VALUE
+   *
+   * @param base la base, positiva
+   * @param esponente l'esponente, non negativo
+   * @return base^esponente, o Long.MAX_VALUE se il risultato non è rappresentabile
+   */
+  private static long potenzaSatura(long base, long esponente) {
+    try {
+      return potenzaEsatta(base, esponente);
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
   /**
    * Metodo che restituisce un numero razionale che è dtao dalla somma di this e un altro numero
    * razionale
@@ -114,6 +188,46 @@ public class NumeroRazionale {
         this.numeratore * altro.numeratore, this.denominatore * altro.denominatore);
   }
 
+  /**
+   * Metodo che restituisce la somma di this e un altro numero razionale, calcolata sul minimo
+   * comune multiplo dei denominatori e controllando che nessun risultato intermedio superi i limiti
+   * dei long
+   *
+   * @param altro numero razionale da sommare
+   * @return la somma dei due numeri
+   * @throws NullPointerException se il numero da sommare è null
+   * @throws ArithmeticException se la somma supera i limiti dei long
+   */
+  public NumeroRazionale addizioneEsatta(NumeroRazionale altro) {
+    Objects.requireNonNull(altro, "Il numero da sommare non può essere null");
+    long mcd = mcdLong(this.denominatore, altro.denominatore);
+    long fattoreThis = altro.denominatore / mcd;
+    long fattoreAltro = this.denominatore / mcd;
+    return new NumeroRazionale(
+        Math.addExact(
+            Math.multiplyExact(this.numeratore, fattoreThis),
+            Math.multiplyExact(altro.numeratore, fattoreAltro)),
+        Math.multiplyExact(this.denominatore, fattoreThis));
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di this e un altro numero razionale, semplificando in croce
+   * prima di moltiplicare e controllando che il risultato non superi i limiti dei long
+   *
+   * @param altro numero razionale da moltiplicare
+   * @return il prodotto dei due numeri
+   * @throws NullPointerException se il numero da moltiplicare è null
+   * @throws ArithmeticException se il prodotto supera i limiti dei long
+   */
+  public NumeroRazionale moltiplicazioneEsatta(NumeroRazionale altro) {
+    Objects.requireNonNull(altro, "Il numero da moltiplicare non può essere null");
+    long mcdThisAltro = mcdLong(Math.absExact(this.numeratore), altro.denominatore);
+    long mcdAltroThis = mcdLong(Math.absExact(altro.numeratore), this.denominatore);
+    return new NumeroRazionale(
+        Math.multiplyExact(this.numeratore / mcdThisAltro, altro.numeratore / mcdAltroThis),
+        Math.multiplyExact(this.denominatore / mcdAltroThis, altro.denominatore / mcdThisAltro));
+  }
+
   /**
    * Metodo che restituisce un numero razionale che è daato dalla sottrazione di this e un altro
    * numero razionale
@@ -174,23 +288,28 @@ public class NumeroRazionale {
       numeratore = denominatore;
       denominatore = temp;
     }
-    double radiceNumeratore = Math.pow(numeratore, 1.0 / expDenominatore);
-    double radiceDenominatore = Math.pow(denominatore, 1.0 / expDenominatore);
-    double potenzaNumeratore = Math.pow(radiceNumeratore, expNumeratore);
-    double potenzaDenominatore = Math.pow(radiceDenominatore, expNumeratore);
+    long radiceNumeratore = radiceEsatta(numeratore, expDenominatore);
+    long radiceDenominatore = radiceEsatta(denominatore, expDenominatore);
+    long potenzaNumeratore = -1;
+    long potenzaDenominatore = -1;
+    if (radiceNumeratore >= 0 && radiceDenominatore >= 0) {
+      try {
+        potenzaNumeratore = potenzaEsatta(radiceNumeratore, expNumeratore);
+        potenzaDenominatore = potenzaEsatta(radiceDenominatore, expNumeratore);
+      } catch (ArithmeticException e) {
+        potenzaNumeratore = -1;
+      }
+    }
 
     if (isNegativeBase) {
       numeratore = -numeratore;
     }
 
-    if (isNegativeBase && expNumeratore % 2 != 0) {
-      potenzaNumeratore = -potenzaNumeratore;
-    }
-
-    if (Math.floor(potenzaNumeratore) == potenzaNumeratore
-        && Math.floor(potenzaDenominatore) == potenzaDenominatore) {
-      return new FogliaRazionale(
-          new NumeroRazionale((long) potenzaNumeratore, (long) potenzaDenominatore));
+    if (potenzaNumeratore >= 0 && potenzaDenominatore >= 0) {
+      if (isNegativeBase && expNumeratore % 2 != 0) {
+        potenzaNumeratore = -potenzaNumeratore;
+      }
+      return new FogliaRazionale(new NumeroRazionale(potenzaNumeratore, potenzaDenominatore));
     } else {
       if (isNegativeExponent) {
         return new NodoPotenza(
@@ -203,6 +322,40 @@ public class NumeroRazionale {
     }
   }
 
+  /**
+   * Metodo che restituisce il numero razionale approssimato in virgola mobile
+   *
+   * @return il double più vicino a numeratore / denominatore
+   */
+  public double doubleValue() {
+    return (double) numeratore / denominatore;
+  }
+
+  /**
+   * Metodo che restituisce il numero razionale uguale a un double, se rappresentabile con
+   * numeratore e denominatore long
+   *
+   * @param valore il double
+   * @return il numero razionale di valore esattamente uguale
+   * @throws IllegalArgumentException se il double non è finito o il suo valore esatto non è
+   *     rappresentabile
+   */
+  public static NumeroRazionale daDouble(double valore) {
+    if (!Double.isFinite(valore))
+      throw new IllegalArgumentException("Il valore " + valore + " non è un numero finito");
+    if (valore == Math.rint(valore) && Math.abs(valore) < 0x1p63)
+      return new NumeroRazionale((long) valore, 1);
+    int esponente = Math.getExponent(valore) - 52;
+    long mantissa = (long) Math.scalb(valore, -esponente);
+    int zeri = Long.numberOfTrailingZeros(mantissa);
+    mantissa >>= zeri;
+    esponente += zeri;
+    if (esponente >= 0 || -esponente > 62)
+      throw new IllegalArgumentException(
+          "Il valore " + valore + " non è rappresentabile come numero razionale");
+    return new NumeroRazionale(mantissa, 1L << -esponente);
+  }
+
   /**
    * Metodo che confronta due numeri razionali
    *
@@ -212,7 +365,7 @@ public class NumeroRazionale {
   public int compareTo(NumeroRazionale n1) {
     long sx = this.numeratore * n1.denominatore;
     long dx = n1.numeratore * this.denominatore;
-    return Integer.compare((int) sx, (int) dx);
+    return Long.compare(sx, dx);
   }
 
   @Override
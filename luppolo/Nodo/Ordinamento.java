@@ -0,0 +1,98 @@
+package luppolo.Nodo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * OVERVIEW: La classe non istanziabile porta le liste di figli dei nodi interni nell'ordine
+ * canonico. Una lista già ordinata viene riconosciuta con un solo confronto per coppia di figli
+ * adiacenti e copiata senza essere ordinata; più sequenze ordinate vengono fuse invece che
+ * ordinate di nuovo. Il risultato è sempre quello di un ordinamento stabile della concatenazione
+ * delle sequenze.
+ */
+final class Ordinamento {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private Ordinamento() {}
+
+  /**
+   * Metodo che restituisce una copia dei figli in ordine canonico, ordinandola solo se i figli non
+   * sono già ordinati
+   *
+   * @param figli i figli
+   * @return la nuova lista ordinata
+   * @throws NullPointerException se un figlio è null
+   */
+  static List<Nodo> canonica(List<? extends Nodo> figli) {
+    List<Nodo> copia = new ArrayList<>(figli.size());
+    for (Nodo figlio : figli) {
+      copia.add(Objects.requireNonNull(figlio, "Ogni nodo figlio non può essere null"));
+    }
+    if (!ordinata(copia)) Collections.sort(copia);
+    return copia;
+  }
+
+  /**
+   * Metodo che fonde più sequenze di figli in una sola lista in ordine canonico. Le sequenze già
+   * ordinate vengono fuse senza essere ordinate; le altre vengono prima ordinate singolarmente
+   *
+   * @param sequenze le sequenze di figli
+   * @return la nuova lista ordinata
+   * @throws NullPointerException se una sequenza o un figlio sono null
+   */
+  static List<Nodo> fondi(List<? extends List<? extends Nodo>> sequenze) {
+    List<List<Nodo>> ordinate = new ArrayList<>(sequenze.size());
+    for (List<? extends Nodo> sequenza : sequenze) {
+      Objects.requireNonNull(sequenza, "Ogni sequenza di figli non può essere null");
+      if (!sequenza.isEmpty()) ordinate.add(canonica(sequenza));
+    }
+    if (ordinate.isEmpty()) return new ArrayList<>();
+    while (ordinate.size() > 1) {
+      List<List<Nodo>> fuse = new ArrayList<>((ordinate.size() + 1) / 2);
+      for (int i = 0; i + 1 < ordinate.size(); i += 2) {
+        fuse.add(fondi(ordinate.get(i), ordinate.get(i + 1)));
+      }
+      if (ordinate.size() % 2 == 1) fuse.add(ordinate.get(ordinate.size() - 1));
+      ordinate = fuse;
+    }
+    return ordinate.get(0);
+  }
+
+  /**
+   * Metodo che stabilisce se una lista di figli è in ordine canonico
+   *
+   * @param figli i figli
+   * @return true se ogni figlio non è maggiore del successivo, false altrimenti
+   */
+  static boolean ordinata(List<Nodo> figli) {
+    for (int i = 1; i < figli.size(); i++) {
+      if (figli.get(i - 1).compareTo(figli.get(i)) > 0) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Metodo che fonde due sequenze ordinate, preferendo la prima a parità di confronto
+   *
+   * @param prima la prima sequenza
+   * @param seconda la seconda sequenza
+   * @return la nuova lista ordinata
+   */
+  private static List<Nodo> fondi(List<Nodo> prima, List<Nodo> seconda) {
+    List<Nodo> fusa = new ArrayList<>(prima.size() + seconda.size());
+    int i = 0;
+    int j = 0;
+    while (i < prima.size() && j < seconda.size()) {
+      if (prima.get(i).compareTo(seconda.get(j)) <= 0) {
+        fusa.add(prima.get(i++));
+      } else {
+        fusa.add(seconda.get(j++));
+      }
+    }
+    while (i < prima.size()) fusa.add(prima.get(i++));
+    while (j < seconda.size()) fusa.add(seconda.get(j++));
+    return fusa;
+  }
+}
@@ -0,0 +1,607 @@
+package luppolo.Ottimizzazione;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import luppolo.Manipolazione.Budget;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe rappresenta un e-grafo: un insieme di classi di equivalenza di nodi con i
+ * figli che sono a loro volta classi. I nodi sono condivisi tramite una tabella hash, le classi
+ * sono fuse con union-find e la congruenza è ripristinata in modo differito da ricostruisci. Ogni
+ * classe tiene traccia del suo valore costante, se noto, e in tal caso contiene la foglia
+ * razionale corrispondente. La saturazione applica le regole di commutatività, associatività,
+ * distribuzione, raccoglimento, potenze ed elementi neutri; l'estrazione restituisce l'albero di
+ * costo minimo per numero di operazioni.
+ */
+public class EGrafo {
+
+  /**
+   * AF: L'e-grafo con classi {classi[i] | padri[i] = i}, in cui il nodo n appartiene alla classe
+   * memo(n) e due classi i, j sono equivalenti se trova(i) = trova(j). IR: padri != null, memo !=
+   * null, classi != null, classi[i] != null se e solo se padri[i] = i, dopo ricostruisci ogni nodo
+   * in memo è canonico e nessuna coppia di nodi canonici uguali sta in classi diverse
+   */
+
+  /** Il padre di ogni identificatore nella foresta union-find */
+  private int[] padri = new int[16];
+
+  /** Il numero di identificatori assegnati */
+  private int numeroId;
+
+  /** La classe di ogni nodo */
+  private final Map<ENodo, Integer> memo = new HashMap<>();
+
+  /** Le classi, indicizzate per rappresentante; null per le classi fuse in altre */
+  private final List<Classe> classi = new ArrayList<>();
+
+  /** Le classi modificate dall'ultima ricostruzione */
+  private final List<Integer> daRiparare = new ArrayList<>();
+
+  /** Il numero di nodi oltre il quale la saturazione in corso smette di aggiungerne */
+  private int nodiMassimi = Integer.MAX_VALUE;
+
+  /**
+   * Metodo che aggiunge un albero all'e-grafo, riducendo addizioni e moltiplicazioni a catene di
+   * operazioni binarie
+   *
+   * @param nodo la radice dell'albero
+   * @return l'identificatore della classe della radice
+   * @throws NullPointerException se il nodo è null
+   */
+  public int aggiungi(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo da aggiungere non può essere null.");
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        return aggiungi(new ENodo(EnumNodo.RAZIONALE, nodo.evaluate()));
+      case SIMBOLO:
+        return aggiungi(new ENodo(EnumNodo.SIMBOLO, nodo.getValoreNodo()));
+      case POTENZA:
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        int base = aggiungi(potenza.getBase());
+        return aggiungi(new ENodo(EnumNodo.POTENZA, potenza.getEsponenteValore(), base));
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        int classe = aggiungi(figli.get(0));
+        for (int i = 1; i < figli.size(); i++) {
+          classe = aggiungi(new ENodo(nodo.getTipoNodo(), null, classe, aggiungi(figli.get(i))));
+        }
+        return classe;
+    }
+  }
+
+  /**
+   * Metodo che restituisce il rappresentante della classe di un identificatore
+   *
+   * @param id l'identificatore
+   * @return il rappresentante
+   * @throws IllegalArgumentException se l'identificatore non è stato assegnato
+   */
+  public int trova(int id) {
+    if (id < 0 || id >= numeroId)
+      throw new IllegalArgumentException("Identificatore di classe non valido: " + id);
+    while (padri[id] != id) {
+      padri[id] = padri[padri[id]];
+      id = padri[id];
+    }
+    return id;
+  }
+
+  /**
+   * Metodo che fonde due classi. La congruenza va ripristinata con ricostruisci.
+   *
+   * @param a l'identificatore della prima classe
+   * @param b l'identificatore della seconda classe
+   * @return true se le classi erano distinte, false altrimenti
+   * @throws IllegalArgumentException se uno degli identificatori non è stato assegnato
+   */
+  public boolean unisci(int a, int b) {
+    a = trova(a);
+    b = trova(b);
+    if (a == b) return false;
+    Classe prima = classi.get(a);
+    Classe seconda = classi.get(b);
+    if (prima.nodi.size() + prima.genitori.size() < seconda.nodi.size() + seconda.genitori.size()) {
+      Classe temp = prima;
+      prima = seconda;
+      seconda = temp;
+    }
+    padri[seconda.id] = prima.id;
+    classi.set(seconda.id, null);
+    prima.nodi.addAll(seconda.nodi);
+    prima.genitori.addAll(seconda.genitori);
+    if (prima.costante == null) prima.costante = seconda.costante;
+    daRiparare.add(prima.id);
+    return true;
+  }
+
+  /**
+   * Metodo mutazionale che ripristina la congruenza dopo una serie di fusioni: i nodi uguali a
+   * meno dei rappresentanti dei figli finiscono nella stessa classe.
+   */
+  public void ricostruisci() {
+    while (!daRiparare.isEmpty()) {
+      Set<Integer> classiDaRiparare = new LinkedHashSet<>();
+      for (int id : daRiparare) classiDaRiparare.add(trova(id));
+      daRiparare.clear();
+      for (int id : classiDaRiparare) ripara(trova(id));
+    }
+  }
+
+  /**
+   * Metodo che restituisce il numero di nodi distinti dell'e-grafo
+   *
+   * @return il numero di nodi
+   */
+  public int getNumeroNodi() {
+    return memo.size();
+  }
+
+  /**
+   * Metodo che restituisce il numero di classi di equivalenza dell'e-grafo
+   *
+   * @return il numero di classi
+   */
+  public int getNumeroClassi() {
+    int numero = 0;
+    for (Classe classe : classi) {
+      if (classe != null) numero++;
+    }
+    return numero;
+  }
+
+  /**
+   * Metodo che applica le regole finché l'e-grafo smette di cambiare o si raggiunge uno dei
+   * limiti. L'e-grafo resta corretto anche se la saturazione viene interrotta da un limite.
+   *
+   * @param iterazioniMassime il numero massimo di iterazioni
+   * @param nodiMassimi il numero di nodi oltre il quale la saturazione si ferma
+   * @param budget il budget, a cui ogni iterazione addebita i nodi aggiunti
+   * @return il numero di iterazioni eseguite
+   * @throws NullPointerException se il budget è null
+   * @throws IllegalArgumentException se uno dei limiti non è positivo
+   * @throws luppolo.Manipolazione.LimiteSuperatoException se il budget viene superato
+   * @throws java.util.concurrent.CancellationException se la saturazione viene cancellata
+   */
+  public int satura(int iterazioniMassime, int nodiMassimi, Budget budget) {
+    Objects.requireNonNull(budget, "Il budget non può essere null.");
+    if (iterazioniMassime <= 0 || nodiMassimi <= 0)
+      throw new IllegalArgumentException("I limiti della saturazione devono essere positivi.");
+    this.nodiMassimi = nodiMassimi;
+    ricostruisci();
+    for (int iterazione = 1; iterazione <= iterazioniMassime; iterazione++) {
+      int nodiPrima = memo.size();
+      int classiPrima = getNumeroClassi();
+      List<Integer> ids = new ArrayList<>();
+      List<ENodo> nodi = new ArrayList<>();
+      for (Classe classe : classi) {
+        if (classe == null || classe.costante != null) continue;
+        for (ENodo nodo : classe.nodi) {
+          ids.add(classe.id);
+          nodi.add(nodo);
+        }
+      }
+      for (int i = 0; i < nodi.size() && !pieno(); i++) {
+        applicaRegole(trova(ids.get(i)), nodi.get(i).canonico(this));
+      }
+      ricostruisci();
+      budget.consuma(Math.max(memo.size() - nodiPrima, 0));
+      boolean saturo = memo.size() == nodiPrima && getNumeroClassi() == classiPrima;
+      if (saturo || pieno()) return iterazione;
+    }
+    return iterazioniMassime;
+  }
+
+  /**
+   * Metodo che stabilisce se la saturazione in corso ha raggiunto il limite di nodi
+   *
+   * @return true se il limite è raggiunto, false altrimenti
+   */
+  private boolean pieno() {
+    return memo.size() >= nodiMassimi;
+  }
+
+  /**
+   * Metodo che estrae dalla classe di un identificatore l'albero con il minor numero di operazioni,
+   * ricomponendo le catene di addizioni e moltiplicazioni in nodi con più figli
+   *
+   * @param id l'identificatore della classe
+   * @return l'albero estratto
+   * @throws IllegalArgumentException se l'identificatore non è stato assegnato
+   */
+  public Nodo estrai(int id) {
+    ricostruisci();
+    long[] costi = new long[numeroId];
+    ENodo[] migliori = new ENodo[numeroId];
+    Arrays.fill(costi, Long.MAX_VALUE);
+    boolean cambiato = true;
+    while (cambiato) {
+      cambiato = false;
+      for (Classe classe : classi) {
+        if (classe == null) continue;
+        for (ENodo nodo : classe.nodi) {
+          long costo = costo(nodo, costi);
+          if (costo < costi[classe.id]) {
+            costi[classe.id] = costo;
+            migliori[classe.id] = nodo;
+            cambiato = true;
+          }
+        }
+      }
+    }
+    return costruisci(trova(id), migliori, new HashMap<>());
+  }
+
+  /**
+   * Metodo che aggiunge un nodo all'e-grafo, se non è già presente
+   *
+   * @param nodo il nodo
+   * @return l'identificatore della classe del nodo
+   */
+  private int aggiungi(ENodo nodo) {
+    nodo = nodo.canonico(this);
+    Integer esistente = memo.get(nodo);
+    if (esistente != null) return trova(esistente);
+    if (numeroId == padri.length) padri = Arrays.copyOf(padri, 2 * numeroId);
+    int id = numeroId++;
+    padri[id] = id;
+    Classe classe = new Classe(id);
+    classe.nodi.add(nodo);
+    classi.add(classe);
+    memo.put(nodo, id);
+    for (int i = 0; i < nodo.getNumeroFigli(); i++) {
+      classi.get(trova(nodo.getFiglio(i))).genitori.add(Map.entry(nodo, id));
+    }
+    NumeroRazionale costante = valuta(nodo);
+    if (nodo.getTipo() == EnumNodo.RAZIONALE) classe.costante = costante;
+    else if (costante != null) unisci(id, aggiungi(new ENodo(EnumNodo.RAZIONALE, costante)));
+    return trova(id);
+  }
+
+  /**
+   * Metodo mutazionale che rende canonici i nodi di una classe e i nodi che la usano, fondendo le
+   * classi dei genitori diventati uguali
+   *
+   * @param id il rappresentante della classe
+   */
+  private void ripara(int id) {
+    Classe classe = classi.get(id);
+    List<Map.Entry<ENodo, Integer>> genitori = classe.genitori;
+    classe.genitori = new ArrayList<>();
+    for (Map.Entry<ENodo, Integer> voce : genitori) memo.remove(voce.getKey());
+    Map<ENodo, Integer> nuovi = new LinkedHashMap<>();
+    for (Map.Entry<ENodo, Integer> voce : genitori) {
+      ENodo genitore = voce.getKey().canonico(this);
+      Integer altro = nuovi.get(genitore);
+      if (altro != null) unisci(altro, voce.getValue());
+      nuovi.put(genitore, trova(voce.getValue()));
+    }
+    for (Map.Entry<ENodo, Integer> voce : nuovi.entrySet()) {
+      ENodo genitore = voce.getKey();
+      int classeGenitore = trova(voce.getValue());
+      Integer altro = memo.put(genitore, classeGenitore);
+      if (altro != null) unisci(altro, classeGenitore);
+      NumeroRazionale costante = valuta(genitore);
+      if (costante != null && genitore.getTipo() != EnumNodo.RAZIONALE)
+        unisci(classeGenitore, aggiungi(new ENodo(EnumNodo.RAZIONALE, costante)));
+    }
+    Classe corrente = classi.get(trova(id));
+    for (Map.Entry<ENodo, Integer> voce : nuovi.entrySet()) {
+      corrente.genitori.add(Map.entry(voce.getKey(), trova(voce.getValue())));
+    }
+    Set<ENodo> nodi = new LinkedHashSet<>();
+    for (ENodo nodo : corrente.nodi) nodi.add(nodo.canonico(this));
+    corrente.nodi = new ArrayList<>(nodi);
+  }
+
+  /**
+   * Metodo che calcola il valore costante di un nodo a partire dalle costanti delle classi figlie
+   *
+   * @param nodo il nodo
+   * @return il valore, null se il nodo non è costante o il valore non è razionale
+   */
+  private NumeroRazionale valuta(ENodo nodo) {
+    switch (nodo.getTipo()) {
+      case RAZIONALE:
+        return (NumeroRazionale) nodo.getValore();
+      case SIMBOLO:
+        return null;
+      case POTENZA:
+        NumeroRazionale base = costante(nodo.getFiglio(0));
+        NumeroRazionale esponente = (NumeroRazionale) nodo.getValore();
+        if (base == null) return null;
+        if (base.equals(NumeroRazionale.ZERO) && esponente.compareTo(NumeroRazionale.ZERO) <= 0)
+          return null;
+        Nodo risultato = base.potenzaReturnNodo(esponente);
+        return risultato.getTipoNodo() == EnumNodo.RAZIONALE ? risultato.evaluate() : null;
+      default:
+        NumeroRazionale primo = costante(nodo.getFiglio(0));
+        NumeroRazionale secondo = costante(nodo.getFiglio(1));
+        if (nodo.getTipo() == EnumNodo.MOLTIPLICAZIONE) {
+          if (NumeroRazionale.ZERO.equals(primo) || NumeroRazionale.ZERO.equals(secondo))
+            return NumeroRazionale.ZERO;
+          return primo == null || secondo == null ? null : primo.moltiplicazione(secondo);
+        }
+        return primo == null || secondo == null ? null : primo.addizione(secondo);
+    }
+  }
+
+  /**
+   * Metodo che restituisce il valore costante di una classe
+   *
+   * @param id l'identificatore della classe
+   * @return il valore, null se non noto
+   */
+  private NumeroRazionale costante(int id) {
+    return classi.get(trova(id)).costante;
+  }
+
+  /**
+   * Metodo che restituisce una copia dei nodi di una classe
+   *
+   * @param id l'identificatore della classe
+   * @return la lista dei nodi
+   */
+  private List<ENodo> nodiDi(int id) {
+    return new ArrayList<>(classi.get(trova(id)).nodi);
+  }
+
+  /**
+   * Metodo che aggiunge un nodo binario
+   *
+   * @param tipo il tipo del nodo
+   * @param a la prima classe figlia
+   * @param b la seconda classe figlia
+   * @return l'identificatore della classe del nodo
+   */
+  private int binario(EnumNodo tipo, int a, int b) {
+    return aggiungi(new ENodo(tipo, null, trova(a), trova(b)));
+  }
+
+  /**
+   * Metodo che aggiunge un nodo potenza
+   *
+   * @param base la classe della base
+   * @param esponente l'esponente
+   * @return l'identificatore della classe del nodo
+   */
+  private int potenza(int base, NumeroRazionale esponente) {
+    return aggiungi(new ENodo(EnumNodo.POTENZA, esponente, trova(base)));
+  }
+
+  /**
+   * Metodo che aggiunge una foglia razionale
+   *
+   * @param valore il valore
+   * @return l'identificatore della classe della foglia
+   */
+  private int razionale(NumeroRazionale valore) {
+    return aggiungi(new ENodo(EnumNodo.RAZIONALE, valore));
+  }
+
+  /**
+   * Metodo che applica a un nodo tutte le regole, fondendo la sua classe con le forme equivalenti
+   *
+   * @param classe la classe del nodo
+   * @param nodo il nodo canonico
+   */
+  private void applicaRegole(int classe, ENodo nodo) {
+    switch (nodo.getTipo()) {
+      case ADDIZIONE:
+        applicaRegoleAddizione(classe, nodo.getFiglio(0), nodo.getFiglio(1));
+        break;
+      case MOLTIPLICAZIONE:
+        applicaRegoleMoltiplicazione(classe, nodo.getFiglio(0), nodo.getFiglio(1));
+        break;
+      case POTENZA:
+        applicaRegolePotenza(classe, nodo.getFiglio(0), (NumeroRazionale) nodo.getValore());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Metodo che applica le regole al nodo a + b
+   *
+   * @param classe la classe del nodo
+   * @param a la classe del primo addendo
+   * @param b la classe del secondo addendo
+   */
+  private void applicaRegoleAddizione(int classe, int a, int b) {
+    EnumNodo somma = EnumNodo.ADDIZIONE;
+    EnumNodo prodotto = EnumNodo.MOLTIPLICAZIONE;
+    unisci(classe, binario(somma, b, a));
+    if (NumeroRazionale.ZERO.equals(costante(a))) unisci(classe, b);
+    if (trova(a) == trova(b))
+      unisci(classe, binario(prodotto, razionale(new NumeroRazionale(2, 1)), a));
+    for (ENodo interno : nodiDi(a)) {
+      if (interno.getTipo() == somma) {
+        int resto = binario(somma, interno.getFiglio(1), b);
+        unisci(classe, binario(somma, interno.getFiglio(0), resto));
+      }
+    }
+    for (ENodo destro : nodiDi(b)) {
+      if (pieno()) return;
+      if (destro.getTipo() != prodotto) continue;
+      if (trova(destro.getFiglio(0)) == trova(a)) {
+        int fattore = binario(somma, razionale(NumeroRazionale.UNO), destro.getFiglio(1));
+        unisci(classe, binario(prodotto, a, fattore));
+      }
+      for (ENodo sinistro : nodiDi(a)) {
+        if (pieno()) return;
+        if (sinistro.getTipo() == prodotto
+            && trova(sinistro.getFiglio(0)) == trova(destro.getFiglio(0))) {
+          int fattore = binario(somma, sinistro.getFiglio(1), destro.getFiglio(1));
+          unisci(classe, binario(prodotto, sinistro.getFiglio(0), fattore));
+        }
+      }
+    }
+  }
+
+  /**
+   * Metodo che applica le regole al nodo a * b
+   *
+   * @param classe la classe del nodo
+   * @param a la classe del primo fattore
+   * @param b la classe del secondo fattore
+   */
+  private void applicaRegoleMoltiplicazione(int classe, int a, int b) {
+    EnumNodo somma = EnumNodo.ADDIZIONE;
+    EnumNodo prodotto = EnumNodo.MOLTIPLICAZIONE;
+    unisci(classe, binario(prodotto, b, a));
+    if (NumeroRazionale.UNO.equals(costante(a))) unisci(classe, b);
+    if (trova(a) == trova(b)) unisci(classe, potenza(a, new NumeroRazionale(2, 1)));
+    for (ENodo interno : nodiDi(a)) {
+      if (pieno()) return;
+      if (interno.getTipo() == prodotto) {
+        int resto = binario(prodotto, interno.getFiglio(1), b);
+        unisci(classe, binario(prodotto, interno.getFiglio(0), resto));
+      }
+      if (interno.getTipo() == EnumNodo.POTENZA) {
+        NumeroRazionale p = (NumeroRazionale) interno.getValore();
+        int base = interno.getFiglio(0);
+        if (trova(base) == trova(b))
+          unisci(classe, potenza(base, p.addizione(NumeroRazionale.UNO)));
+        for (ENodo destro : nodiDi(b)) {
+          if (destro.getTipo() == EnumNodo.POTENZA && trova(destro.getFiglio(0)) == trova(base)) {
+            NumeroRazionale q = (NumeroRazionale) destro.getValore();
+            unisci(classe, potenza(base, p.addizione(q)));
+          }
+        }
+      }
+    }
+    for (ENodo destro : nodiDi(b)) {
+      if (pieno()) return;
+      if (destro.getTipo() == somma) {
+        int primo = binario(prodotto, a, destro.getFiglio(0));
+        int secondo = binario(prodotto, a, destro.getFiglio(1));
+        unisci(classe, binario(somma, primo, secondo));
+      }
+    }
+  }
+
+  /**
+   * Metodo che applica le regole al nodo a ^ e
+   *
+   * @param classe la classe del nodo
+   * @param a la classe della base
+   * @param esponente l'esponente
+   */
+  private void applicaRegolePotenza(int classe, int a, NumeroRazionale esponente) {
+    if (esponente.equals(NumeroRazionale.UNO)) unisci(classe, a);
+    if (esponente.equals(NumeroRazionale.ZERO) && !NumeroRazionale.ZERO.equals(costante(a)))
+      unisci(classe, razionale(NumeroRazionale.UNO));
+    for (ENodo interno : nodiDi(a)) {
+      if (interno.getTipo() == EnumNodo.POTENZA) {
+        NumeroRazionale p = (NumeroRazionale) interno.getValore();
+        unisci(classe, potenza(interno.getFiglio(0), p.moltiplicazione(esponente)));
+      }
+    }
+  }
+
+  /**
+   * Metodo che calcola il costo di un nodo a partire dai costi delle classi figlie
+   *
+   * @param nodo il nodo
+   * @param costi i costi delle classi
+   * @return il costo, Long.MAX_VALUE se una classe figlia non ha ancora un costo
+   */
+  private long costo(ENodo nodo, long[] costi) {
+    long costo = nodo.getNumeroFigli() == 0 ? 0 : 1;
+    for (int i = 0; i < nodo.getNumeroFigli(); i++) {
+      long figlio = costi[trova(nodo.getFiglio(i))];
+      if (figlio == Long.MAX_VALUE) return Long.MAX_VALUE;
+      costo += figlio;
+    }
+    return costo;
+  }
+
+  /**
+   * Metodo che costruisce l'albero scelto per una classe
+   *
+   * @param id il rappresentante della classe
+   * @param migliori il nodo di costo minimo di ogni classe
+   * @param costruiti gli alberi già costruiti, condivisi tra le occorrenze
+   * @return l'albero
+   */
+  private Nodo costruisci(int id, ENodo[] migliori, Map<Integer, Nodo> costruiti) {
+    Nodo costruito = costruiti.get(id);
+    if (costruito != null) return costruito;
+    ENodo nodo = migliori[id];
+    switch (nodo.getTipo()) {
+      case RAZIONALE:
+        costruito = new FogliaRazionale((NumeroRazionale) nodo.getValore());
+        break;
+      case SIMBOLO:
+        costruito = FogliaSimbolo.valueOf((String) nodo.getValore());
+        break;
+      case POTENZA:
+        Nodo base = costruisci(trova(nodo.getFiglio(0)), migliori, costruiti);
+        costruito = new NodoPotenza(base, new FogliaRazionale((NumeroRazionale) nodo.getValore()));
+        break;
+      default:
+        List<Nodo> figli = new ArrayList<>();
+        appiattisci(nodo.getTipo(), id, migliori, costruiti, figli);
+        costruito =
+            nodo.getTipo() == EnumNodo.ADDIZIONE
+                ? new NodoAddizione(figli)
+                : new NodoMoltiplicazione(figli);
+    }
+    costruiti.put(id, costruito);
+    return costruito;
+  }
+
+  /**
+   * Metodo che raccoglie gli operandi di una catena di operazioni dello stesso tipo
+   *
+   * @param tipo il tipo dell'operazione
+   * @param id il rappresentante della classe
+   * @param migliori il nodo di costo minimo di ogni classe
+   * @param costruiti gli alberi già costruiti
+   * @param figli gli operandi raccolti
+   */
+  private void appiattisci(
+      EnumNodo tipo, int id, ENodo[] migliori, Map<Integer, Nodo> costruiti, List<Nodo> figli) {
+    ENodo nodo = migliori[id];
+    if (nodo.getTipo() != tipo) {
+      figli.add(costruisci(id, migliori, costruiti));
+      return;
+    }
+    for (int i = 0; i < 2; i++) {
+      appiattisci(tipo, trova(nodo.getFiglio(i)), migliori, costruiti, figli);
+    }
+  }
+
+  /** OVERVIEW: Classe di equivalenza mutabile dell'e-grafo */
+  private static final class Classe {
+
+    /** L'identificatore della classe */
+    private final int id;
+
+    /** I nodi della classe */
+    private List<ENodo> nodi = new ArrayList<>();
+
+    /** I nodi che usano la classe come figlio, con le loro classi */
+    private List<Map.Entry<ENodo, Integer>> genitori = new ArrayList<>();
+
+    /** Il valore costante della classe, null se non noto */
+    private NumeroRazionale costante;
+
+    /**
+     * Costruisce una classe vuota
+     *
+     * @param id l'identificatore della classe
+     */
+    private Classe(int id) {
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package luppolo.Ottimizzazione;
+
+import java.util.Arrays;
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un nodo di un e-grafo: un operatore applicato a classi
+ * di equivalenza invece che a sottoalberi. Le addizioni e le moltiplicazioni sono binarie; le
+ * potenze hanno un figlio e l'esponente razionale come valore.
+ */
+final class ENodo {
+
+  /**
+   * AF: Il nodo tipo(valore; figli[0], ..., figli[n-1]), dove valore è il numero razionale delle
+   * foglie razionali e l'esponente delle potenze, il simbolo delle foglie simbolo e null per
+   * addizioni e moltiplicazioni. IR: tipo != null, figli != null, figli.length è 0 per le foglie,
+   * 1 per le potenze e 2 per addizioni e moltiplicazioni
+   */
+
+  /** Il tipo del nodo */
+  private final EnumNodo tipo;
+
+  /** Il valore del nodo */
+  private final Object valore;
+
+  /** Gli identificatori delle classi figlie */
+  private final int[] figli;
+
+  /** Il codice hash, calcolato una volta sola */
+  private final int hash;
+
+  /**
+   * Costruisce un nodo
+   *
+   * @param tipo il tipo del nodo
+   * @param valore il valore del nodo
+   * @param figli gli identificatori delle classi figlie, senza copia
+   */
+  ENodo(EnumNodo tipo, Object valore, int... figli) {
+    this.tipo = tipo;
+    this.valore = valore;
+    this.figli = figli;
+    this.hash = 31 * (31 * tipo.ordinal() + Objects.hashCode(valore)) + Arrays.hashCode(figli);
+  }
+
+  /**
+   * Metodo che restituisce il tipo del nodo
+   *
+   * @return il tipo
+   */
+  EnumNodo getTipo() {
+    return tipo;
+  }
+
+  /**
+   * Metodo che restituisce il valore del nodo
+   *
+   * @return il valore
+   */
+  Object getValore() {
+    return valore;
+  }
+
+  /**
+   * Metodo che restituisce il numero di classi figlie
+   *
+   * @return il numero di figli
+   */
+  int getNumeroFigli() {
+    return figli.length;
+  }
+
+  /**
+   * Metodo che restituisce l'identificatore di una classe figlia
+   *
+   * @param i l'indice del figlio
+   * @return l'identificatore della classe
+   */
+  int getFiglio(int i) {
+    return figli[i];
+  }
+
+  /**
+   * Metodo che restituisce il nodo con i figli sostituiti dai loro rappresentanti
+   *
+   * @param grafo l'e-grafo che definisce i rappresentanti
+   * @return il nodo canonico, this se già canonico
+   */
+  ENodo canonico(EGrafo grafo) {
+    int[] canonici = null;
+    for (int i = 0; i < figli.length; i++) {
+      int rappresentante = grafo.trova(figli[i]);
+      if (rappresentante != figli[i]) {
+        if (canonici == null) canonici = figli.clone();
+        canonici[i] = rappresentante;
+      }
+    }
+    return canonici == null ? this : new ENodo(tipo, valore, canonici);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ENodo)) return false;
+    ENodo altro = (ENodo) o;
+    return hash == altro.hash
+        && tipo == altro.tipo
+        && Objects.equals(valore, altro.valore)
+        && Arrays.equals(figli, altro.figli);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(tipo.name()).append('(');
+    if (valore != null) sb.append(valore);
+    for (int i = 0; i < figli.length; i++) {
+      if (i > 0 || valore != null) sb.append(", ");
+      sb.append('#').append(figli[i]);
+    }
+    return sb.append(')').toString();
+  }
+}
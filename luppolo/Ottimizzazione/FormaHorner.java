@@ -0,0 +1,147 @@
+package luppolo.Ottimizzazione;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Nodo.FogliaRazionale;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoAddizione;
+import luppolo.Nodo.NodoMoltiplicazione;
+import luppolo.Nodo.NumeroRazionale;
+import luppolo.Polinomi.Monomio;
+import luppolo.Polinomi.Polinomio;
+
+/**
+ * OVERVIEW: La classe immutabile riscrive un polinomio in forma di Horner multivariata, così che la
+ * sua valutazione richieda molte meno moltiplicazioni della forma espansa. A ogni passo sceglie in
+ * modo goloso la variabile presente nel maggior numero di termini e scrive il polinomio come p0 +
+ * v^k * q, dove p0 raccoglie i termini senza v; se richiesto, prima raccoglie il massimo comune
+ * divisore dei monomi.
+ */
+public class FormaHorner {
+
+  /**
+   * AF: La trasformazione in forma di Horner, con raccolta dei fattori comuni se raccogli. IR:
+   * nessun vincolo
+   */
+
+  /** Se raccogliere il massimo comune divisore dei monomi prima di ogni scomposizione */
+  private final boolean raccogli;
+
+  /** Costruisce una trasformazione che raccoglie i fattori comuni */
+  public FormaHorner() {
+    this(true);
+  }
+
+  /**
+   * Costruisce una trasformazione in forma di Horner
+   *
+   * @param raccogliFattoriComuni true per raccogliere il massimo comune divisore dei monomi prima
+   *     di ogni scomposizione
+   */
+  public FormaHorner(boolean raccogliFattoriComuni) {
+    this.raccogli = raccogliFattoriComuni;
+  }
+
+  /**
+   * Metodo che restituisce la forma di Horner di un albero polinomiale
+   *
+   * @param nodo la radice dell'albero
+   * @return la radice della forma di Horner
+   * @throws NullPointerException se il nodo è null
+   * @throws IllegalArgumentException se l'albero non è un polinomio
+   */
+  public Nodo trasforma(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo da trasformare non può essere null.");
+    return trasforma(Polinomio.daNodo(nodo));
+  }
+
+  /**
+   * Metodo che restituisce la forma di Horner di un'espressione polinomiale
+   *
+   * @param espressione l'espressione
+   * @return l'espressione in forma di Horner
+   * @throws NullPointerException se l'espressione è null
+   * @throws IllegalArgumentException se l'espressione non è un polinomio
+   */
+  public Espressione trasforma(Espressione espressione) {
+    Objects.requireNonNull(espressione, "L'espressione da trasformare non può essere null.");
+    return new Espressione(trasforma(espressione.getRadice()));
+  }
+
+  /**
+   * Metodo che restituisce la forma di Horner di un polinomio
+   *
+   * @param polinomio il polinomio
+   * @return la radice della forma di Horner
+   * @throws NullPointerException se il polinomio è null
+   */
+  public Nodo trasforma(Polinomio polinomio) {
+    Objects.requireNonNull(polinomio, "Il polinomio da trasformare non può essere null.");
+    if (polinomio.isCostante()) return new FogliaRazionale(polinomio.getTermineNoto());
+    if (polinomio.getTermini().size() == 1) {
+      Monomio monomio = polinomio.getTermini().firstKey();
+      return monomio.toNodo(polinomio.getTermini().get(monomio));
+    }
+    if (raccogli) {
+      Monomio comune = polinomio.mcdMonomi();
+      if (comune.getGrado() > 0)
+        return prodotto(comune.toNodo(NumeroRazionale.UNO), trasforma(polinomio.divisione(comune)));
+    }
+    int variabile = variabilePiuFrequente(polinomio);
+    int esponente = Integer.MAX_VALUE;
+    for (Monomio monomio : polinomio.getTermini().keySet()) {
+      int e = monomio.getEsponente(variabile);
+      if (e > 0) esponente = Math.min(esponente, e);
+    }
+    Monomio potenza = Monomio.variabile((char) ('a' + variabile), esponente);
+    List<Polinomio> parti = polinomio.separa(potenza);
+    Nodo quoziente = prodotto(potenza.toNodo(NumeroRazionale.UNO), trasforma(parti.get(1)));
+    if (parti.get(0).isZero()) return quoziente;
+    Nodo resto = trasforma(parti.get(0));
+    List<Nodo> addendi = new ArrayList<>();
+    if (resto instanceof NodoAddizione) addendi.addAll(resto.getFigliNodo());
+    else addendi.add(resto);
+    addendi.add(quoziente);
+    return new NodoAddizione(addendi);
+  }
+
+  /**
+   * Metodo che restituisce la variabile presente nel maggior numero di termini, la prima in ordine
+   * alfabetico a parità
+   *
+   * @param polinomio il polinomio, non costante
+   * @return l'indice della variabile, 0 per 'a'
+   */
+  private static int variabilePiuFrequente(Polinomio polinomio) {
+    int[] occorrenze = new int[Monomio.NUMERO_VARIABILI];
+    for (Monomio monomio : polinomio.getTermini().keySet()) {
+      for (int i = 0; i < Monomio.NUMERO_VARIABILI; i++) {
+        if (monomio.getEsponente(i) > 0) occorrenze[i]++;
+      }
+    }
+    int migliore = 0;
+    for (int i = 1; i < Monomio.NUMERO_VARIABILI; i++) {
+      if (occorrenze[i] > occorrenze[migliore]) migliore = i;
+    }
+    return migliore;
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di due nodi, appiattendo i prodotti e omettendo il fattore 1
+   *
+   * @param primo il primo fattore
+   * @param secondo il secondo fattore
+   * @return il nodo prodotto
+   */
+  private static Nodo prodotto(Nodo primo, Nodo secondo) {
+    if (secondo.equals(new FogliaRazionale(NumeroRazionale.UNO))) return primo;
+    List<Nodo> fattori = new ArrayList<>();
+    for (Nodo fattore : List.of(primo, secondo)) {
+      if (fattore instanceof NodoMoltiplicazione) fattori.addAll(fattore.getFigliNodo());
+      else fattori.add(fattore);
+    }
+    return new NodoMoltiplicazione(fattori);
+  }
+}
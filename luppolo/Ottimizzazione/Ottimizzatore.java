@@ -0,0 +1,116 @@
+package luppolo.Ottimizzazione;
+
+import java.util.List;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Manipolazione.Budget;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoPotenza;
+
+/**
+ * OVERVIEW: La classe immutabile cerca, tra le espressioni equivalenti a una data, quella con il
+ * minor numero di operazioni. A differenza della semplificazione, che applica le trasformazioni in
+ * un ordine fissato, l'ottimizzatore le applica tutte insieme in un e-grafo, che rappresenta in
+ * modo condiviso le forme equivalenti senza enumerarle una per una, e ne estrae la più economica.
+ */
+public class Ottimizzatore {
+
+  /** Il numero predefinito di iterazioni di saturazione */
+  public static final int ITERAZIONI_PREDEFINITE = 12;
+
+  /** Il numero predefinito di nodi dell'e-grafo oltre il quale la saturazione si ferma */
+  public static final int NODI_PREDEFINITI = 20_000;
+
+  /**
+   * AF: L'ottimizzatore che satura per al più iterazioniMassime iterazioni e nodiMassimi nodi,
+   * rispettando budget. IR: iterazioniMassime > 0, nodiMassimi > 0, budget != null
+   */
+
+  /** Il numero massimo di iterazioni di saturazione */
+  private final int iterazioniMassime;
+
+  /** Il numero di nodi dell'e-grafo oltre il quale la saturazione si ferma */
+  private final int nodiMassimi;
+
+  /** Il budget dell'ottimizzazione */
+  private final Budget budget;
+
+  /** Costruisce un ottimizzatore con i limiti predefiniti */
+  public Ottimizzatore() {
+    this(ITERAZIONI_PREDEFINITE, NODI_PREDEFINITI, Budget.ILLIMITATO);
+  }
+
+  /**
+   * Costruisce un ottimizzatore con i limiti dati
+   *
+   * @param iterazioniMassime il numero massimo di iterazioni di saturazione
+   * @param nodiMassimi il numero di nodi dell'e-grafo oltre il quale la saturazione si ferma
+   * @param budget il budget dell'ottimizzazione
+   * @throws NullPointerException se il budget è null
+   * @throws IllegalArgumentException se uno dei limiti non è positivo
+   */
+  public Ottimizzatore(int iterazioniMassime, int nodiMassimi, Budget budget) {
+    Objects.requireNonNull(budget, "Il budget non può essere null.");
+    if (iterazioniMassime <= 0 || nodiMassimi <= 0)
+      throw new IllegalArgumentException("I limiti dell'ottimizzatore devono essere positivi.");
+    this.iterazioniMassime = iterazioniMassime;
+    this.nodiMassimi = nodiMassimi;
+    this.budget = budget;
+  }
+
+  /**
+   * Metodo che restituisce un albero equivalente con il minor numero di operazioni trovato
+   *
+   * @param nodo la radice dell'albero
+   * @return l'albero ottimizzato
+   * @throws NullPointerException se il nodo è null
+   * @throws luppolo.Manipolazione.LimiteSuperatoException se il budget viene superato
+   * @throws java.util.concurrent.CancellationException se l'ottimizzazione viene cancellata
+   */
+  public Nodo ottimizza(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo da ottimizzare non può essere null.");
+    EGrafo grafo = new EGrafo();
+    int radice = grafo.aggiungi(nodo);
+    grafo.satura(iterazioniMassime, nodiMassimi, budget);
+    Nodo ottimizzato = grafo.estrai(radice);
+    return costo(ottimizzato) < costo(nodo) ? ottimizzato : nodo;
+  }
+
+  /**
+   * Metodo che restituisce un'espressione equivalente con il minor numero di operazioni trovato
+   *
+   * @param espressione l'espressione
+   * @return l'espressione ottimizzata
+   * @throws NullPointerException se l'espressione è null
+   * @throws luppolo.Manipolazione.LimiteSuperatoException se il budget viene superato
+   * @throws java.util.concurrent.CancellationException se l'ottimizzazione viene cancellata
+   */
+  public Espressione ottimizza(Espressione espressione) {
+    Objects.requireNonNull(espressione, "L'espressione da ottimizzare non può essere null.");
+    return new Espressione(ottimizza(espressione.getRadice()));
+  }
+
+  /**
+   * Metodo che restituisce il numero di operazioni di un albero: un nodo con k figli conta k - 1
+   * operazioni, una potenza ne conta una
+   *
+   * @param nodo la radice dell'albero
+   * @return il numero di operazioni
+   * @throws NullPointerException se il nodo è null
+   */
+  public static long costo(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+      case SIMBOLO:
+        return 0;
+      case POTENZA:
+        return 1 + costo(((NodoPotenza) nodo).getBase());
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        long costo = figli.size() - 1;
+        for (Nodo figlio : figli) costo += costo(figlio);
+        return costo;
+    }
+  }
+}
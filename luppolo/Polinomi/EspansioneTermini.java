@@ -0,0 +1,297 @@
+package luppolo.Polinomi;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe non istanziabile espande un albero polinomiale restituendone i termini uno
+ * alla volta, in ordine crescente di monomio e con i termini simili già sommati, senza mai
+ * costruire l'espansione completa.
+ *
+ * <p>Gli addendi di un'addizione vengono espansi separatamente e fusi con una fusione a k vie. Un
+ * prodotto, o una potenza con esponente naturale, viene diviso in due metà che vengono espanse in
+ * memoria; i prodotti di ogni termine della metà più piccola per i termini dell'altra formano
+ * sequenze già ordinate, che vengono fuse a loro volta. La memoria usata dipende quindi dalla
+ * dimensione delle metà e non da quella del risultato: ad esempio ^(+(x, y, z), 40) tiene in
+ * memoria le due espansioni di grado 20, di 231 termini ciascuna, invece degli 861 termini del
+ * risultato.
+ */
+public final class EspansioneTermini {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private EspansioneTermini() {}
+
+  /**
+   * Metodo che restituisce un iteratore sui termini dell'espansione di un albero
+   *
+   * @param nodo la radice dell'albero, formato da costanti razionali, simboli, addizioni,
+   *     moltiplicazioni e potenze con esponente naturale
+   * @return l'iteratore sui termini non nulli, in ordine crescente di monomio
+   * @throws NullPointerException se il nodo è null
+   * @throws IllegalArgumentException se l'albero contiene una potenza con esponente non naturale
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public static Iterator<Termine> termini(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    return sorgente(nodo).get();
+  }
+
+  /**
+   * Metodo che restituisce lo stream sequenziale dei termini dell'espansione di un albero
+   *
+   * @param nodo la radice dell'albero, formato da costanti razionali, simboli, addizioni,
+   *     moltiplicazioni e potenze con esponente naturale
+   * @return lo stream dei termini non nulli, in ordine crescente di monomio
+   * @throws NullPointerException se il nodo è null
+   * @throws IllegalArgumentException se l'albero contiene una potenza con esponente non naturale
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public static Stream<Termine> stream(Nodo nodo) {
+    int caratteristiche =
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(termini(nodo), caratteristiche), false);
+  }
+
+  /**
+   * Metodo che restituisce il generatore dei termini ordinati dell'espansione di un albero
+   *
+   * @param nodo la radice dell'albero
+   * @return il generatore, che restituisce a ogni chiamata un nuovo iteratore
+   * @throws IllegalArgumentException se l'albero contiene una potenza con esponente non naturale
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  private static Supplier<Iterator<Termine>> sorgente(Nodo nodo) {
+    switch (nodo.getTipoNodo()) {
+      case ADDIZIONE:
+        {
+          List<Supplier<Iterator<Termine>>> addendi = new ArrayList<>();
+          for (Nodo addendo : nodo.getFigliNodo()) addendi.add(sorgente(addendo));
+          return () -> new Fusione(addendi);
+        }
+      case MOLTIPLICAZIONE:
+        {
+          List<Nodo> fattori = nodo.getFigliNodo();
+          if (fattori.size() == 1) return sorgente(fattori.get(0));
+          int meta = (fattori.size() + 1) / 2;
+          return prodotto(
+              prodotto(fattori.subList(0, meta)), prodotto(fattori.subList(meta, fattori.size())));
+        }
+      case POTENZA:
+        {
+          NodoPotenza potenza = (NodoPotenza) nodo;
+          NumeroRazionale esponente = potenza.getEsponenteValore();
+          if (esponente.getDenominatore() != 1 || esponente.getNumeratore() < 0)
+            throw new IllegalArgumentException(
+                "La potenza " + nodo + " non ha un esponente naturale: non è un polinomio");
+          int n = Math.toIntExact(esponente.getNumeratore());
+          if (n == 1) return sorgente(potenza.getBase());
+          if (n < 2) return polinomio(Polinomio.daNodo(nodo));
+          Polinomio base = Polinomio.daNodo(potenza.getBase());
+          Polinomio meta = base.potenza(n / 2);
+          return prodotto(n % 2 == 0 ? meta : meta.moltiplicazione(base), meta);
+        }
+      default:
+        return polinomio(Polinomio.daNodo(nodo));
+    }
+  }
+
+  /**
+   * Metodo che restituisce il prodotto espanso in memoria di una lista di fattori
+   *
+   * @param fattori i fattori
+   * @return il polinomio prodotto
+   */
+  private static Polinomio prodotto(List<Nodo> fattori) {
+    Polinomio prodotto = Polinomio.termine(NumeroRazionale.UNO, Monomio.UNO);
+    for (Nodo fattore : fattori) prodotto = prodotto.moltiplicazione(Polinomio.daNodo(fattore));
+    return prodotto;
+  }
+
+  /**
+   * Metodo che restituisce il generatore dei termini ordinati di un polinomio in memoria
+   *
+   * @param polinomio il polinomio
+   * @return il generatore
+   */
+  private static Supplier<Iterator<Termine>> polinomio(Polinomio polinomio) {
+    return () -> {
+      Iterator<Map.Entry<Monomio, NumeroRazionale>> termini =
+          polinomio.getTermini().entrySet().iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return termini.hasNext();
+        }
+
+        @Override
+        public Termine next() {
+          Map.Entry<Monomio, NumeroRazionale> termine = termini.next();
+          return new Termine(termine.getValue(), termine.getKey());
+        }
+      };
+    };
+  }
+
+  /**
+   * Metodo che restituisce il generatore dei termini ordinati del prodotto di due polinomi, senza
+   * calcolare il prodotto
+   *
+   * @param primo il primo polinomio
+   * @param secondo il secondo polinomio
+   * @return il generatore
+   */
+  private static Supplier<Iterator<Termine>> prodotto(Polinomio primo, Polinomio secondo) {
+    boolean primoMinore = primo.getTermini().size() <= secondo.getTermini().size();
+    Termine[] righe = termini(primoMinore ? primo : secondo);
+    Termine[] colonne = termini(primoMinore ? secondo : primo);
+    return () -> new ProdottoOrdinato(righe, colonne);
+  }
+
+  /**
+   * Metodo che restituisce i termini di un polinomio in un array ordinato per monomio
+   *
+   * @param polinomio il polinomio
+   * @return i termini del polinomio
+   */
+  private static Termine[] termini(Polinomio polinomio) {
+    Termine[] termini = new Termine[polinomio.getTermini().size()];
+    int i = 0;
+    for (Map.Entry<Monomio, NumeroRazionale> termine : polinomio.getTermini().entrySet()) {
+      termini[i++] = new Termine(termine.getValue(), termine.getKey());
+    }
+    return termini;
+  }
+
+  /**
+   * L'iteratore che somma i termini simili di più sequenze ordinate, estraendo sempre il monomio
+   * minimo dalla coda con priorità delle teste delle sequenze
+   */
+  private abstract static class FusioneOrdinata<T extends FusioneOrdinata.Testa>
+      implements Iterator<Termine> {
+
+    /** La testa di una sequenza: il suo prossimo monomio e il relativo coefficiente */
+    abstract static class Testa {
+      Monomio monomio;
+      NumeroRazionale coefficiente;
+    }
+
+    /** Le teste delle sequenze non esaurite, ordinate per monomio */
+    final PriorityQueue<T> teste = new PriorityQueue<>((a, b) -> a.monomio.compareTo(b.monomio));
+
+    /** Il prossimo termine da restituire, o null se va ancora calcolato */
+    private Termine prossimo;
+
+    /**
+     * Metodo che fa avanzare una testa alla posizione successiva della sua sequenza
+     *
+     * @param testa la testa
+     * @return true se la sequenza non è esaurita, false altrimenti
+     */
+    abstract boolean avanza(T testa);
+
+    @Override
+    public boolean hasNext() {
+      while (prossimo == null && !teste.isEmpty()) {
+        Monomio monomio = teste.peek().monomio;
+        NumeroRazionale coefficiente = NumeroRazionale.ZERO;
+        while (!teste.isEmpty() && teste.peek().monomio.equals(monomio)) {
+          T testa = teste.poll();
+          coefficiente = coefficiente.addizione(testa.coefficiente);
+          if (avanza(testa)) teste.add(testa);
+        }
+        if (!coefficiente.equals(NumeroRazionale.ZERO))
+          prossimo = new Termine(coefficiente, monomio);
+      }
+      return prossimo != null;
+    }
+
+    @Override
+    public Termine next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      Termine termine = prossimo;
+      prossimo = null;
+      return termine;
+    }
+  }
+
+  /** La fusione a k vie delle sequenze ordinate dei termini degli addendi */
+  private static final class Fusione extends FusioneOrdinata<Fusione.Sequenza> {
+
+    /** La testa di una sequenza di termini */
+    static final class Sequenza extends FusioneOrdinata.Testa {
+      final Iterator<Termine> termini;
+
+      Sequenza(Iterator<Termine> termini) {
+        this.termini = termini;
+      }
+    }
+
+    Fusione(List<Supplier<Iterator<Termine>>> addendi) {
+      for (Supplier<Iterator<Termine>> addendo : addendi) {
+        Sequenza sequenza = new Sequenza(addendo.get());
+        if (avanza(sequenza)) teste.add(sequenza);
+      }
+    }
+
+    @Override
+    boolean avanza(Sequenza sequenza) {
+      if (!sequenza.termini.hasNext()) return false;
+      Termine termine = sequenza.termini.next();
+      sequenza.monomio = termine.getMonomio();
+      sequenza.coefficiente = termine.getCoefficiente();
+      return true;
+    }
+  }
+
+  /**
+   * La fusione delle righe del prodotto di due polinomi: la riga i contiene i prodotti di righe[i]
+   * per tutti i termini di colonne, che sono ordinati perché moltiplicare per lo stesso monomio
+   * conserva l'ordine
+   */
+  private static final class ProdottoOrdinato extends FusioneOrdinata<ProdottoOrdinato.Riga> {
+
+    /** La testa di una riga del prodotto */
+    static final class Riga extends FusioneOrdinata.Testa {
+      final Termine termine;
+      int colonna = -1;
+
+      Riga(Termine termine) {
+        this.termine = termine;
+      }
+    }
+
+    /** I termini moltiplicati per ogni termine delle righe */
+    private final Termine[] colonne;
+
+    ProdottoOrdinato(Termine[] righe, Termine[] colonne) {
+      this.colonne = colonne;
+      for (Termine termine : righe) {
+        Riga riga = new Riga(termine);
+        if (avanza(riga)) teste.add(riga);
+      }
+    }
+
+    @Override
+    boolean avanza(Riga riga) {
+      if (++riga.colonna == colonne.length) return false;
+      Termine colonna = colonne[riga.colonna];
+      riga.monomio = riga.termine.getMonomio().moltiplicazione(colonna.getMonomio());
+      riga.coefficiente = riga.termine.getCoefficiente().moltiplicazione(colonna.getCoefficiente());
+      return true;
+    }
+  }
+}
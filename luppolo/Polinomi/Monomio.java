@@ -0,0 +1,215 @@
+package luppolo.Polinomi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Nodo.FogliaRazionale;
+import luppolo.Nodo.FogliaSimbolo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoMoltiplicazione;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un monomio monico nelle variabili da 'a' a 'z', cioè
+ * un prodotto di potenze con esponente naturale. I monomi sono ordinati per grado e poi
+ * lessicograficamente sugli esponenti.
+ */
+public final class Monomio implements Comparable<Monomio> {
+
+  /** Il numero di variabili */
+  public static final int NUMERO_VARIABILI = 26;
+
+  /** Il monomio costante 1 */
+  public static final Monomio UNO = new Monomio(new int[NUMERO_VARIABILI]);
+
+  /**
+   * AF: Il monomio a^esponenti[0] * b^esponenti[1] * ... * z^esponenti[25]. IR: esponenti != null,
+   * esponenti.length = NUMERO_VARIABILI, esponenti[i] >= 0, grado è la somma degli esponenti
+   */
+
+  /** Gli esponenti delle variabili */
+  private final int[] esponenti;
+
+  /** Il grado del monomio */
+  private final int grado;
+
+  /** Il codice hash, calcolato una volta sola */
+  private final int hash;
+
+  /**
+   * Costruisce un monomio a partire dagli esponenti, senza copiarli
+   *
+   * @param esponenti gli esponenti delle variabili
+   */
+  private Monomio(int[] esponenti) {
+    this.esponenti = esponenti;
+    int somma = 0;
+    for (int esponente : esponenti) somma = Math.addExact(somma, esponente);
+    this.grado = somma;
+    this.hash = Arrays.hashCode(esponenti);
+  }
+
+  /**
+   * Metodo che restituisce il monomio formato da una sola variabile
+   *
+   * @param variabile la variabile, da 'a' a 'z'
+   * @param esponente l'esponente
+   * @return il monomio variabile^esponente
+   * @throws IllegalArgumentException se la variabile non è valida o l'esponente è negativo
+   */
+  public static Monomio variabile(char variabile, int esponente) {
+    if (variabile < 'a' || variabile > 'z')
+      throw new IllegalArgumentException("La variabile deve essere una lettera tra a e z.");
+    if (esponente < 0)
+      throw new IllegalArgumentException("L'esponente di un monomio non può essere negativo.");
+    int[] esponenti = new int[NUMERO_VARIABILI];
+    esponenti[variabile - 'a'] = esponente;
+    return new Monomio(esponenti);
+  }
+
+  /**
+   * Metodo che restituisce l'esponente di una variabile
+   *
+   * @param indice l'indice della variabile, 0 per 'a'
+   * @return l'esponente
+   * @throws IndexOutOfBoundsException se l'indice non è valido
+   */
+  public int getEsponente(int indice) {
+    return esponenti[indice];
+  }
+
+  /**
+   * Metodo che restituisce il grado del monomio
+   *
+   * @return la somma degli esponenti
+   */
+  public int getGrado() {
+    return grado;
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di due monomi
+   *
+   * @param altro l'altro monomio
+   * @return il prodotto
+   * @throws NullPointerException se l'altro monomio è null
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public Monomio moltiplicazione(Monomio altro) {
+    Objects.requireNonNull(altro, "Il monomio non può essere null.");
+    if (grado == 0) return altro;
+    if (altro.grado == 0) return this;
+    int[] prodotto = new int[NUMERO_VARIABILI];
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      prodotto[i] = Math.addExact(esponenti[i], altro.esponenti[i]);
+    }
+    return new Monomio(prodotto);
+  }
+
+  /**
+   * Metodo che stabilisce se il monomio è divisibile per un altro
+   *
+   * @param divisore il divisore
+   * @return true se ogni esponente del divisore non supera quello del monomio, false altrimenti
+   * @throws NullPointerException se il divisore è null
+   */
+  public boolean isDivisibile(Monomio divisore) {
+    Objects.requireNonNull(divisore, "Il monomio non può essere null.");
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      if (divisore.esponenti[i] > esponenti[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Metodo che restituisce il quoziente della divisione per un monomio che divide questo
+   *
+   * @param divisore il divisore
+   * @return il quoziente
+   * @throws NullPointerException se il divisore è null
+   * @throws IllegalArgumentException se il divisore non divide il monomio
+   */
+  public Monomio divisione(Monomio divisore) {
+    if (!isDivisibile(divisore))
+      throw new IllegalArgumentException("Il monomio " + divisore + " non divide " + this);
+    if (divisore.grado == 0) return this;
+    int[] quoziente = new int[NUMERO_VARIABILI];
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      quoziente[i] = esponenti[i] - divisore.esponenti[i];
+    }
+    return new Monomio(quoziente);
+  }
+
+  /**
+   * Metodo che restituisce il massimo comune divisore di due monomi
+   *
+   * @param altro l'altro monomio
+   * @return il monomio con il minimo di ogni esponente
+   * @throws NullPointerException se l'altro monomio è null
+   */
+  public Monomio mcd(Monomio altro) {
+    Objects.requireNonNull(altro, "Il monomio non può essere null.");
+    int[] minimi = new int[NUMERO_VARIABILI];
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      minimi[i] = Math.min(esponenti[i], altro.esponenti[i]);
+    }
+    return new Monomio(minimi);
+  }
+
+  /**
+   * Metodo che restituisce il nodo corrispondente al monomio moltiplicato per un coefficiente
+   *
+   * @param coefficiente il coefficiente
+   * @return il nodo
+   * @throws NullPointerException se il coefficiente è null
+   */
+  public Nodo toNodo(NumeroRazionale coefficiente) {
+    Objects.requireNonNull(coefficiente, "Il coefficiente non può essere null.");
+    List<Nodo> fattori = new ArrayList<>();
+    if (grado == 0 || !coefficiente.equals(NumeroRazionale.UNO))
+      fattori.add(new FogliaRazionale(coefficiente));
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      if (esponenti[i] == 0) continue;
+      Nodo simbolo = FogliaSimbolo.valueOf((char) ('a' + i));
+      if (esponenti[i] == 1) fattori.add(simbolo);
+      else
+        fattori.add(
+            new NodoPotenza(simbolo, new FogliaRazionale(new NumeroRazionale(esponenti[i], 1))));
+    }
+    return fattori.size() == 1 ? fattori.get(0) : new NodoMoltiplicazione(fattori);
+  }
+
+  @Override
+  public int compareTo(Monomio altro) {
+    if (grado != altro.grado) return Integer.compare(grado, altro.grado);
+    return Arrays.compare(altro.esponenti, esponenti);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Monomio)) return false;
+    Monomio altro = (Monomio) o;
+    return hash == altro.hash && Arrays.equals(esponenti, altro.esponenti);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    if (grado == 0) return "1";
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < NUMERO_VARIABILI; i++) {
+      if (esponenti[i] == 0) continue;
+      if (sb.length() > 0) sb.append('*');
+      sb.append((char) ('a' + i));
+      if (esponenti[i] > 1) sb.append('^').append(esponenti[i]);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,295 @@
+package luppolo.Polinomi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import luppolo.Nodo.FogliaRazionale;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoAddizione;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un polinomio a coefficienti razionali nelle variabili
+ * da 'a' a 'z', come insieme di termini ordinati per monomio.
+ */
+public final class Polinomio {
+
+  /** Il polinomio nullo */
+  public static final Polinomio ZERO = new Polinomio(new TreeMap<>());
+
+  /**
+   * AF: Il polinomio somma di termini(m) * m per ogni monomio m. IR: termini != null, nessun
+   * coefficiente è null o zero
+   */
+
+  /** I coefficienti non nulli, per monomio */
+  private final SortedMap<Monomio, NumeroRazionale> termini;
+
+  /**
+   * Costruisce un polinomio a partire dai termini, senza copiarli
+   *
+   * @param termini i coefficienti non nulli, per monomio
+   */
+  private Polinomio(SortedMap<Monomio, NumeroRazionale> termini) {
+    this.termini = Collections.unmodifiableSortedMap(termini);
+  }
+
+  /**
+   * Metodo che restituisce il polinomio formato da un solo termine
+   *
+   * @param coefficiente il coefficiente
+   * @param monomio il monomio
+   * @return il polinomio coefficiente * monomio
+   * @throws NullPointerException se uno dei parametri è null
+   */
+  public static Polinomio termine(NumeroRazionale coefficiente, Monomio monomio) {
+    Objects.requireNonNull(coefficiente, "Il coefficiente non può essere null.");
+    Objects.requireNonNull(monomio, "Il monomio non può essere null.");
+    if (coefficiente.equals(NumeroRazionale.ZERO)) return ZERO;
+    SortedMap<Monomio, NumeroRazionale> termini = new TreeMap<>();
+    termini.put(monomio, coefficiente);
+    return new Polinomio(termini);
+  }
+
+  /**
+   * Metodo che restituisce il polinomio corrispondente a un albero formato da costanti razionali,
+   * simboli, addizioni, moltiplicazioni e potenze con esponente naturale
+   *
+   * @param nodo la radice dell'albero
+   * @return il polinomio
+   * @throws NullPointerException se il nodo è null
+   * @throws IllegalArgumentException se l'albero contiene una potenza con esponente non naturale
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public static Polinomio daNodo(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        return termine(nodo.evaluate(), Monomio.UNO);
+      case SIMBOLO:
+        return termine(NumeroRazionale.UNO, Monomio.variabile(nodo.getValoreNodo().charAt(0), 1));
+      case POTENZA:
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        NumeroRazionale esponente = potenza.getEsponenteValore();
+        if (esponente.getDenominatore() != 1 || esponente.getNumeratore() < 0)
+          throw new IllegalArgumentException(
+              "La potenza " + nodo + " non ha un esponente naturale: non è un polinomio");
+        return daNodo(potenza.getBase()).potenza(Math.toIntExact(esponente.getNumeratore()));
+      case ADDIZIONE:
+        Polinomio somma = ZERO;
+        for (Nodo figlio : nodo.getFigliNodo()) somma = somma.addizione(daNodo(figlio));
+        return somma;
+      default:
+        Polinomio prodotto = termine(NumeroRazionale.UNO, Monomio.UNO);
+        for (Nodo figlio : nodo.getFigliNodo()) prodotto = prodotto.moltiplicazione(daNodo(figlio));
+        return prodotto;
+    }
+  }
+
+  /**
+   * Metodo che restituisce i termini del polinomio
+   *
+   * @return la mappa, non modificabile e ordinata per monomio, dei coefficienti non nulli
+   */
+  public SortedMap<Monomio, NumeroRazionale> getTermini() {
+    return termini;
+  }
+
+  /**
+   * Metodo che stabilisce se il polinomio è nullo
+   *
+   * @return true se il polinomio non ha termini, false altrimenti
+   */
+  public boolean isZero() {
+    return termini.isEmpty();
+  }
+
+  /**
+   * Metodo che stabilisce se il polinomio è una costante
+   *
+   * @return true se il polinomio non contiene variabili, false altrimenti
+   */
+  public boolean isCostante() {
+    return termini.isEmpty() || (termini.size() == 1 && termini.firstKey().getGrado() == 0);
+  }
+
+  /**
+   * Metodo che restituisce il termine noto del polinomio
+   *
+   * @return il coefficiente del monomio 1
+   */
+  public NumeroRazionale getTermineNoto() {
+    NumeroRazionale noto = termini.get(Monomio.UNO);
+    return noto == null ? NumeroRazionale.ZERO : noto;
+  }
+
+  /**
+   * Metodo che restituisce la somma di due polinomi
+   *
+   * @param altro l'altro polinomio
+   * @return la somma
+   * @throws NullPointerException se l'altro polinomio è null
+   */
+  public Polinomio addizione(Polinomio altro) {
+    Objects.requireNonNull(altro, "Il polinomio non può essere null.");
+    if (altro.isZero()) return this;
+    if (isZero()) return altro;
+    SortedMap<Monomio, NumeroRazionale> somma = new TreeMap<>(termini);
+    for (Map.Entry<Monomio, NumeroRazionale> termine : altro.termini.entrySet()) {
+      accumula(somma, termine.getKey(), termine.getValue());
+    }
+    return new Polinomio(somma);
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di due polinomi
+   *
+   * @param altro l'altro polinomio
+   * @return il prodotto
+   * @throws NullPointerException se l'altro polinomio è null
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public Polinomio moltiplicazione(Polinomio altro) {
+    Objects.requireNonNull(altro, "Il polinomio non può essere null.");
+    SortedMap<Monomio, NumeroRazionale> prodotto = new TreeMap<>();
+    for (Map.Entry<Monomio, NumeroRazionale> primo : termini.entrySet()) {
+      for (Map.Entry<Monomio, NumeroRazionale> secondo : altro.termini.entrySet()) {
+        accumula(
+            prodotto,
+            primo.getKey().moltiplicazione(secondo.getKey()),
+            primo.getValue().moltiplicazione(secondo.getValue()));
+      }
+    }
+    return new Polinomio(prodotto);
+  }
+
+  /**
+   * Metodo che restituisce la potenza del polinomio, calcolata per quadrati successivi
+   *
+   * @param esponente l'esponente
+   * @return la potenza
+   * @throws IllegalArgumentException se l'esponente è negativo
+   * @throws ArithmeticException se un esponente supera il massimo degli interi
+   */
+  public Polinomio potenza(int esponente) {
+    if (esponente < 0)
+      throw new IllegalArgumentException("L'esponente di un polinomio non può essere negativo.");
+    Polinomio risultato = termine(NumeroRazionale.UNO, Monomio.UNO);
+    Polinomio base = this;
+    while (esponente > 0) {
+      if ((esponente & 1) == 1) risultato = risultato.moltiplicazione(base);
+      esponente >>= 1;
+      if (esponente > 0) base = base.moltiplicazione(base);
+    }
+    return risultato;
+  }
+
+  /**
+   * Metodo che restituisce il massimo comune divisore dei monomi del polinomio
+   *
+   * @return il monomio con il minimo esponente di ogni variabile tra i termini, 1 se il polinomio
+   *     è nullo
+   */
+  public Monomio mcdMonomi() {
+    Monomio mcd = null;
+    for (Monomio monomio : termini.keySet()) {
+      mcd = mcd == null ? monomio : mcd.mcd(monomio);
+      if (mcd.getGrado() == 0) break;
+    }
+    return mcd == null ? Monomio.UNO : mcd;
+  }
+
+  /**
+   * Metodo che restituisce il quoziente della divisione per un monomio che divide ogni termine
+   *
+   * @param divisore il divisore
+   * @return il quoziente
+   * @throws NullPointerException se il divisore è null
+   * @throws IllegalArgumentException se il divisore non divide uno dei termini
+   */
+  public Polinomio divisione(Monomio divisore) {
+    Objects.requireNonNull(divisore, "Il monomio non può essere null.");
+    if (divisore.getGrado() == 0) return this;
+    SortedMap<Monomio, NumeroRazionale> quoziente = new TreeMap<>();
+    for (Map.Entry<Monomio, NumeroRazionale> termine : termini.entrySet()) {
+      quoziente.put(termine.getKey().divisione(divisore), termine.getValue());
+    }
+    return new Polinomio(quoziente);
+  }
+
+  /**
+   * Metodo che separa il polinomio secondo la divisibilità dei termini per un monomio
+   *
+   * @param divisore il monomio
+   * @return una lista con il polinomio dei termini non divisibili e il quoziente della divisione
+   *     dei termini divisibili
+   * @throws NullPointerException se il divisore è null
+   */
+  public List<Polinomio> separa(Monomio divisore) {
+    Objects.requireNonNull(divisore, "Il monomio non può essere null.");
+    SortedMap<Monomio, NumeroRazionale> resto = new TreeMap<>();
+    SortedMap<Monomio, NumeroRazionale> quoziente = new TreeMap<>();
+    for (Map.Entry<Monomio, NumeroRazionale> termine : termini.entrySet()) {
+      Monomio monomio = termine.getKey();
+      if (monomio.isDivisibile(divisore))
+        quoziente.put(monomio.divisione(divisore), termine.getValue());
+      else resto.put(monomio, termine.getValue());
+    }
+    return List.of(new Polinomio(resto), new Polinomio(quoziente));
+  }
+
+  /**
+   * Metodo che restituisce l'albero del polinomio in forma espansa, somma di monomi
+   *
+   * @return la radice dell'albero
+   */
+  public Nodo toNodo() {
+    if (isZero()) return new FogliaRazionale(NumeroRazionale.ZERO);
+    List<Nodo> addendi = new ArrayList<>(termini.size());
+    for (Map.Entry<Monomio, NumeroRazionale> termine : termini.entrySet()) {
+      addendi.add(termine.getKey().toNodo(termine.getValue()));
+    }
+    return addendi.size() == 1 ? addendi.get(0) : new NodoAddizione(addendi);
+  }
+
+  /**
+   * Metodo che somma un termine a una mappa di termini, eliminando i coefficienti nulli
+   *
+   * @param termini la mappa dei termini
+   * @param monomio il monomio
+   * @param coefficiente il coefficiente
+   */
+  private static void accumula(
+      SortedMap<Monomio, NumeroRazionale> termini, Monomio monomio, NumeroRazionale coefficiente) {
+    NumeroRazionale somma = termini.merge(monomio, coefficiente, NumeroRazionale::addizione);
+    if (somma.equals(NumeroRazionale.ZERO)) termini.remove(monomio);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Polinomio)) return false;
+    return termini.equals(((Polinomio) o).termini);
+  }
+
+  @Override
+  public int hashCode() {
+    return termini.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    if (isZero()) return "0";
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<Monomio, NumeroRazionale> termine : termini.entrySet()) {
+      if (sb.length() > 0) sb.append(" + ");
+      sb.append(termine.getValue()).append('*').append(termine.getKey());
+    }
+    return sb.toString();
+  }
+}
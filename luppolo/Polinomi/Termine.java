@@ -0,0 +1,85 @@
+package luppolo.Polinomi;
+
+import java.util.Objects;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un termine di un polinomio, cioè un monomio monico
+ * moltiplicato per un coefficiente razionale non nullo.
+ */
+public final class Termine {
+
+  /**
+   * AF: Il termine coefficiente * monomio. IR: coefficiente != null e diverso da zero, monomio !=
+   * null
+   */
+
+  /** Il coefficiente del termine */
+  private final NumeroRazionale coefficiente;
+
+  /** Il monomio del termine */
+  private final Monomio monomio;
+
+  /**
+   * Costruisce un termine a partire dal coefficiente e dal monomio
+   *
+   * @param coefficiente il coefficiente
+   * @param monomio il monomio
+   * @throws NullPointerException se uno dei parametri è null
+   * @throws IllegalArgumentException se il coefficiente è zero
+   */
+  public Termine(NumeroRazionale coefficiente, Monomio monomio) {
+    Objects.requireNonNull(coefficiente, "Il coefficiente non può essere null.");
+    Objects.requireNonNull(monomio, "Il monomio non può essere null.");
+    if (coefficiente.equals(NumeroRazionale.ZERO))
+      throw new IllegalArgumentException("Il coefficiente di un termine non può essere zero.");
+    this.coefficiente = coefficiente;
+    this.monomio = monomio;
+  }
+
+  /**
+   * Metodo che restituisce il coefficiente del termine
+   *
+   * @return il coefficiente
+   */
+  public NumeroRazionale getCoefficiente() {
+    return coefficiente;
+  }
+
+  /**
+   * Metodo che restituisce il monomio del termine
+   *
+   * @return il monomio
+   */
+  public Monomio getMonomio() {
+    return monomio;
+  }
+
+  /**
+   * Metodo che restituisce il nodo corrispondente al termine
+   *
+   * @return il nodo
+   */
+  public Nodo toNodo() {
+    return monomio.toNodo(coefficiente);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Termine)) return false;
+    Termine altro = (Termine) o;
+    return coefficiente.equals(altro.coefficiente) && monomio.equals(altro.monomio);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * coefficiente.hashCode() + monomio.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return coefficiente + "*" + monomio;
+  }
+}
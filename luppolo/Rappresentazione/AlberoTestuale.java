@@ -1,5 +1,7 @@
 package luppolo.Rappresentazione;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Objects;
 import luppolo.Espressione;
@@ -41,48 +43,117 @@ public class AlberoTestuale {
    */
   public String printTree() {
     StringBuilder sb = new StringBuilder();
-    recursiveTree("", getEspressione().getRadice(), false, sb, true);
+    try {
+      printTree(sb);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     return sb.toString();
   }
 
   /**
-   * Metodo statico che costruisce ricorsivamente la stringa rappresentativa dell'espressione a
-   * partire dal nodo radice
+   * Metodo che scrive la rappresentazione testuale dell'espressione direttamente sulla
+   * destinazione, senza costruirla interamente in memoria
+   *
+   * @param destinazione la destinazione su cui scrivere
+   * @throws NullPointerException se la destinazione è null
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  public void printTree(Appendable destinazione) throws IOException {
+    printTree(destinazione, Integer.MAX_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Metodo che scrive la rappresentazione testuale dell'espressione direttamente sulla
+   * destinazione, limitando la profondità e il numero di figli rappresentati per ogni nodo. I nodi
+   * omessi vengono segnalati da una riga "…" con il numero di figli non rappresentati.
+   *
+   * @param destinazione la destinazione su cui scrivere
+   * @param profonditaMassima la profondità massima rappresentata, 0 per la sola radice
+   * @param figliMassimi il numero massimo di figli rappresentati per ogni nodo
+   * @throws NullPointerException se la destinazione è null
+   * @throws IllegalArgumentException se uno dei limiti è negativo
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  public void printTree(Appendable destinazione, int profonditaMassima, int figliMassimi)
+      throws IOException {
+    Objects.requireNonNull(destinazione, "La destinazione non può essere null.");
+    if (profonditaMassima < 0)
+      throw new IllegalArgumentException("La profondità massima non può essere negativa.");
+    if (figliMassimi < 0)
+      throw new IllegalArgumentException("Il numero massimo di figli non può essere negativo.");
+    Nodo radice = getEspressione().getRadice();
+    destinazione.append(radice.getValoreNodo()).append('\n');
+    recursiveTree(new StringBuilder(), radice, 0, destinazione, profonditaMassima, figliMassimi);
+  }
+
+  /**
+   * Metodo statico che scrive ricorsivamente i figli di un nodo sulla destinazione. Il prefisso è
+   * un unico buffer condiviso da tutti i livelli: ogni livello vi aggiunge la propria parte e la
+   * rimuove al termine.
    *
-   * @param prefix il prefisso
-   * @param nodo il nodo da rappresentera
-   * @param isUltimoFiglioGenitore booleano che indica se è l'utlimo figlio del genitore
-   * @param sb stringbuilder che tiene conto della stringa gia costruita
-   * @param isRadice s booleano che indica se stiamo trattando un nodo radice
-   * @throws NullPointerException se la stringa che identifica il prefisso è null
+   * @param prefix il prefisso delle righe dei figli del nodo
+   * @param nodo il nodo di cui rappresentare i figli
+   * @param profondita la profondità del nodo
+   * @param destinazione la destinazione su cui scrivere
+   * @param profonditaMassima la profondità massima rappresentata
+   * @param figliMassimi il numero massimo di figli rappresentati per ogni nodo
+   * @throws NullPointerException se il prefisso è null
    * @throws NullPointerException se il nodo è null
+   * @throws IOException se la scrittura sulla destinazione fallisce
    */
   private static void recursiveTree(
-      String prefix,
+      StringBuilder prefix,
       Nodo nodo,
-      boolean isUltimoFiglioGenitore,
-      StringBuilder sb,
-      boolean isRadice) {
+      int profondita,
+      Appendable destinazione,
+      int profonditaMassima,
+      int figliMassimi)
+      throws IOException {
     Objects.requireNonNull(prefix, "Il prefisso non può essere nullo");
     Objects.requireNonNull(nodo, "Il nodo non può essre null");
-    if (isRadice) {
-      sb.append(nodo.getValoreNodo()).append("\n");
-    } else {
-      sb.append(prefix)
-          .append(isUltimoFiglioGenitore ? "╰── " : "├── ")
-          .append(nodo.getValoreNodo())
-          .append("\n");
-    }
     List<Nodo> figli = nodo.getFigliNodo();
     if (figli.isEmpty()) {
       return;
     }
-    for (int i = 0; i < figli.size(); i++) {
+    if (profondita >= profonditaMassima) {
+      scriviOmessi(prefix, figli.size(), destinazione);
+      return;
+    }
+    int daRappresentare = Math.min(figli.size(), figliMassimi);
+    for (int i = 0; i < daRappresentare; i++) {
       Nodo figlio = figli.get(i);
       boolean isUltimoFiglio = (i == figli.size() - 1);
-      String nuovoPrefix =
-          isRadice ? prefix : (prefix + (isUltimoFiglioGenitore ? "    " : "│   "));
-      recursiveTree(nuovoPrefix, figlio, isUltimoFiglio, sb, false);
+      destinazione
+          .append(prefix)
+          .append(isUltimoFiglio ? "╰── " : "├── ")
+          .append(figlio.getValoreNodo())
+          .append('\n');
+      int lunghezza = prefix.length();
+      prefix.append(isUltimoFiglio ? "    " : "│   ");
+      recursiveTree(prefix, figlio, profondita + 1, destinazione, profonditaMassima, figliMassimi);
+      prefix.setLength(lunghezza);
+    }
+    if (daRappresentare < figli.size()) {
+      scriviOmessi(prefix, figli.size() - daRappresentare, destinazione);
     }
   }
+
+  /**
+   * Metodo statico che scrive la riga che segnala i figli omessi di un nodo
+   *
+   * @param prefix il prefisso delle righe dei figli del nodo
+   * @param omessi il numero di figli omessi
+   * @param destinazione la destinazione su cui scrivere
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  private static void scriviOmessi(StringBuilder prefix, int omessi, Appendable destinazione)
+      throws IOException {
+    destinazione
+        .append(prefix)
+        .append("╰── … (")
+        .append(String.valueOf(omessi))
+        .append(omessi == 1 ? " figlio omesso)" : " figli omessi)")
+        .append('\n');
+  }
 }
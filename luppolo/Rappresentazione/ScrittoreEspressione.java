@@ -0,0 +1,243 @@
+package luppolo.Rappresentazione;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe non istanziabile scrive un albero di nodi in un'unica visita, sia nella forma
+ * funzionale {@code +(a, b)} sia nella notazione polacca letta da AlberoNotazionePolacca. Le
+ * stringhe vengono costruite in un solo buffer, dimensionato calcolando prima la lunghezza esatta
+ * del risultato.
+ *
+ * <p>Nella notazione polacca i nodi addizione e moltiplicazione con n figli vengono scritti come
+ * n-1 operatori binari annidati a destra, e le foglie razionali non intere come divisione {@code /
+ * numeratore denominatore}: la lettura restituisce quindi un'espressione equivalente.
+ */
+public final class ScrittoreEspressione {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private ScrittoreEspressione() {}
+
+  /**
+   * Metodo che restituisce la forma funzionale di un nodo
+   *
+   * @param nodo il nodo da scrivere
+   * @return la forma funzionale del nodo
+   * @throws NullPointerException se il nodo è null
+   */
+  public static String funzionale(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    StringBuilder sb = new StringBuilder(capacita(lunghezzaFunzionale(nodo)));
+    try {
+      scriviFunzionale(nodo, sb);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Metodo che scrive la forma funzionale di un nodo sulla destinazione
+   *
+   * @param nodo il nodo da scrivere
+   * @param destinazione la destinazione su cui scrivere
+   * @throws NullPointerException se il nodo o la destinazione sono null
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  public static void funzionale(Nodo nodo, Appendable destinazione) throws IOException {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    Objects.requireNonNull(destinazione, "La destinazione non può essere null.");
+    scriviFunzionale(nodo, destinazione);
+  }
+
+  /**
+   * Metodo che restituisce la notazione polacca di un nodo
+   *
+   * @param nodo il nodo da scrivere
+   * @return la notazione polacca del nodo
+   * @throws NullPointerException se il nodo è null
+   */
+  public static String polacca(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    StringBuilder sb = new StringBuilder(capacita(lunghezzaPolacca(nodo)));
+    try {
+      scriviPolacca(nodo, sb);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Metodo che scrive la notazione polacca di un nodo sulla destinazione
+   *
+   * @param nodo il nodo da scrivere
+   * @param destinazione la destinazione su cui scrivere
+   * @throws NullPointerException se il nodo o la destinazione sono null
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  public static void polacca(Nodo nodo, Appendable destinazione) throws IOException {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    Objects.requireNonNull(destinazione, "La destinazione non può essere null.");
+    scriviPolacca(nodo, destinazione);
+  }
+
+  /**
+   * Metodo che calcola, senza costruirla, la lunghezza della forma funzionale di un nodo
+   *
+   * @param nodo il nodo
+   * @return il numero di caratteri della forma funzionale
+   * @throws NullPointerException se il nodo è null
+   */
+  public static long lunghezzaFunzionale(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        NumeroRazionale valore = nodo.evaluate();
+        if (valore.getDenominatore() == 1) return cifre(valore.getNumeratore());
+        return cifre(valore.getNumeratore()) + 1 + cifre(valore.getDenominatore());
+      case SIMBOLO:
+        return nodo.getValoreNodo().length();
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        long lunghezza = nodo.getValoreNodo().length() + 2 + 2L * (figli.size() - 1);
+        for (Nodo figlio : figli) {
+          lunghezza += lunghezzaFunzionale(figlio);
+        }
+        return lunghezza;
+    }
+  }
+
+  /**
+   * Metodo che calcola, senza costruirla, la lunghezza della notazione polacca di un nodo
+   *
+   * @param nodo il nodo
+   * @return il numero di caratteri della notazione polacca
+   * @throws NullPointerException se il nodo è null
+   */
+  public static long lunghezzaPolacca(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        NumeroRazionale valore = nodo.evaluate();
+        if (valore.getDenominatore() == 1) return cifre(valore.getNumeratore());
+        return 2 + cifre(valore.getNumeratore()) + 1 + cifre(valore.getDenominatore());
+      case SIMBOLO:
+        return nodo.getValoreNodo().length();
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        long lunghezza = (nodo.getValoreNodo().length() + 2L) * (figli.size() - 1);
+        for (Nodo figlio : figli) {
+          lunghezza += lunghezzaPolacca(figlio);
+        }
+        return lunghezza;
+    }
+  }
+
+  /**
+   * Metodo che scrive ricorsivamente la forma funzionale di un nodo
+   *
+   * @param nodo il nodo da scrivere
+   * @param destinazione la destinazione su cui scrivere
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  private static void scriviFunzionale(Nodo nodo, Appendable destinazione) throws IOException {
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        scriviRazionale(nodo.evaluate(), "", "/", destinazione);
+        return;
+      case SIMBOLO:
+        destinazione.append(nodo.getValoreNodo());
+        return;
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        destinazione.append(nodo.getValoreNodo()).append('(');
+        for (int i = 0; i < figli.size(); i++) {
+          if (i > 0) destinazione.append(", ");
+          scriviFunzionale(figli.get(i), destinazione);
+        }
+        destinazione.append(')');
+    }
+  }
+
+  /**
+   * Metodo che scrive ricorsivamente la notazione polacca di un nodo
+   *
+   * @param nodo il nodo da scrivere
+   * @param destinazione la destinazione su cui scrivere
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  private static void scriviPolacca(Nodo nodo, Appendable destinazione) throws IOException {
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        scriviRazionale(nodo.evaluate(), "/ ", " ", destinazione);
+        return;
+      case SIMBOLO:
+        destinazione.append(nodo.getValoreNodo());
+        return;
+      default:
+        List<Nodo> figli = nodo.getFigliNodo();
+        for (int i = 0; i < figli.size() - 1; i++) {
+          destinazione.append(nodo.getValoreNodo()).append(' ');
+          scriviPolacca(figli.get(i), destinazione);
+          destinazione.append(' ');
+        }
+        scriviPolacca(figli.get(figli.size() - 1), destinazione);
+    }
+  }
+
+  /**
+   * Metodo che scrive un numero razionale, separando numeratore e denominatore solo se il numero
+   * non è intero
+   *
+   * @param valore il numero da scrivere
+   * @param prefisso il testo che precede un numero non intero
+   * @param separatore il testo tra numeratore e denominatore
+   * @param destinazione la destinazione su cui scrivere
+   * @throws IOException se la scrittura sulla destinazione fallisce
+   */
+  private static void scriviRazionale(
+      NumeroRazionale valore, String prefisso, String separatore, Appendable destinazione)
+      throws IOException {
+    if (valore.getDenominatore() == 1) {
+      destinazione.append(Long.toString(valore.getNumeratore()));
+      return;
+    }
+    destinazione
+        .append(prefisso)
+        .append(Long.toString(valore.getNumeratore()))
+        .append(separatore)
+        .append(Long.toString(valore.getDenominatore()));
+  }
+
+  /**
+   * Metodo che restituisce il numero di caratteri di un long scritto in base dieci, segno compreso
+   *
+   * @param numero il numero
+   * @return il numero di caratteri
+   */
+  private static int cifre(long numero) {
+    if (numero == Long.MIN_VALUE) return 20;
+    int cifre = numero < 0 ? 2 : 1;
+    for (long resto = Math.abs(numero); resto >= 10; resto /= 10) {
+      cifre++;
+    }
+    return cifre;
+  }
+
+  /**
+   * Metodo che restituisce la capacità iniziale del buffer per una lunghezza data
+   *
+   * @param lunghezza la lunghezza del risultato
+   * @return la capacità del buffer
+   * @throws OutOfMemoryError se il risultato non può essere contenuto in una stringa
+   */
+  private static int capacita(long lunghezza) {
+    if (lunghezza > Integer.MAX_VALUE - 8)
+      throw new OutOfMemoryError("La rappresentazione supera la lunghezza massima di una stringa");
+    return (int) lunghezza;
+  }
+}
@@ -0,0 +1,240 @@
+package luppolo.Riscrittura;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoPotenza;
+
+/**
+ * OVERVIEW: La classe immutabile indicizza un insieme di regole in un albero di discriminazione.
+ * Ogni modello è ridotto alla sequenza in preordine dei suoi simboli di testa, in cui le variabili
+ * diventano jolly; un nodo viene confrontato soltanto con le regole la cui sequenza è compatibile
+ * con la sua. Le addizioni e le moltiplicazioni sono indicizzate per tipo e numero di figli, o per
+ * solo tipo se il modello ha un resto, senza discendere nei figli perché commutative.
+ */
+public class AlberoDiscriminazione {
+
+  /** Il valore delle chiavi che corrisponde a qualunque valore dello stesso tipo */
+  private static final Object QUALSIASI = new Object();
+
+  /**
+   * AF: La regola regole[i] è candidata per un nodo se la sua sequenza di simboli di testa porta
+   * dalla radice a un vertice che contiene i. IR: regole != null, radice != null, gli indici nei
+   * vertici sono indici validi di regole
+   */
+
+  /** Le regole indicizzate, in ordine di priorità */
+  private final List<Regola> regole;
+
+  /** La radice dell'albero */
+  private final Vertice radice = new Vertice();
+
+  /**
+   * Costruisce l'indice delle regole date
+   *
+   * @param regole le regole, in ordine di priorità
+   * @throws NullPointerException se le regole o una di esse sono null
+   */
+  public AlberoDiscriminazione(List<Regola> regole) {
+    Objects.requireNonNull(regole, "Le regole non possono essere null.");
+    this.regole = List.copyOf(regole);
+    for (int i = 0; i < this.regole.size(); i++) {
+      inserisci(radice, this.regole.get(i).getModello()).regole.set(i);
+    }
+  }
+
+  /**
+   * Metodo che restituisce le regole indicizzate
+   *
+   * @return la lista, non modificabile, delle regole
+   */
+  public List<Regola> getRegole() {
+    return regole;
+  }
+
+  /**
+   * Metodo che restituisce le regole che potrebbero applicarsi a un nodo, in ordine di priorità
+   *
+   * @param nodo il nodo
+   * @return la lista delle regole candidate
+   * @throws NullPointerException se il nodo è null
+   */
+  public List<Regola> candidate(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    BitSet trovate = new BitSet(regole.size());
+    cerca(radice, new Coda(nodo, null), trovate);
+    List<Regola> candidate = new ArrayList<>(trovate.cardinality());
+    for (int i = trovate.nextSetBit(0); i >= 0; i = trovate.nextSetBit(i + 1)) {
+      candidate.add(regole.get(i));
+    }
+    return candidate;
+  }
+
+  /**
+   * Metodo mutazionale che inserisce la sequenza dei simboli di testa di un modello a partire da
+   * un vertice
+   *
+   * @param vertice il vertice di partenza
+   * @param modello il modello
+   * @return il vertice raggiunto al termine della sequenza
+   */
+  private static Vertice inserisci(Vertice vertice, Modello modello) {
+    switch (modello.getGenere()) {
+      case VARIABILE:
+        if (vertice.jolly == null) vertice.jolly = new Vertice();
+        return vertice.jolly;
+      case RAZIONALE:
+        return vertice.figlio(new Chiave(EnumNodo.RAZIONALE, QUALSIASI));
+      case COSTANTE:
+        return vertice.figlio(new Chiave(EnumNodo.RAZIONALE, modello.getValore()));
+      case SIMBOLO:
+        return vertice.figlio(new Chiave(EnumNodo.SIMBOLO, modello.getNome()));
+      case POTENZA:
+        Vertice potenza = vertice.figlio(new Chiave(EnumNodo.POTENZA, null));
+        Vertice base = inserisci(potenza, modello.getFigli().get(0));
+        return inserisci(base, modello.getFigli().get(1));
+      case ADDIZIONE:
+      case MOLTIPLICAZIONE:
+        EnumNodo tipo =
+            modello.getGenere() == Modello.Genere.ADDIZIONE
+                ? EnumNodo.ADDIZIONE
+                : EnumNodo.MOLTIPLICAZIONE;
+        Object figli = modello.haResto() ? QUALSIASI : modello.getFigli().size();
+        return vertice.figlio(new Chiave(tipo, figli));
+      default:
+        throw new IllegalArgumentException("Un resto non può comparire fuori da un modello.");
+    }
+  }
+
+  /**
+   * Metodo che raccoglie le regole compatibili con i sottoalberi ancora da esaminare
+   *
+   * @param vertice il vertice corrente
+   * @param coda i sottoalberi ancora da esaminare, null se esauriti
+   * @param trovate gli indici delle regole trovate
+   */
+  private static void cerca(Vertice vertice, Coda coda, BitSet trovate) {
+    if (coda == null) {
+      trovate.or(vertice.regole);
+      return;
+    }
+    Nodo nodo = coda.testa;
+    Coda resto = coda.resto;
+    if (vertice.jolly != null) cerca(vertice.jolly, resto, trovate);
+    if (vertice.figli.isEmpty()) return;
+    switch (nodo.getTipoNodo()) {
+      case RAZIONALE:
+        segui(vertice, new Chiave(EnumNodo.RAZIONALE, nodo.evaluate()), resto, trovate);
+        segui(vertice, new Chiave(EnumNodo.RAZIONALE, QUALSIASI), resto, trovate);
+        break;
+      case SIMBOLO:
+        segui(vertice, new Chiave(EnumNodo.SIMBOLO, nodo.getValoreNodo()), resto, trovate);
+        break;
+      case POTENZA:
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        Coda figli = new Coda(potenza.getBase(), new Coda(potenza.getEsponente(), resto));
+        segui(vertice, new Chiave(EnumNodo.POTENZA, null), figli, trovate);
+        break;
+      default:
+        int numeroFigli = nodo.getFigliNodo().size();
+        segui(vertice, new Chiave(nodo.getTipoNodo(), numeroFigli), resto, trovate);
+        segui(vertice, new Chiave(nodo.getTipoNodo(), QUALSIASI), resto, trovate);
+    }
+  }
+
+  /**
+   * Metodo che prosegue la ricerca nel figlio di un vertice, se esiste
+   *
+   * @param vertice il vertice corrente
+   * @param chiave la chiave del figlio
+   * @param coda i sottoalberi ancora da esaminare
+   * @param trovate gli indici delle regole trovate
+   */
+  private static void segui(Vertice vertice, Chiave chiave, Coda coda, BitSet trovate) {
+    Vertice figlio = vertice.figli.get(chiave);
+    if (figlio != null) cerca(figlio, coda, trovate);
+  }
+
+  /** OVERVIEW: Vertice mutabile dell'albero di discriminazione */
+  private static final class Vertice {
+
+    /** I figli, per simbolo di testa */
+    private final Map<Chiave, Vertice> figli = new HashMap<>();
+
+    /** Il figlio raggiunto da una variabile, null se assente */
+    private Vertice jolly;
+
+    /** Gli indici delle regole la cui sequenza termina nel vertice */
+    private final BitSet regole = new BitSet();
+
+    /**
+     * Metodo che restituisce il figlio per una chiave, creandolo se assente
+     *
+     * @param chiave la chiave
+     * @return il figlio
+     */
+    private Vertice figlio(Chiave chiave) {
+      return figli.computeIfAbsent(chiave, k -> new Vertice());
+    }
+  }
+
+  /** OVERVIEW: Chiave immutabile di un simbolo di testa, formata da tipo e valore */
+  private static final class Chiave {
+
+    /** Il tipo del nodo */
+    private final EnumNodo tipo;
+
+    /** Il valore della foglia, il numero di figli o QUALSIASI; null per le potenze */
+    private final Object valore;
+
+    /**
+     * Costruisce una chiave
+     *
+     * @param tipo il tipo del nodo
+     * @param valore il valore
+     */
+    private Chiave(EnumNodo tipo, Object valore) {
+      this.tipo = tipo;
+      this.valore = valore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Chiave)) return false;
+      Chiave altra = (Chiave) o;
+      return tipo == altra.tipo && Objects.equals(valore, altra.valore);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * tipo.hashCode() + Objects.hashCode(valore);
+    }
+  }
+
+  /** OVERVIEW: Lista concatenata immutabile dei sottoalberi ancora da esaminare */
+  private static final class Coda {
+
+    /** Il prossimo sottoalbero */
+    private final Nodo testa;
+
+    /** I sottoalberi successivi, null se assenti */
+    private final Coda resto;
+
+    /**
+     * Costruisce una coda
+     *
+     * @param testa il prossimo sottoalbero
+     * @param resto i sottoalberi successivi
+     */
+    private Coda(Nodo testa, Coda resto) {
+      this.testa = testa;
+      this.resto = resto;
+    }
+  }
+}
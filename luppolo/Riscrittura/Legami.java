@@ -0,0 +1,141 @@
+package luppolo.Riscrittura;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe rappresenta i legami tra le variabili di un modello e i nodi con cui il
+ * modello è stato fatto corrispondere. Le variabili resto sono legate alla lista dei figli non
+ * assegnati agli altri elementi del modello.
+ */
+public class Legami {
+
+  /**
+   * AF: Ogni variabile nome è legata al nodo nodi(nome) e ogni variabile resto nome alla lista
+   * resti(nome). IR: nodi != null, resti != null, nessuna chiave o valore è null
+   */
+
+  /** I nodi legati alle variabili */
+  private final Map<String, Nodo> nodi;
+
+  /** Le liste di nodi legate alle variabili resto */
+  private final Map<String, List<Nodo>> resti;
+
+  /** Costruisce legami vuoti */
+  Legami() {
+    this(new HashMap<>(), new HashMap<>());
+  }
+
+  /**
+   * Costruisce legami a partire dalle mappe date, senza copiarle
+   *
+   * @param nodi i nodi legati alle variabili
+   * @param resti le liste legate alle variabili resto
+   */
+  private Legami(Map<String, Nodo> nodi, Map<String, List<Nodo>> resti) {
+    this.nodi = nodi;
+    this.resti = resti;
+  }
+
+  /**
+   * Metodo che restituisce il nodo legato a una variabile
+   *
+   * @param nome il nome della variabile
+   * @return il nodo legato
+   * @throws NullPointerException se il nome è null
+   * @throws IllegalArgumentException se la variabile non è legata
+   */
+  public Nodo get(String nome) {
+    Objects.requireNonNull(nome, "Il nome della variabile non può essere null.");
+    Nodo nodo = nodi.get(nome);
+    if (nodo == null) throw new IllegalArgumentException("La variabile " + nome + " non è legata");
+    return nodo;
+  }
+
+  /**
+   * Metodo che restituisce il valore del nodo razionale legato a una variabile
+   *
+   * @param nome il nome della variabile
+   * @return il valore del nodo legato
+   * @throws NullPointerException se il nome è null
+   * @throws IllegalArgumentException se la variabile non è legata a una foglia razionale
+   */
+  public NumeroRazionale razionale(String nome) {
+    Nodo nodo = get(nome);
+    if (nodo.getTipoNodo() != EnumNodo.RAZIONALE)
+      throw new IllegalArgumentException("La variabile " + nome + " non è legata a un razionale");
+    return nodo.evaluate();
+  }
+
+  /**
+   * Metodo che restituisce la lista di nodi legata a una variabile resto
+   *
+   * @param nome il nome della variabile resto
+   * @return la lista, non modificabile, dei nodi legati
+   * @throws NullPointerException se il nome è null
+   * @throws IllegalArgumentException se la variabile resto non è legata
+   */
+  public List<Nodo> resto(String nome) {
+    Objects.requireNonNull(nome, "Il nome della variabile non può essere null.");
+    List<Nodo> resto = resti.get(nome);
+    if (resto == null)
+      throw new IllegalArgumentException("La variabile resto " + nome + " non è legata");
+    return resto;
+  }
+
+  /**
+   * Metodo mutazionale che lega una variabile a un nodo, se non è già legata a un nodo diverso
+   *
+   * @param nome il nome della variabile
+   * @param nodo il nodo
+   * @return true se il legame è coerente con quelli esistenti, false altrimenti
+   */
+  boolean lega(String nome, Nodo nodo) {
+    Nodo esistente = nodi.putIfAbsent(nome, nodo);
+    return esistente == null || esistente.equals(nodo);
+  }
+
+  /**
+   * Metodo mutazionale che lega una variabile resto a una lista di nodi, se non è già legata a una
+   * lista diversa
+   *
+   * @param nome il nome della variabile resto
+   * @param resto la lista di nodi
+   * @return true se il legame è coerente con quelli esistenti, false altrimenti
+   */
+  boolean legaResto(String nome, List<Nodo> resto) {
+    List<Nodo> esistente = resti.putIfAbsent(nome, List.copyOf(resto));
+    return esistente == null || esistente.equals(resto);
+  }
+
+  /**
+   * Metodo che restituisce una copia indipendente dei legami
+   *
+   * @return la copia
+   */
+  Legami copia() {
+    return new Legami(new HashMap<>(nodi), new HashMap<>(resti));
+  }
+
+  /**
+   * Metodo mutazionale che sostituisce i legami con quelli dati
+   *
+   * @param altri i legami da copiare
+   */
+  void assegna(Legami altri) {
+    nodi.clear();
+    nodi.putAll(altri.nodi);
+    resti.clear();
+    resti.putAll(altri.resti);
+  }
+
+  @Override
+  public String toString() {
+    return "Legami{" + nodi + ", " + resti + "}";
+  }
+}
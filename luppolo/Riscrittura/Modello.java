@@ -0,0 +1,359 @@
+package luppolo.Riscrittura;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import luppolo.Nodo.EnumNodo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un modello sulla forma dei nodi, con variabili che si
+ * legano ai sottoalberi. I figli dei modelli addizione e moltiplicazione corrispondono ai figli del
+ * nodo in qualunque ordine, essendo le operazioni commutative; un elemento resto raccoglie i figli
+ * non assegnati agli altri elementi.
+ */
+public class Modello {
+
+  /** OVERVIEW: Enum che definisce il genere di un modello */
+  enum Genere {
+    /** Una variabile che corrisponde a qualunque nodo */
+    VARIABILE,
+    /** Una variabile che corrisponde a qualunque foglia razionale */
+    RAZIONALE,
+    /** Una foglia razionale di valore fissato */
+    COSTANTE,
+    /** Una foglia simbolo di valore fissato */
+    SIMBOLO,
+    /** Un nodo potenza */
+    POTENZA,
+    /** Un nodo addizione */
+    ADDIZIONE,
+    /** Un nodo moltiplicazione */
+    MOLTIPLICAZIONE,
+    /** Una variabile che raccoglie i figli restanti di un'addizione o moltiplicazione */
+    RESTO;
+  }
+
+  /**
+   * AF: Il modello di genere genere, con nome per le variabili, valore per le costanti e i simboli,
+   * e figli per i nodi interni. IR: genere != null, figli != null, nome != null per variabili e
+   * simboli, valore != null per le costanti, figli contiene due modelli per le potenze, al più un
+   * resto per addizioni e moltiplicazioni e nessun resto altrove
+   */
+
+  /** Il genere del modello */
+  private final Genere genere;
+
+  /** Il nome della variabile o del simbolo, null per gli altri generi */
+  private final String nome;
+
+  /** Il valore della costante, null per gli altri generi */
+  private final NumeroRazionale valore;
+
+  /** I modelli dei figli, vuota per le foglie */
+  private final List<Modello> figli;
+
+  /**
+   * Costruisce un modello
+   *
+   * @param genere il genere
+   * @param nome il nome della variabile o del simbolo
+   * @param valore il valore della costante
+   * @param figli i modelli dei figli
+   */
+  private Modello(Genere genere, String nome, NumeroRazionale valore, List<Modello> figli) {
+    this.genere = genere;
+    this.nome = nome;
+    this.valore = valore;
+    this.figli = figli;
+  }
+
+  /**
+   * Metodo che restituisce il modello di una variabile che corrisponde a qualunque nodo
+   *
+   * @param nome il nome della variabile
+   * @return il modello
+   * @throws NullPointerException se il nome è null
+   */
+  public static Modello variabile(String nome) {
+    Objects.requireNonNull(nome, "Il nome della variabile non può essere null.");
+    return new Modello(Genere.VARIABILE, nome, null, List.of());
+  }
+
+  /**
+   * Metodo che restituisce il modello di una variabile che corrisponde a qualunque foglia razionale
+   *
+   * @param nome il nome della variabile
+   * @return il modello
+   * @throws NullPointerException se il nome è null
+   */
+  public static Modello razionale(String nome) {
+    Objects.requireNonNull(nome, "Il nome della variabile non può essere null.");
+    return new Modello(Genere.RAZIONALE, nome, null, List.of());
+  }
+
+  /**
+   * Metodo che restituisce il modello di una foglia razionale di valore fissato
+   *
+   * @param valore il valore della foglia
+   * @return il modello
+   * @throws NullPointerException se il valore è null
+   */
+  public static Modello costante(NumeroRazionale valore) {
+    Objects.requireNonNull(valore, "Il valore della costante non può essere null.");
+    return new Modello(Genere.COSTANTE, null, valore, List.of());
+  }
+
+  /**
+   * Metodo che restituisce il modello di una foglia simbolo di valore fissato
+   *
+   * @param simbolo il valore della foglia
+   * @return il modello
+   * @throws NullPointerException se il simbolo è null
+   */
+  public static Modello simbolo(String simbolo) {
+    Objects.requireNonNull(simbolo, "Il simbolo non può essere null.");
+    return new Modello(Genere.SIMBOLO, simbolo, null, List.of());
+  }
+
+  /**
+   * Metodo che restituisce il modello di una variabile resto, che raccoglie i figli di
+   * un'addizione o di una moltiplicazione non assegnati agli altri elementi del modello
+   *
+   * @param nome il nome della variabile resto
+   * @return il modello
+   * @throws NullPointerException se il nome è null
+   */
+  public static Modello resto(String nome) {
+    Objects.requireNonNull(nome, "Il nome della variabile non può essere null.");
+    return new Modello(Genere.RESTO, nome, null, List.of());
+  }
+
+  /**
+   * Metodo che restituisce il modello di un nodo potenza
+   *
+   * @param base il modello della base
+   * @param esponente il modello dell'esponente
+   * @return il modello
+   * @throws NullPointerException se uno dei modelli è null
+   * @throws IllegalArgumentException se uno dei modelli è un resto
+   */
+  public static Modello potenza(Modello base, Modello esponente) {
+    return new Modello(Genere.POTENZA, null, null, controllaFigli(List.of(base, esponente), false));
+  }
+
+  /**
+   * Metodo che restituisce il modello di un nodo addizione
+   *
+   * @param figli i modelli degli addendi, con al più un resto
+   * @return il modello
+   * @throws NullPointerException se uno dei modelli è null
+   * @throws IllegalArgumentException se non ci sono figli o ci sono più resti
+   */
+  public static Modello addizione(Modello... figli) {
+    return new Modello(Genere.ADDIZIONE, null, null, controllaFigli(Arrays.asList(figli), true));
+  }
+
+  /**
+   * Metodo che restituisce il modello di un nodo moltiplicazione
+   *
+   * @param figli i modelli dei fattori, con al più un resto
+   * @return il modello
+   * @throws NullPointerException se uno dei modelli è null
+   * @throws IllegalArgumentException se non ci sono figli o ci sono più resti
+   */
+  public static Modello moltiplicazione(Modello... figli) {
+    return new Modello(
+        Genere.MOLTIPLICAZIONE, null, null, controllaFigli(Arrays.asList(figli), true));
+  }
+
+  /**
+   * Metodo che controlla i modelli dei figli di un nodo interno
+   *
+   * @param figli i modelli dei figli
+   * @param ammessoResto true se è ammesso un resto
+   * @return una copia non modificabile dei modelli
+   * @throws NullPointerException se uno dei modelli è null
+   * @throws IllegalArgumentException se non ci sono figli o i resti non sono ammessi
+   */
+  private static List<Modello> controllaFigli(List<Modello> figli, boolean ammessoResto) {
+    if (figli.isEmpty())
+      throw new IllegalArgumentException("Un modello interno deve avere almeno un figlio.");
+    int resti = 0;
+    for (Modello figlio : figli) {
+      Objects.requireNonNull(figlio, "Ogni modello figlio non può essere null.");
+      if (figlio.genere == Genere.RESTO) resti++;
+    }
+    if (resti > (ammessoResto ? 1 : 0))
+      throw new IllegalArgumentException("Il modello ammette al più un resto per nodo.");
+    return List.copyOf(figli);
+  }
+
+  /**
+   * Metodo che restituisce il genere del modello
+   *
+   * @return il genere
+   */
+  Genere getGenere() {
+    return genere;
+  }
+
+  /**
+   * Metodo che restituisce il nome della variabile o del simbolo
+   *
+   * @return il nome
+   */
+  String getNome() {
+    return nome;
+  }
+
+  /**
+   * Metodo che restituisce il valore della costante
+   *
+   * @return il valore
+   */
+  NumeroRazionale getValore() {
+    return valore;
+  }
+
+  /**
+   * Metodo che restituisce i modelli dei figli
+   *
+   * @return i modelli dei figli
+   */
+  List<Modello> getFigli() {
+    return figli;
+  }
+
+  /**
+   * Metodo che stabilisce se il modello ha un resto tra i figli
+   *
+   * @return true se uno dei figli è un resto, false altrimenti
+   */
+  boolean haResto() {
+    for (Modello figlio : figli) {
+      if (figlio.genere == Genere.RESTO) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Metodo che fa corrispondere il modello a un nodo, estendendo i legami. Se la corrispondenza
+   * fallisce i legami possono restare modificati.
+   *
+   * @param nodo il nodo
+   * @param legami i legami da estendere
+   * @return true se il modello corrisponde al nodo, false altrimenti
+   */
+  boolean corrisponde(Nodo nodo, Legami legami) {
+    switch (genere) {
+      case VARIABILE:
+        return legami.lega(nome, nodo);
+      case RAZIONALE:
+        return nodo.getTipoNodo() == EnumNodo.RAZIONALE && legami.lega(nome, nodo);
+      case COSTANTE:
+        return nodo.getTipoNodo() == EnumNodo.RAZIONALE && nodo.evaluate().equals(valore);
+      case SIMBOLO:
+        return nodo.getTipoNodo() == EnumNodo.SIMBOLO && nodo.getValoreNodo().equals(nome);
+      case POTENZA:
+        if (nodo.getTipoNodo() != EnumNodo.POTENZA) return false;
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        return figli.get(0).corrisponde(potenza.getBase(), legami)
+            && figli.get(1).corrisponde(potenza.getEsponente(), legami);
+      case ADDIZIONE:
+      case MOLTIPLICAZIONE:
+        if (!nodo.getTipoNodo().name().equals(genere.name())) return false;
+        return corrispondeFigli(nodo.getFigliNodo(), legami);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Metodo che fa corrispondere i modelli dei figli ai figli di un nodo commutativo, cercando un
+   * assegnamento di ogni modello a un figlio diverso
+   *
+   * @param nodi i figli del nodo
+   * @param legami i legami da estendere
+   * @return true se esiste un assegnamento coerente, false altrimenti
+   */
+  private boolean corrispondeFigli(List<Nodo> nodi, Legami legami) {
+    List<Modello> elementi = new ArrayList<>();
+    Modello resto = null;
+    for (Modello figlio : figli) {
+      if (figlio.genere == Genere.RESTO) resto = figlio;
+      else elementi.add(figlio);
+    }
+    if (elementi.size() > nodi.size()) return false;
+    if (resto == null && elementi.size() != nodi.size()) return false;
+    return assegna(elementi, 0, nodi, new boolean[nodi.size()], resto, legami);
+  }
+
+  /**
+   * Metodo che assegna ricorsivamente, con backtracking, i modelli dei figli ai figli del nodo
+   *
+   * @param elementi i modelli dei figli, escluso il resto
+   * @param indice l'indice del prossimo modello da assegnare
+   * @param nodi i figli del nodo
+   * @param usati i figli già assegnati
+   * @param resto il modello resto, null se assente
+   * @param legami i legami da estendere
+   * @return true se esiste un assegnamento coerente, false altrimenti
+   */
+  private static boolean assegna(
+      List<Modello> elementi,
+      int indice,
+      List<Nodo> nodi,
+      boolean[] usati,
+      Modello resto,
+      Legami legami) {
+    if (indice == elementi.size()) {
+      if (resto == null) return true;
+      List<Nodo> restanti = new ArrayList<>();
+      for (int j = 0; j < nodi.size(); j++) {
+        if (!usati[j]) restanti.add(nodi.get(j));
+      }
+      return legami.legaResto(resto.nome, restanti);
+    }
+    for (int j = 0; j < nodi.size(); j++) {
+      if (usati[j]) continue;
+      Legami tentativo = legami.copia();
+      if (!elementi.get(indice).corrisponde(nodi.get(j), tentativo)) continue;
+      usati[j] = true;
+      if (assegna(elementi, indice + 1, nodi, usati, resto, tentativo)) {
+        legami.assegna(tentativo);
+        return true;
+      }
+      usati[j] = false;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    switch (genere) {
+      case VARIABILE:
+        return "?" + nome;
+      case RAZIONALE:
+        return "?" + nome + ":Q";
+      case COSTANTE:
+        return valore.toString();
+      case SIMBOLO:
+        return nome;
+      case RESTO:
+        return "?" + nome + "...";
+      case POTENZA:
+        return "^(" + figli.get(0) + ", " + figli.get(1) + ")";
+      default:
+        StringBuilder sb = new StringBuilder(genere == Genere.ADDIZIONE ? "+(" : "*(");
+        for (int i = 0; i < figli.size(); i++) {
+          if (i > 0) sb.append(", ");
+          sb.append(figli.get(i));
+        }
+        return sb.append(')').toString();
+    }
+  }
+}
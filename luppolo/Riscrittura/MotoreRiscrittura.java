@@ -0,0 +1,161 @@
+package luppolo.Riscrittura;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import luppolo.Manipolazione.Budget;
+import luppolo.Manipolazione.LimiteSuperatoException;
+import luppolo.Manipolazione.VisitorLimitato;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe che estende il visitor limitato riscrive un albero secondo un insieme di
+ * regole, dal basso verso l'alto: prima vengono riscritti i figli di un nodo, poi si applicano al
+ * nodo le regole candidate dell'albero di discriminazione finché nessuna si applica più. A parità
+ * di nodo vale la prima regola applicabile nell'ordine dato. L'esponente delle potenze, sempre
+ * razionale, non viene riscritto. Un'istanza va usata per una sola riscrittura, perché ricorda i
+ * nodi già in forma normale.
+ */
+public class MotoreRiscrittura extends VisitorLimitato {
+
+  /** Il numero massimo di riscritture consecutive alla radice di uno stesso nodo */
+  public static final int RISCRITTURE_MASSIME = 1_000;
+
+  /** L'indice delle regole */
+  private final AlberoDiscriminazione indice;
+
+  /** I nodi già in forma normale, per identità */
+  private final Set<Nodo> normali = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * Costruisce un motore di riscrittura senza limiti
+   *
+   * @param regole le regole, in ordine di priorità
+   * @throws NullPointerException se le regole o una di esse sono null
+   */
+  public MotoreRiscrittura(List<Regola> regole) {
+    this(regole, Budget.ILLIMITATO);
+  }
+
+  /**
+   * Costruisce un motore di riscrittura che rispetta il budget dato
+   *
+   * @param regole le regole, in ordine di priorità
+   * @param budget il budget della manipolazione
+   * @throws NullPointerException se le regole, una di esse o il budget sono null
+   */
+  public MotoreRiscrittura(List<Regola> regole, Budget budget) {
+    super(budget);
+    this.indice = new AlberoDiscriminazione(regole);
+  }
+
+  @Override
+  protected Nodo visita(Nodo nodo) {
+    if (normali.contains(nodo)) return nodo;
+    return super.visita(nodo);
+  }
+
+  @Override
+  public Nodo visit(FogliaRazionale nodo) {
+    Objects.requireNonNull(nodo, "Il nodo foglia razionale da riscrivere non può essere null.");
+    return normalizza(nodo);
+  }
+
+  @Override
+  public Nodo visit(FogliaSimbolo fogliaSimbolo) {
+    Objects.requireNonNull(
+        fogliaSimbolo, "Il nodo foglia simbolo da riscrivere non può essere null.");
+    return normalizza(fogliaSimbolo);
+  }
+
+  @Override
+  public Nodo visit(NodoPotenza nodoPotenza) {
+    Objects.requireNonNull(nodoPotenza, "Il nodo potenza da riscrivere non può essere null.");
+    return normalizza(riscriviFigli(nodoPotenza));
+  }
+
+  @Override
+  public Nodo visit(NodoAddizione nodoAddizione) {
+    Objects.requireNonNull(nodoAddizione, "Il nodo addizione da riscrivere non può essere null.");
+    return normalizza(riscriviFigli(nodoAddizione));
+  }
+
+  @Override
+  public Nodo visit(NodoMoltiplicazione nodoMoltiplicazione) {
+    Objects.requireNonNull(
+        nodoMoltiplicazione, "Il nodo moltiplicazione da riscrivere non può essere null.");
+    return normalizza(riscriviFigli(nodoMoltiplicazione));
+  }
+
+  /**
+   * Metodo che applica le regole alla radice di un nodo con i figli in forma normale, finché
+   * nessuna si applica più
+   *
+   * @param nodo il nodo
+   * @return il nodo in forma normale
+   * @throws LimiteSuperatoException se le riscritture alla radice superano RISCRITTURE_MASSIME
+   */
+  private Nodo normalizza(Nodo nodo) {
+    for (int riscritture = 0; ; riscritture++) {
+      Nodo sostituto = applicaPrima(nodo);
+      if (sostituto == null) {
+        normali.add(nodo);
+        return nodo;
+      }
+      if (riscritture == RISCRITTURE_MASSIME)
+        throw new LimiteSuperatoException(
+            "Le regole non terminano sul nodo " + nodo + " dopo " + riscritture + " riscritture");
+      getBudget().consuma(1);
+      nodo = riscriviFigli(sostituto);
+    }
+  }
+
+  /**
+   * Metodo che applica a un nodo la prima regola candidata che lo modifica
+   *
+   * @param nodo il nodo
+   * @return il nodo sostituto, null se nessuna regola si applica
+   */
+  private Nodo applicaPrima(Nodo nodo) {
+    for (Regola regola : indice.candidate(nodo)) {
+      Nodo sostituto = regola.applica(nodo);
+      if (sostituto != null && !sostituto.equals(nodo)) return sostituto;
+    }
+    return null;
+  }
+
+  /**
+   * Metodo che riscrive i figli di un nodo, ricostruendolo solo se almeno un figlio cambia
+   *
+   * @param nodo il nodo
+   * @return il nodo con i figli in forma normale
+   */
+  private Nodo riscriviFigli(Nodo nodo) {
+    switch (nodo.getTipoNodo()) {
+      case POTENZA:
+        NodoPotenza potenza = (NodoPotenza) nodo;
+        Nodo base = visita(potenza.getBase());
+        if (base == potenza.getBase()) return nodo;
+        return new NodoPotenza(base, (FogliaRazionale) potenza.getEsponente());
+      case ADDIZIONE:
+      case MOLTIPLICAZIONE:
+        List<Nodo> figli = nodo.getFigliNodo();
+        List<Nodo> riscritti = new ArrayList<>(figli.size());
+        boolean cambiato = false;
+        for (Nodo figlio : figli) {
+          Nodo riscritto = visita(figlio);
+          cambiato |= riscritto != figlio;
+          riscritti.add(riscritto);
+        }
+        if (!cambiato) return nodo;
+        return nodo.getTipoNodo() == EnumNodo.ADDIZIONE
+            ? new NodoAddizione(riscritti)
+            : new NodoMoltiplicazione(riscritti);
+      default:
+        return nodo;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package luppolo.Riscrittura;
+
+import java.util.Objects;
+import java.util.function.Function;
+import luppolo.Nodo.Nodo;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta una regola di riscrittura: un nodo che corrisponde al
+ * modello viene sostituito dal nodo costruito a partire dai legami. La sostituzione può restituire
+ * null per dichiarare la regola non applicabile a quei legami.
+ */
+public class Regola {
+
+  /**
+   * AF: La regola nome riscrive i nodi che corrispondono a modello nel nodo sostituzione(legami).
+   * IR: nome != null, modello != null, sostituzione != null, modello non è un resto
+   */
+
+  /** Il nome della regola */
+  private final String nome;
+
+  /** Il modello dei nodi a cui la regola si applica */
+  private final Modello modello;
+
+  /** La costruzione del nodo sostituto a partire dai legami */
+  private final Function<Legami, Nodo> sostituzione;
+
+  /**
+   * Costruisce una regola
+   *
+   * @param nome il nome della regola
+   * @param modello il modello dei nodi a cui la regola si applica
+   * @param sostituzione la costruzione del nodo sostituto, che può restituire null se la regola non
+   *     si applica
+   * @throws NullPointerException se uno dei parametri è null
+   * @throws IllegalArgumentException se il modello è un resto
+   */
+  public Regola(String nome, Modello modello, Function<Legami, Nodo> sostituzione) {
+    Objects.requireNonNull(nome, "Il nome della regola non può essere null.");
+    Objects.requireNonNull(modello, "Il modello non può essere null.");
+    Objects.requireNonNull(sostituzione, "La sostituzione non può essere null.");
+    if (modello.getGenere() == Modello.Genere.RESTO)
+      throw new IllegalArgumentException("Il modello di una regola non può essere un resto.");
+    this.nome = nome;
+    this.modello = modello;
+    this.sostituzione = sostituzione;
+  }
+
+  /**
+   * Metodo che restituisce il nome della regola
+   *
+   * @return il nome
+   */
+  public String getNome() {
+    return nome;
+  }
+
+  /**
+   * Metodo che restituisce il modello della regola
+   *
+   * @return il modello
+   */
+  public Modello getModello() {
+    return modello;
+  }
+
+  /**
+   * Metodo che applica la regola a un nodo
+   *
+   * @param nodo il nodo
+   * @return il nodo sostituto, null se il nodo non corrisponde al modello o se la regola non si
+   *     applica
+   * @throws NullPointerException se il nodo è null
+   */
+  public Nodo applica(Nodo nodo) {
+    Objects.requireNonNull(nodo, "Il nodo non può essere null.");
+    Legami legami = new Legami();
+    if (!modello.corrisponde(nodo, legami)) return null;
+    return sostituzione.apply(legami);
+  }
+
+  @Override
+  public String toString() {
+    return nome + ": " + modello;
+  }
+}
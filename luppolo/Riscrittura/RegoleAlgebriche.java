@@ -0,0 +1,248 @@
+package luppolo.Riscrittura;
+
+import static luppolo.Riscrittura.Modello.addizione;
+import static luppolo.Riscrittura.Modello.costante;
+import static luppolo.Riscrittura.Modello.moltiplicazione;
+import static luppolo.Riscrittura.Modello.potenza;
+import static luppolo.Riscrittura.Modello.razionale;
+import static luppolo.Riscrittura.Modello.resto;
+import static luppolo.Riscrittura.Modello.variabile;
+
+import java.util.ArrayList;
+import java.util.List;
+import luppolo.Nodo.*;
+
+/**
+ * OVERVIEW: La classe raccoglie insiemi di regole algebriche di uso comune, da passare al motore di
+ * riscrittura da sole o concatenate.
+ */
+public final class RegoleAlgebriche {
+
+  /** Costruttore privato: la classe non è istanziabile */
+  private RegoleAlgebriche() {}
+
+  /**
+   * Metodo che restituisce le regole che eliminano gli elementi neutri e assorbenti
+   *
+   * @return la lista delle regole
+   */
+  public static List<Regola> identita() {
+    return List.of(
+        new Regola(
+            "potenza-uno", potenza(variabile("x"), costante(NumeroRazionale.UNO)), l -> l.get("x")),
+        new Regola(
+            "potenza-zero",
+            potenza(variabile("x"), costante(NumeroRazionale.ZERO)),
+            l -> isZero(l.get("x")) ? null : foglia(NumeroRazionale.UNO)),
+        new Regola(
+            "prodotto-zero",
+            moltiplicazione(costante(NumeroRazionale.ZERO), resto("r")),
+            l -> foglia(NumeroRazionale.ZERO)),
+        new Regola(
+            "prodotto-uno",
+            moltiplicazione(costante(NumeroRazionale.UNO), resto("r")),
+            l -> prodotto(l.resto("r"))),
+        new Regola(
+            "somma-zero",
+            addizione(costante(NumeroRazionale.ZERO), resto("r")),
+            l -> somma(l.resto("r"))));
+  }
+
+  /**
+   * Metodo che restituisce le regole che calcolano le operazioni tra costanti
+   *
+   * @return la lista delle regole
+   */
+  public static List<Regola> costanti() {
+    return List.of(
+        new Regola(
+            "somma-costanti",
+            addizione(razionale("a"), razionale("b"), resto("r")),
+            l -> somma(l.razionale("a").addizione(l.razionale("b")), l.resto("r"))),
+        new Regola(
+            "prodotto-costanti",
+            moltiplicazione(razionale("a"), razionale("b"), resto("r")),
+            l -> prodotto(l.razionale("a").moltiplicazione(l.razionale("b")), l.resto("r"))),
+        new Regola(
+            "potenza-costante",
+            potenza(razionale("a"), razionale("e")),
+            l -> {
+              NumeroRazionale base = l.razionale("a");
+              NumeroRazionale esponente = l.razionale("e");
+              boolean baseZero = base.equals(NumeroRazionale.ZERO);
+              if (baseZero && esponente.compareTo(NumeroRazionale.ZERO) <= 0) return null;
+              Nodo risultato = base.potenzaReturnNodo(esponente);
+              return risultato.getTipoNodo() == EnumNodo.RAZIONALE ? risultato : null;
+            }));
+  }
+
+  /**
+   * Metodo che restituisce le regole sulle potenze con esponente razionale
+   *
+   * @return la lista delle regole
+   */
+  public static List<Regola> potenze() {
+    return List.of(
+        new Regola(
+            "potenza-di-potenza",
+            potenza(potenza(variabile("x"), razionale("a")), razionale("b")),
+            l -> potenzaDi(l.get("x"), l.razionale("a").moltiplicazione(l.razionale("b")))),
+        new Regola(
+            "prodotto-potenze",
+            moltiplicazione(
+                potenza(variabile("x"), razionale("a")),
+                potenza(variabile("x"), razionale("b")),
+                resto("r")),
+            l -> {
+              NumeroRazionale esponente = l.razionale("a").addizione(l.razionale("b"));
+              return prodotto(potenzaDi(l.get("x"), esponente), l.resto("r"));
+            }),
+        new Regola(
+            "prodotto-potenza-base",
+            moltiplicazione(potenza(variabile("x"), razionale("a")), variabile("x"), resto("r")),
+            l -> {
+              NumeroRazionale esponente = l.razionale("a").addizione(NumeroRazionale.UNO);
+              return prodotto(potenzaDi(l.get("x"), esponente), l.resto("r"));
+            }),
+        new Regola(
+            "prodotto-basi-uguali",
+            moltiplicazione(variabile("x"), variabile("x"), resto("r")),
+            l -> prodotto(potenzaDi(l.get("x"), new NumeroRazionale(2, 1)), l.resto("r"))));
+  }
+
+  /**
+   * Metodo che restituisce le regole che appiattiscono addizioni e moltiplicazioni annidate
+   *
+   * @return la lista delle regole
+   */
+  public static List<Regola> appiattimento() {
+    return List.of(
+        new Regola(
+            "somma-annidata",
+            addizione(addizione(resto("a")), resto("r")),
+            l -> somma(concatena(l.resto("a"), l.resto("r")))),
+        new Regola(
+            "prodotto-annidato",
+            moltiplicazione(moltiplicazione(resto("a")), resto("r")),
+            l -> prodotto(concatena(l.resto("a"), l.resto("r")))));
+  }
+
+  /**
+   * Metodo che restituisce tutte le regole della classe, in ordine di priorità
+   *
+   * @return la lista delle regole
+   */
+  public static List<Regola> tutte() {
+    List<Regola> regole = new ArrayList<>();
+    regole.addAll(appiattimento());
+    regole.addAll(identita());
+    regole.addAll(costanti());
+    regole.addAll(potenze());
+    return List.copyOf(regole);
+  }
+
+  /**
+   * Metodo che stabilisce se un nodo è la foglia razionale zero
+   *
+   * @param nodo il nodo
+   * @return true se il nodo è zero, false altrimenti
+   */
+  private static boolean isZero(Nodo nodo) {
+    return nodo.getTipoNodo() == EnumNodo.RAZIONALE
+        && nodo.evaluate().equals(NumeroRazionale.ZERO);
+  }
+
+  /**
+   * Metodo che restituisce la foglia di un numero razionale
+   *
+   * @param valore il valore
+   * @return la foglia
+   */
+  private static Nodo foglia(NumeroRazionale valore) {
+    return new FogliaRazionale(valore);
+  }
+
+  /**
+   * Metodo che restituisce la potenza di un nodo con esponente razionale
+   *
+   * @param base la base
+   * @param esponente l'esponente
+   * @return il nodo potenza
+   */
+  private static Nodo potenzaDi(Nodo base, NumeroRazionale esponente) {
+    return new NodoPotenza(base, new FogliaRazionale(esponente));
+  }
+
+  /**
+   * Metodo che concatena due liste di nodi
+   *
+   * @param prima la prima lista
+   * @param seconda la seconda lista
+   * @return la concatenazione
+   */
+  private static List<Nodo> concatena(List<Nodo> prima, List<Nodo> seconda) {
+    List<Nodo> nodi = new ArrayList<>(prima.size() + seconda.size());
+    nodi.addAll(prima);
+    nodi.addAll(seconda);
+    return nodi;
+  }
+
+  /**
+   * Metodo che restituisce la somma di una costante e di una lista di addendi
+   *
+   * @param costante la costante
+   * @param addendi gli altri addendi
+   * @return il nodo somma
+   */
+  private static Nodo somma(NumeroRazionale costante, List<Nodo> addendi) {
+    return somma(concatena(List.of(foglia(costante)), addendi));
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di una costante e di una lista di fattori
+   *
+   * @param costante la costante
+   * @param fattori gli altri fattori
+   * @return il nodo prodotto
+   */
+  private static Nodo prodotto(NumeroRazionale costante, List<Nodo> fattori) {
+    return prodotto(concatena(List.of(foglia(costante)), fattori));
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di un nodo e di una lista di fattori
+   *
+   * @param fattore il nodo
+   * @param fattori gli altri fattori
+   * @return il nodo prodotto
+   */
+  private static Nodo prodotto(Nodo fattore, List<Nodo> fattori) {
+    return prodotto(concatena(List.of(fattore), fattori));
+  }
+
+  /**
+   * Metodo che restituisce la somma di una lista di addendi, senza nodo addizione se gli addendi
+   * sono meno di due
+   *
+   * @param addendi gli addendi
+   * @return il nodo somma
+   */
+  private static Nodo somma(List<Nodo> addendi) {
+    if (addendi.isEmpty()) return foglia(NumeroRazionale.ZERO);
+    if (addendi.size() == 1) return addendi.get(0);
+    return new NodoAddizione(addendi);
+  }
+
+  /**
+   * Metodo che restituisce il prodotto di una lista di fattori, senza nodo moltiplicazione se i
+   * fattori sono meno di due
+   *
+   * @param fattori i fattori
+   * @return il nodo prodotto
+   */
+  private static Nodo prodotto(List<Nodo> fattori) {
+    if (fattori.isEmpty()) return foglia(NumeroRazionale.UNO);
+    if (fattori.size() == 1) return fattori.get(0);
+    return new NodoMoltiplicazione(fattori);
+  }
+}
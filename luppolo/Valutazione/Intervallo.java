@@ -0,0 +1,150 @@
+package luppolo.Valutazione;
+
+/**
+ * OVERVIEW: La classe immutabile rappresenta un intervallo chiuso di numeri reali, eventualmente
+ * illimitato, oppure l'intervallo vuoto.
+ */
+public final class Intervallo {
+
+  /** L'intervallo vuoto */
+  public static final Intervallo VUOTO = new Intervallo(Double.NaN, Double.NaN, true);
+
+  /** L'intervallo di tutti i numeri reali */
+  public static final Intervallo REALE =
+      new Intervallo(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+  /**
+   * AF: L'intervallo {x | inf <= x <= sup}, vuoto se inf e sup sono NaN. IR: inf e sup sono
+   * entrambi NaN oppure inf <= sup
+   */
+
+  /** L'estremo inferiore */
+  private final double inf;
+
+  /** L'estremo superiore */
+  private final double sup;
+
+  /**
+   * Costruisce l'intervallo [inf, sup]
+   *
+   * @param inf l'estremo inferiore
+   * @param sup l'estremo superiore
+   * @throws IllegalArgumentException se un estremo è NaN o inf > sup
+   */
+  public Intervallo(double inf, double sup) {
+    if (Double.isNaN(inf) || Double.isNaN(sup) || inf > sup)
+      throw new IllegalArgumentException("Intervallo non valido: [" + inf + ", " + sup + "]");
+    this.inf = inf;
+    this.sup = sup;
+  }
+
+  /**
+   * Costruisce un intervallo senza controlli
+   *
+   * @param inf l'estremo inferiore
+   * @param sup l'estremo superiore
+   * @param nonControllato segnaposto che distingue il costruttore
+   */
+  private Intervallo(double inf, double sup, boolean nonControllato) {
+    this.inf = inf;
+    this.sup = sup;
+  }
+
+  /**
+   * Metodo che restituisce l'intervallo formato da un solo punto
+   *
+   * @param valore il punto
+   * @return l'intervallo [valore, valore]
+   * @throws IllegalArgumentException se il valore è NaN
+   */
+  public static Intervallo punto(double valore) {
+    return new Intervallo(valore, valore);
+  }
+
+  /**
+   * Metodo che restituisce l'intervallo di estremi dati, vuoto se gli estremi sono NaN
+   *
+   * @param inf l'estremo inferiore
+   * @param sup l'estremo superiore
+   * @return l'intervallo
+   */
+  static Intervallo di(double inf, double sup) {
+    if (Double.isNaN(inf) || Double.isNaN(sup)) return VUOTO;
+    return new Intervallo(inf, sup);
+  }
+
+  /**
+   * Metodo che restituisce l'estremo inferiore
+   *
+   * @return l'estremo inferiore, NaN se l'intervallo è vuoto
+   */
+  public double getInf() {
+    return inf;
+  }
+
+  /**
+   * Metodo che restituisce l'estremo superiore
+   *
+   * @return l'estremo superiore, NaN se l'intervallo è vuoto
+   */
+  public double getSup() {
+    return sup;
+  }
+
+  /**
+   * Metodo che stabilisce se l'intervallo è vuoto
+   *
+   * @return true se l'intervallo è vuoto, false altrimenti
+   */
+  public boolean isVuoto() {
+    return Double.isNaN(inf);
+  }
+
+  /**
+   * Metodo che restituisce l'ampiezza dell'intervallo
+   *
+   * @return sup - inf, 0 se l'intervallo è vuoto
+   */
+  public double getAmpiezza() {
+    return isVuoto() ? 0 : sup - inf;
+  }
+
+  /**
+   * Metodo che stabilisce se un numero appartiene all'intervallo
+   *
+   * @param valore il numero
+   * @return true se inf <= valore <= sup, false altrimenti
+   */
+  public boolean contiene(double valore) {
+    return inf <= valore && valore <= sup;
+  }
+
+  /**
+   * Metodo che stabilisce se un intervallo è contenuto in questo
+   *
+   * @param altro l'altro intervallo
+   * @return true se ogni punto dell'altro intervallo appartiene a questo, false altrimenti
+   * @throws NullPointerException se l'altro intervallo è null
+   */
+  public boolean contiene(Intervallo altro) {
+    return altro.isVuoto() || (inf <= altro.inf && altro.sup <= sup);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Intervallo)) return false;
+    Intervallo altro = (Intervallo) o;
+    return Double.compare(inf, altro.inf) == 0 && Double.compare(sup, altro.sup) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Double.hashCode(inf) + Double.hashCode(sup);
+  }
+
+  @Override
+  public String toString() {
+    return isVuoto() ? "[]" : "[" + inf + ", " + sup + "]";
+  }
+}
@@ -0,0 +1,422 @@
+package luppolo.Valutazione;
+
+import java.util.Arrays;
+import java.util.Objects;
+import luppolo.Espressione;
+import luppolo.Nodo.EnumNodo;
+import luppolo.Nodo.Nodo;
+import luppolo.Nodo.NodoPotenza;
+import luppolo.Nodo.NumeroRazionale;
+
+/**
+ * OVERVIEW: La classe valuta un albero in aritmetica degli intervalli: dato un intervallo per ogni
+ * variabile, restituisce un intervallo che contiene certamente tutti i valori dell'albero sulla
+ * scatola di variabili. L'albero viene compilato una volta in un programma in notazione postfissa,
+ * eseguito poi su una pila di estremi riutilizzata a ogni valutazione; gli estremi calcolati sono
+ * arrotondati verso l'esterno. Un'istanza non va usata da più thread contemporaneamente.
+ */
+public class ValutatoreIntervalli {
+
+  /** Codice dell'istruzione che carica una costante */
+  private static final int COSTANTE = 0;
+
+  /** Codice dell'istruzione che carica una variabile */
+  private static final int VARIABILE = 1;
+
+  /** Codice dell'istruzione che somma gli intervalli in cima alla pila */
+  private static final int SOMMA = 2;
+
+  /** Codice dell'istruzione che moltiplica gli intervalli in cima alla pila */
+  private static final int PRODOTTO = 3;
+
+  /** Codice dell'istruzione che eleva a potenza l'intervallo in cima alla pila */
+  private static final int POTENZA = 4;
+
+  /**
+   * AF: Il programma codici[0..n-1], in cui l'istruzione i ha argomento argomenti[i]: l'indice
+   * della costante, della variabile o dell'esponente, oppure il numero di operandi. IR: codici e
+   * argomenti hanno la stessa lunghezza, gli argomenti sono indici validi, pilaInf e pilaSup
+   * bastano per la profondità massima della pila, il bit i di variabiliUsate vale 1 se e solo se il
+   * programma carica la variabile i
+   */
+
+  /** I codici delle istruzioni */
+  private final int[] codici;
+
+  /** Gli argomenti delle istruzioni */
+  private final int[] argomenti;
+
+  /** Gli estremi inferiori delle costanti */
+  private final double[] costantiInf;
+
+  /** Gli estremi superiori delle costanti */
+  private final double[] costantiSup;
+
+  /** Gli esponenti delle potenze */
+  private final NumeroRazionale[] esponenti;
+
+  /** Le variabili caricate dal programma, un bit per lettera */
+  private final int variabiliUsate;
+
+  /** Gli estremi inferiori della pila */
+  private final double[] pilaInf;
+
+  /** Gli estremi superiori della pila */
+  private final double[] pilaSup;
+
+  /**
+   * Compila un albero
+   *
+   * @param radice la radice dell'albero
+   * @throws NullPointerException se la radice è null
+   */
+  public ValutatoreIntervalli(Nodo radice) {
+    Objects.requireNonNull(radice, "La radice non può essere null.");
+    Compilatore compilatore = new Compilatore();
+    compilatore.compila(radice);
+    this.codici = Arrays.copyOf(compilatore.codici, compilatore.istruzioni);
+    this.argomenti = Arrays.copyOf(compilatore.argomenti, compilatore.istruzioni);
+    this.costantiInf = Arrays.copyOf(compilatore.costantiInf, compilatore.costanti);
+    this.costantiSup = Arrays.copyOf(compilatore.costantiSup, compilatore.costanti);
+    this.esponenti = Arrays.copyOf(compilatore.esponenti, compilatore.numeroEsponenti);
+    this.variabiliUsate = compilatore.variabiliUsate;
+    this.pilaInf = new double[compilatore.profonditaMassima];
+    this.pilaSup = new double[compilatore.profonditaMassima];
+  }
+
+  /**
+   * Compila un'espressione
+   *
+   * @param espressione l'espressione
+   * @throws NullPointerException se l'espressione è null
+   */
+  public ValutatoreIntervalli(Espressione espressione) {
+    this(Objects.requireNonNull(espressione, "L'espressione non può essere null.").getRadice());
+  }
+
+  /**
+   * Metodo che valuta l'albero su una scatola di variabili
+   *
+   * @param dominio gli intervalli delle variabili, indicizzati per lettera: dominio[0] è
+   *     l'intervallo di 'a'
+   * @return un intervallo che contiene tutti i valori dell'albero sulla scatola
+   * @throws NullPointerException se il dominio o l'intervallo di una variabile usata sono null
+   * @throws ArrayIndexOutOfBoundsException se manca l'intervallo di una variabile usata
+   */
+  public Intervallo valuta(Intervallo[] dominio) {
+    Objects.requireNonNull(dominio, "Il dominio non può essere null.");
+    double[] inf = new double[dominio.length];
+    double[] sup = new double[dominio.length];
+    for (int i = 0; i < dominio.length; i++) {
+      if (dominio[i] == null) {
+        if (i < Integer.SIZE && (variabiliUsate & 1 << i) != 0)
+          throw new NullPointerException(
+              "L'intervallo della variabile " + (char) ('a' + i) + " non può essere null.");
+        continue;
+      }
+      inf[i] = dominio[i].getInf();
+      sup[i] = dominio[i].getSup();
+    }
+    return valuta(inf, sup);
+  }
+
+  /**
+   * Metodo che valuta l'albero su una scatola di variabili data dagli estremi, senza allocazioni
+   * oltre al risultato
+   *
+   * @param inf gli estremi inferiori delle variabili, indicizzati per lettera
+   * @param sup gli estremi superiori delle variabili, indicizzati per lettera
+   * @return un intervallo che contiene tutti i valori dell'albero sulla scatola
+   * @throws NullPointerException se uno dei vettori è null
+   * @throws ArrayIndexOutOfBoundsException se manca l'estremo di una variabile usata
+   */
+  public Intervallo valuta(double[] inf, double[] sup) {
+    Objects.requireNonNull(inf, "Gli estremi inferiori non possono essere null.");
+    Objects.requireNonNull(sup, "Gli estremi superiori non possono essere null.");
+    int cima = 0;
+    for (int i = 0; i < codici.length; i++) {
+      int argomento = argomenti[i];
+      switch (codici[i]) {
+        case COSTANTE:
+          pilaInf[cima] = costantiInf[argomento];
+          pilaSup[cima++] = costantiSup[argomento];
+          break;
+        case VARIABILE:
+          pilaInf[cima] = inf[argomento];
+          pilaSup[cima++] = sup[argomento];
+          break;
+        case SOMMA:
+          cima -= argomento;
+          somma(cima, argomento);
+          cima++;
+          break;
+        case PRODOTTO:
+          cima -= argomento;
+          prodotto(cima, argomento);
+          cima++;
+          break;
+        default:
+          potenza(cima - 1, esponenti[argomento]);
+      }
+    }
+    return Intervallo.di(pilaInf[0], pilaSup[0]);
+  }
+
+  /**
+   * Metodo mutazionale che somma gli intervalli della pila da base in poi, lasciando il risultato
+   * in base. Una somma nulla è esatta e non viene allargata
+   *
+   * @param base la posizione del primo operando
+   * @param operandi il numero di operandi
+   */
+  private void somma(int base, int operandi) {
+    double inf = pilaInf[base];
+    double sup = pilaSup[base];
+    for (int i = base + 1; i < base + operandi; i++) {
+      inf = inf + pilaInf[i];
+      sup = sup + pilaSup[i];
+      inf = inf == 0 ? inf : Math.nextDown(inf);
+      sup = sup == 0 ? sup : Math.nextUp(sup);
+    }
+    pilaInf[base] = inf;
+    pilaSup[base] = sup;
+  }
+
+  /**
+   * Metodo mutazionale che moltiplica gli intervalli della pila da base in poi, lasciando il
+   * risultato in base. Il prodotto con un intervallo vuoto è vuoto; un estremo nullo non viene
+   * allargato se nessun prodotto di estremi non nulli si è annullato per sottoflusso
+   *
+   * @param base la posizione del primo operando
+   * @param operandi il numero di operandi
+   */
+  private void prodotto(int base, int operandi) {
+    double inf = pilaInf[base];
+    double sup = pilaSup[base];
+    for (int i = base + 1; i < base + operandi; i++) {
+      if (Double.isNaN(inf) || Double.isNaN(pilaInf[i])) {
+        inf = Double.NaN;
+        sup = Double.NaN;
+        continue;
+      }
+      double a = per(inf, pilaInf[i]);
+      double b = per(inf, pilaSup[i]);
+      double c = per(sup, pilaInf[i]);
+      double d = per(sup, pilaSup[i]);
+      boolean esatti =
+          !sottoflusso(inf, pilaInf[i], a)
+              && !sottoflusso(inf, pilaSup[i], b)
+              && !sottoflusso(sup, pilaInf[i], c)
+              && !sottoflusso(sup, pilaSup[i], d);
+      inf = Math.min(Math.min(a, b), Math.min(c, d));
+      sup = Math.max(Math.max(a, b), Math.max(c, d));
+      inf = inf == 0 && esatti ? inf : Math.nextDown(inf);
+      sup = sup == 0 && esatti ? sup : Math.nextUp(sup);
+    }
+    pilaInf[base] = inf;
+    pilaSup[base] = sup;
+  }
+
+  /**
+   * Metodo mutazionale che eleva a potenza l'intervallo in una posizione della pila
+   *
+   * @param posizione la posizione dell'intervallo
+   * @param esponente l'esponente
+   */
+  private void potenza(int posizione, NumeroRazionale esponente) {
+    double inf = pilaInf[posizione];
+    double sup = pilaSup[posizione];
+    long numeratore = esponente.getNumeratore();
+    long denominatore = esponente.getDenominatore();
+    if (denominatore > 1 && !Double.isNaN(inf)) {
+      if (denominatore % 2 == 0) {
+        if (sup < 0) {
+          inf = Double.NaN;
+          sup = Double.NaN;
+        } else {
+          inf = Math.max(inf, 0);
+        }
+      }
+      inf = inf == 0 ? 0 : Math.nextDown(radice(inf, denominatore));
+      sup = sup == 0 ? 0 : Math.nextUp(radice(sup, denominatore));
+    }
+    long modulo = Math.abs(numeratore);
+    if (modulo == 0 && !Double.isNaN(inf)) {
+      inf = 1;
+      sup = 1;
+    } else if (modulo != 1 && !Double.isNaN(inf)) {
+      double potenzaInf = Math.pow(inf, modulo);
+      double potenzaSup = Math.pow(sup, modulo);
+      if (modulo % 2 == 1 || inf >= 0) {
+        inf = potenzaInf;
+        sup = potenzaSup;
+      } else if (sup <= 0) {
+        inf = potenzaSup;
+        sup = potenzaInf;
+      } else {
+        inf = 0;
+        sup = Math.max(potenzaInf, potenzaSup);
+      }
+      inf = inf == 0 ? 0 : Math.nextDown(inf);
+      sup = sup == 0 ? 0 : Math.nextUp(sup);
+    }
+    if (numeratore < 0 && !Double.isNaN(inf)) {
+      double reciprocoInf;
+      double reciprocoSup;
+      if (inf == 0 && sup == 0) {
+        reciprocoInf = Double.NaN;
+        reciprocoSup = Double.NaN;
+      } else if (inf >= 0) {
+        reciprocoInf = Math.nextDown(1 / sup);
+        reciprocoSup = inf == 0 ? Double.POSITIVE_INFINITY : Math.nextUp(1 / inf);
+      } else if (sup <= 0) {
+        reciprocoInf = sup == 0 ? Double.NEGATIVE_INFINITY : Math.nextDown(1 / sup);
+        reciprocoSup = Math.nextUp(1 / inf);
+      } else {
+        reciprocoInf = Double.NEGATIVE_INFINITY;
+        reciprocoSup = Double.POSITIVE_INFINITY;
+      }
+      inf = reciprocoInf;
+      sup = reciprocoSup;
+    }
+    pilaInf[posizione] = inf;
+    pilaSup[posizione] = sup;
+  }
+
+  /**
+   * Metodo che stabilisce se il prodotto di due estremi non nulli si è annullato per sottoflusso
+   *
+   * @param a il primo estremo
+   * @param b il secondo estremo
+   * @param prodotto il prodotto calcolato
+   * @return true se a e b non sono nulli e il prodotto è nullo, false altrimenti
+   */
+  private static boolean sottoflusso(double a, double b, double prodotto) {
+    return prodotto == 0 && a != 0 && b != 0;
+  }
+
+  /**
+   * Metodo che moltiplica due estremi, con la convenzione 0 * infinito = 0. Gli estremi degli
+   * intervalli vuoti sono NaN e vanno esclusi prima di applicare la convenzione
+   *
+   * @param a il primo estremo
+   * @param b il secondo estremo
+   * @return il prodotto
+   */
+  private static double per(double a, double b) {
+    return a == 0 || b == 0 ? 0 : a * b;
+  }
+
+  /**
+   * Metodo che calcola la radice reale di indice dato, con segno per gli indici dispari
+   *
+   * @param valore il radicando
+   * @param indice l'indice della radice
+   * @return la radice
+   */
+  private static double radice(double valore, long indice) {
+    if (indice == 2) return Math.sqrt(valore);
+    if (indice == 3) return Math.cbrt(valore);
+    double modulo = Math.pow(Math.abs(valore), 1.0 / indice);
+    return valore < 0 ? -modulo : modulo;
+  }
+
+  /** OVERVIEW: Compilatore mutabile di un albero nel programma del valutatore */
+  private static final class Compilatore {
+
+    /** I codici delle istruzioni */
+    private int[] codici = new int[16];
+
+    /** Gli argomenti delle istruzioni */
+    private int[] argomenti = new int[16];
+
+    /** Il numero di istruzioni */
+    private int istruzioni;
+
+    /** Gli estremi inferiori delle costanti */
+    private double[] costantiInf = new double[8];
+
+    /** Gli estremi superiori delle costanti */
+    private double[] costantiSup = new double[8];
+
+    /** Il numero di costanti */
+    private int costanti;
+
+    /** Gli esponenti delle potenze */
+    private NumeroRazionale[] esponenti = new NumeroRazionale[8];
+
+    /** Il numero di esponenti */
+    private int numeroEsponenti;
+
+    /** Le variabili caricate, un bit per lettera */
+    private int variabiliUsate;
+
+    /** La profondità corrente della pila */
+    private int profondita;
+
+    /** La profondità massima della pila */
+    private int profonditaMassima;
+
+    /**
+     * Metodo mutazionale che compila un sottoalbero in notazione postfissa
+     *
+     * @param nodo la radice del sottoalbero
+     */
+    private void compila(Nodo nodo) {
+      switch (nodo.getTipoNodo()) {
+        case RAZIONALE:
+          NumeroRazionale valore = nodo.evaluate();
+          double approssimato = valore.doubleValue();
+          boolean esatto =
+              valore.getDenominatore() == 1 && Math.abs(valore.getNumeratore()) <= 1L << 53;
+          if (costanti == costantiInf.length) {
+            costantiInf = Arrays.copyOf(costantiInf, 2 * costanti);
+            costantiSup = Arrays.copyOf(costantiSup, 2 * costanti);
+          }
+          costantiInf[costanti] = esatto ? approssimato : Math.nextDown(approssimato);
+          costantiSup[costanti] = esatto ? approssimato : Math.nextUp(approssimato);
+          emetti(COSTANTE, costanti++, 1);
+          break;
+        case SIMBOLO:
+          int variabile = nodo.getValoreNodo().charAt(0) - 'a';
+          variabiliUsate |= 1 << variabile;
+          emetti(VARIABILE, variabile, 1);
+          break;
+        case POTENZA:
+          NodoPotenza potenza = (NodoPotenza) nodo;
+          compila(potenza.getBase());
+          if (numeroEsponenti == esponenti.length)
+            esponenti = Arrays.copyOf(esponenti, 2 * numeroEsponenti);
+          esponenti[numeroEsponenti] = potenza.getEsponenteValore();
+          emetti(POTENZA, numeroEsponenti++, 0);
+          break;
+        default:
+          int operandi = 0;
+          for (Nodo figlio : nodo.getFigliNodo()) {
+            compila(figlio);
+            operandi++;
+          }
+          int codice = nodo.getTipoNodo() == EnumNodo.ADDIZIONE ? SOMMA : PRODOTTO;
+          emetti(codice, operandi, 1 - operandi);
+      }
+    }
+
+    /**
+     * Metodo mutazionale che aggiunge un'istruzione al programma
+     *
+     * @param codice il codice dell'istruzione
+     * @param argomento l'argomento dell'istruzione
+     * @param variazione la variazione della profondità della pila
+     */
+    private void emetti(int codice, int argomento, int variazione) {
+      if (istruzioni == codici.length) {
+        codici = Arrays.copyOf(codici, 2 * istruzioni);
+        argomenti = Arrays.copyOf(argomenti, 2 * istruzioni);
+      }
+      codici[istruzioni] = codice;
+      argomenti[istruzioni++] = argomento;
+      profondita += variazione;
+      profonditaMassima = Math.max(profonditaMassima, profondita);
+    }
+  }
+}